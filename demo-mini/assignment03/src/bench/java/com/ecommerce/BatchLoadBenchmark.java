@@ -0,0 +1,152 @@
+package com.ecommerce;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to load one page of products, one query per product
+ * versus batched, against a fake database with a fixed round-trip time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BatchLoadBenchmark {
+
+    /**
+     * One page of product IDs and a fake database behind it.
+     */
+    @State(Scope.Thread)
+    public static class Page {
+
+        @Param({"50"})
+        int products;
+
+        @Param({"20"})
+        long queryMillis;
+
+        final List<String> productIds = new ArrayList<>();
+        SlowSource source;
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < products; i++) {
+                productIds.add("P" + i);
+            }
+            source = new SlowSource(queryMillis);
+        }
+    }
+
+    /**
+     * Independent callers, e.g. page widgets each asking for their own product through
+     * one batch loader. They are started before each invocation, so the measurement
+     * covers the loads rather than thread creation.
+     */
+    @State(Scope.Thread)
+    public static class Callers {
+        private CountDownLatch go;
+        private List<Thread> threads;
+
+        @Setup(Level.Invocation)
+        public void start(Page page) {
+            ProductBatchLoader batchLoader = new ProductBatchLoader(new SlowSource(page.queryMillis));
+            go = new CountDownLatch(1);
+            threads = new ArrayList<>();
+            for (String productId : page.productIds) {
+                Thread caller = new Thread(() -> {
+                    try {
+                        go.await();
+                        batchLoader.getProduct(productId);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                caller.start();
+                threads.add(caller);
+            }
+        }
+
+        int releaseAndJoin() throws InterruptedException {
+            go.countDown();
+            for (Thread caller : threads) {
+                caller.join();
+            }
+            return threads.size();
+        }
+    }
+
+    /**
+     * A cache over a batch loader that has seen nothing yet; replaced before each invocation.
+     */
+    @State(Scope.Thread)
+    public static class ColdCache {
+        CachingProductCatalog catalog;
+
+        @Setup(Level.Invocation)
+        public void setUp(Page page) {
+            catalog = new CachingProductCatalog(new ProductBatchLoader(new SlowSource(page.queryMillis)));
+        }
+    }
+
+    /**
+     * A cache over a batch loader that already holds the whole page.
+     */
+    @State(Scope.Thread)
+    public static class WarmCache {
+        CachingProductCatalog catalog;
+
+        @Setup
+        public void setUp(Page page) {
+            catalog = new CachingProductCatalog(new ProductBatchLoader(new SlowSource(page.queryMillis)));
+            catalog.getProducts(page.productIds);
+        }
+    }
+
+    @Benchmark
+    public int oneQueryPerProduct(Page page) {
+        int loaded = 0;
+        for (String productId : page.productIds) {
+            if (page.source.getProduct(productId) != null) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    @Benchmark
+    public Map<String, Product> getProducts(Page page) {
+        return page.source.getProducts(page.productIds);
+    }
+
+    @Benchmark
+    public int concurrentCallers(Callers callers) throws InterruptedException {
+        return callers.releaseAndJoin();
+    }
+
+    @Benchmark
+    public Map<String, Product> coldCacheOverBatchLoader(Page page, ColdCache cache) {
+        return cache.catalog.getProducts(page.productIds);
+    }
+
+    @Benchmark
+    public Map<String, Product> warmCacheOverBatchLoader(Page page, WarmCache cache) {
+        return cache.catalog.getProducts(page.productIds);
+    }
+}
@@ -0,0 +1,175 @@
+package com.ecommerce;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the W-TinyLFU caching proxy with a plain LRU proxy on a skewed trace.
+ *
+ * The trace is Zipf-distributed product lookups over a large catalog, interrupted by
+ * scans of products nobody asks for twice (crawlers, "browse all" pages). The source is
+ * an in-memory fake that counts queries and loads run on the calling thread, so the time
+ * per lookup is the proxies' own overhead. The hitPercent counter is the share of lookups
+ * the proxy answered without the source; against the real catalog every miss costs 100 ms.
+ *
+ * The trace is replayed from where the previous invocation left off, so the cache
+ * carries its state across iterations the way a long-running service would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CacheBenchmark {
+
+    private static final int OPERATIONS = 2_000_000;
+    private static final int CATALOG_SIZE = 100_000;
+    private static final double ZIPF_EXPONENT = 0.9;
+    private static final int SCAN_EVERY = 50_000;
+    private static final int SCAN_LENGTH = 5_000;
+
+    @Param({"LRU", "W-TinyLFU"})
+    String policy;
+
+    @Param({"500", "2000", "10000"})
+    int maximumSize;
+
+    private String[] trace;
+    private CountingSource source;
+    private ProductLookup proxy;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        trace = buildTrace(OPERATIONS, CATALOG_SIZE, ZIPF_EXPONENT, new Random(42));
+        source = new CountingSource();
+        proxy = "LRU".equals(policy)
+                ? new LruProductCatalog(source, maximumSize)
+                : new CachingProductCatalog(source, maximumSize, Duration.ofHours(1), Duration.ofHours(1),
+                        Duration.ofSeconds(5), System::nanoTime, Runnable::run);
+    }
+
+    @Benchmark
+    public Product lookup(HitRate hitRate) {
+        String productId = trace[next];
+        next = next + 1 == trace.length ? 0 : next + 1;
+        long queriesBefore = source.queries;
+        Product product = proxy.getProduct(productId);
+        hitRate.record(source.queries != queriesBefore);
+        return product;
+    }
+
+    /**
+     * Share of the iteration's lookups served from the cache, reported next to the time.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HitRate {
+        private long lookups;
+        private long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            lookups = 0;
+            misses = 0;
+        }
+
+        public double hitPercent() {
+            return lookups == 0 ? 0 : 100.0 * (lookups - misses) / lookups;
+        }
+
+        void record(boolean miss) {
+            lookups++;
+            if (miss) {
+                misses++;
+            }
+        }
+    }
+
+    private static String[] buildTrace(int operations, int catalogSize, double exponent, Random random) {
+        double[] cumulative = new double[catalogSize];
+        double sum = 0;
+        for (int rank = 1; rank <= catalogSize; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+
+        String[] trace = new String[operations];
+        int scanned = 0;
+        for (int i = 0; i < operations; i++) {
+            if (i % SCAN_EVERY < SCAN_LENGTH && i >= SCAN_EVERY) {
+                trace[i] = "SCAN-" + scanned++;
+                continue;
+            }
+            double target = random.nextDouble() * sum;
+            int low = 0;
+            int high = catalogSize - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            trace[i] = "P" + low;
+        }
+        return trace;
+    }
+}
+
+class CountingSource implements ProductLookup {
+    long queries;
+
+    @Override
+    public Product getProduct(String productId) {
+        queries++;
+        return new Product(productId, "Product " + productId, 29.99);
+    }
+}
+
+/**
+ * Baseline proxy: an access-ordered map bounded by evicting the least recently used product.
+ */
+class LruProductCatalog implements ProductLookup {
+    private final ProductLookup source;
+    private final Map<String, Product> cache;
+
+    LruProductCatalog(ProductLookup source, int maximumSize) {
+        this.source = source;
+        this.cache = new LinkedHashMap<String, Product>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Product> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Product getProduct(String productId) {
+        Product product = cache.get(productId);
+        if (product == null) {
+            product = source.getProduct(productId);
+            cache.put(productId, product);
+        }
+        return product;
+    }
+}
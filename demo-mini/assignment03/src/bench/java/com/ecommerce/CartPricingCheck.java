@@ -0,0 +1,79 @@
+package com.ecommerce;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks CartPricing's running subtotal.
+ *
+ * 1. A product added at $10 and again at $12 totals $22: each unit keeps the price
+ *    it was added at.
+ * 2. Lowering that product's quantity takes units off the newest price first, and
+ *    raising it adds units at the newest price.
+ * 3. After a long random mix of adds, quantity changes and removals, the running
+ *    subtotal and item count match a full recompute.
+ *
+ * Exits with status 1 if any check fails.
+ */
+public class CartPricingCheck {
+
+    private static final int OPERATIONS = 100_000;
+
+    public static void main(String[] args) {
+        List<String> failures = new ArrayList<>();
+
+        CartPricing cart = new CartPricing();
+        cart.addItem("A", 10.00, 1);
+        cart.addItem("A", 12.00, 1);
+        expect(failures, "A at $10 then at $12", cart, 22.00, 2);
+
+        cart.updateQuantity("A", 3);
+        expect(failures, "raised to 3", cart, 34.00, 3);
+        cart.updateQuantity("A", 1);
+        expect(failures, "lowered to 1", cart, 10.00, 1);
+        cart.addItem("A", 10.00, 2);
+        expect(failures, "added again at $10", cart, 30.00, 3);
+        cart.removeItem("A");
+        expect(failures, "removed", cart, 0, 0);
+
+        Random random = new Random(9);
+        CartPricing randomCart = new CartPricing();
+        for (int i = 0; i < OPERATIONS; i++) {
+            String product = "P" + random.nextInt(50);
+            switch (random.nextInt(4)) {
+                case 0:
+                    randomCart.removeItem(product);
+                    break;
+                case 1:
+                    try {
+                        randomCart.updateQuantity(product, random.nextInt(6));
+                    } catch (IllegalArgumentException notInCart) {
+                        // Only products in the cart can be updated
+                    }
+                    break;
+                default:
+                    randomCart.addItem(product, (1 + random.nextInt(5_000)) / 100.0, 1 + random.nextInt(3));
+            }
+        }
+        System.out.printf("After %,d random changes: running $%.2f, recomputed $%.2f, %d items%n",
+                OPERATIONS, randomCart.getSubtotal(), randomCart.recalculateSubtotal(), randomCart.getItemCount());
+        if (randomCart.getSubtotal() != randomCart.recalculateSubtotal()) {
+            failures.add("running subtotal drifted from the recompute");
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("PASS");
+        } else {
+            failures.forEach(f -> System.out.println("FAIL: " + f));
+            System.exit(1);
+        }
+    }
+
+    private static void expect(List<String> failures, String step, CartPricing cart, double subtotal, int items) {
+        if (cart.getSubtotal() != subtotal || cart.recalculateSubtotal() != subtotal || cart.getItemCount() != items) {
+            failures.add(step + ": subtotal $" + cart.getSubtotal() + " (recomputed $" + cart.recalculateSubtotal()
+                    + "), " + cart.getItemCount() + " items; expected $" + subtotal + ", " + items + " items");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per cart of adding fees through a decorator chain and through the compiled
+ * plan of the same configuration, for configurations of increasing length. Fails if
+ * the two ever disagree on a total. Then measures fetching a plan from the cache
+ * against compiling it on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeePipelineBenchmark {
+
+    static final int CARTS = 100_000;
+
+    /**
+     * Random carts priced through one configuration, built both ways.
+     */
+    @State(Scope.Thread)
+    public static class Carts {
+
+        // 3 is express shipping, gift wrap and insurance; longer ones mix random fees
+        @Param({"3", "8", "16"})
+        int fees;
+
+        final long[] subtotals = new long[CARTS];
+        final int[] itemCounts = new int[CARTS];
+        CartTotal chain;
+        FeePlan plan;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(5);
+            for (int i = 0; i < CARTS; i++) {
+                subtotals[i] = random.nextInt(500_000);
+                itemCounts[i] = 1 + random.nextInt(20);
+            }
+
+            FeeConfiguration configuration = fees == 3
+                    ? FeeConfiguration.of(CartPricing.EXPRESS_SHIPPING, CartPricing.GIFT_WRAP, CartPricing.INSURANCE)
+                    : mixed(fees, random);
+            chain = configuration.toDecoratorChain();
+            plan = FeePlan.compile(configuration);
+            for (int i = 0; i < CARTS; i++) {
+                if (chain.totalCents(subtotals[i], itemCounts[i]) != plan.totalCents(subtotals[i], itemCounts[i])) {
+                    throw new IllegalStateException("Plan and chain disagree for " + configuration
+                            + " at subtotal " + subtotals[i] + ", items " + itemCounts[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * The three configurations a busy checkout keeps asking plans for.
+     */
+    @State(Scope.Thread)
+    public static class Lookups {
+        final FeeConfiguration[] configurations = new FeeConfiguration[3];
+        final FeePlanCache cache = new FeePlanCache(FeePlanCache.DEFAULT_MAXIMUM_SIZE);
+        int next;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(5);
+            configurations[0] = FeeConfiguration.of(
+                    CartPricing.EXPRESS_SHIPPING, CartPricing.GIFT_WRAP, CartPricing.INSURANCE);
+            configurations[1] = mixed(8, random);
+            configurations[2] = mixed(16, random);
+        }
+
+        FeeConfiguration nextConfiguration() {
+            next = next + 1 == configurations.length ? 0 : next + 1;
+            return configurations[next];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARTS)
+    public long decoratorChain(Carts carts) {
+        long total = 0;
+        for (int i = 0; i < CARTS; i++) {
+            total += carts.chain.totalCents(carts.subtotals[i], carts.itemCounts[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARTS)
+    public long compiledPlan(Carts carts) {
+        long total = 0;
+        for (int i = 0; i < CARTS; i++) {
+            total += carts.plan.totalCents(carts.subtotals[i], carts.itemCounts[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public FeePlan cachedPlan(Lookups lookups) {
+        return lookups.cache.planFor(lookups.nextConfiguration());
+    }
+
+    @Benchmark
+    public FeePlan compilePerCall(Lookups lookups) {
+        return FeePlan.compile(lookups.nextConfiguration());
+    }
+
+    /**
+     * Flat, per-item and percentage fees in random order, so the plan has several steps.
+     */
+    private static FeeConfiguration mixed(int fees, Random random) {
+        FeeConfiguration configuration = FeeConfiguration.NONE;
+        for (int i = 0; i < fees; i++) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    configuration = configuration.with(Fee.flat("Flat " + i, random.nextInt(2_000) / 100.0));
+                    break;
+                case 1:
+                    configuration = configuration.with(Fee.perItem("Per item " + i, random.nextInt(300) / 100.0));
+                    break;
+                default:
+                    configuration = configuration.with(Fee.percentOfRunningTotal("Percent " + i,
+                            random.nextInt(500) / 100.0));
+            }
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks that refresh-ahead keeps a hot product from ever expiring.
+ *
+ * Reads one product now and then over three TTLs on a manual clock; with
+ * refresh-ahead every few minutes no read after the first should wait for the source.
+ *
+ * Exits with status 1 if any read after the first missed the cache.
+ */
+public class RefreshAheadCheck {
+
+    public static void main(String[] args) {
+        AtomicLong clock = new AtomicLong();
+        SlowSource source = new SlowSource(0);
+        CachingProductCatalog catalog = new CachingProductCatalog(source, 100, Duration.ofMinutes(10),
+                Duration.ofMinutes(5), Duration.ofSeconds(5), clock::get, Runnable::run);
+
+        catalog.getProduct("P001");
+        int missesAfterFirst = 0;
+        for (int minute = 1; minute <= 30; minute++) {
+            clock.addAndGet(Duration.ofMinutes(1).toNanos());
+            if (minute % 3 == 0) {
+                catalog.refreshAhead();
+            }
+            if (minute % 9 == 0) {
+                long missesBefore = catalog.stats().getMissCount();
+                catalog.getProduct("P001");
+                missesAfterFirst += (int) (catalog.stats().getMissCount() - missesBefore);
+            }
+        }
+        System.out.println("Refresh-ahead: " + catalog.stats());
+        if (missesAfterFirst != 0) {
+            System.out.println("FAIL: " + missesAfterFirst + " reads waited for the source");
+            System.exit(1);
+        }
+        System.out.println("PASS");
+    }
+}
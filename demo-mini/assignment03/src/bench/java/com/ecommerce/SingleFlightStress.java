@@ -0,0 +1,112 @@
+package com.ecommerce;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expires a hot product under many concurrent readers and checks that the database
+ * sees exactly one query per expiry, and that a reader with a short timeout gives up
+ * without disturbing the others.
+ *
+ * Usage: java com.ecommerce.SingleFlightStress [readers] [rounds]
+ */
+public class SingleFlightStress {
+
+    private static final long QUERY_MILLIS = 100;
+
+    public static void main(String[] args) throws InterruptedException {
+        int readers = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        AtomicInteger queries = new AtomicInteger();
+        ProductLookup slowSource = productId -> {
+            queries.incrementAndGet();
+            try {
+                Thread.sleep(QUERY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Product(productId, "Product " + productId, 29.99);
+        };
+
+        AtomicLong clock = new AtomicLong();
+        Duration ttl = Duration.ofMinutes(10);
+        CachingProductCatalog catalog = new CachingProductCatalog(slowSource, 1_000, ttl, ttl,
+                Duration.ofSeconds(5), clock::get, Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+
+        boolean failed = false;
+        for (int round = 1; round <= rounds; round++) {
+            // Every cached product is now past its TTL
+            clock.addAndGet(ttl.toNanos());
+            int before = queries.get();
+
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger errors = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                        if (catalog.getProduct("P001") == null) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+            int roundQueries = queries.get() - before;
+            System.out.printf("Round %d: %d readers, %d database queries, %d errors, %dms%n",
+                    round, readers, roundQueries, errors.get(), elapsedMillis);
+            if (roundQueries != 1 || errors.get() != 0) {
+                failed = true;
+            }
+        }
+
+        // A reader that cannot wait the full query time times out; the load still fills the cache
+        clock.addAndGet(ttl.toNanos());
+        try {
+            catalog.getProductAsync("P001").get(10, TimeUnit.MILLISECONDS);
+            System.out.println("FAIL: expected the short wait to time out");
+            failed = true;
+        } catch (TimeoutException expected) {
+            System.out.println("Short wait timed out as expected");
+        } catch (ExecutionException e) {
+            System.out.println("FAIL: " + e.getCause());
+            failed = true;
+        }
+        Product product = catalog.getProduct("P001");
+        System.out.println("Patient reader got " + product);
+        System.out.println(catalog.stats());
+
+        if (failed) {
+            System.out.println("FAIL: expected one query per expiry and no errors");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+}
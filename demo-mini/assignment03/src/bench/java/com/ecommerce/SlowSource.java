@@ -0,0 +1,43 @@
+package com.ecommerce;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Product source that sleeps for a fixed time per query and counts its queries.
+ */
+class SlowSource implements ProductLookup {
+    final AtomicInteger queries = new AtomicInteger();
+    private final long queryMillis;
+
+    SlowSource(long queryMillis) {
+        this.queryMillis = queryMillis;
+    }
+
+    @Override
+    public Product getProduct(String productId) {
+        query();
+        return new Product(productId, "Product " + productId, 29.99);
+    }
+
+    @Override
+    public Map<String, Product> getProducts(Collection<String> productIds) {
+        query();
+        Map<String, Product> products = new HashMap<>();
+        for (String productId : productIds) {
+            products.put(productId, new Product(productId, "Product " + productId, 29.99));
+        }
+        return products;
+    }
+
+    private void query() {
+        queries.incrementAndGet();
+        try {
+            Thread.sleep(queryMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for the first reads after a restart, with and without warm-up.
+ *
+ * A previous run records access counts on a skewed trace and saves them. Every
+ * iteration then starts a fresh cache, cold or warmed from the saved counts before
+ * the measurement starts, and serves the first {@value #FIRST_READS} reads of a new
+ * trace from the same distribution; that is where the spike after a restart is.
+ * RefreshAheadCheck covers keeping a hot product from expiring.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class WarmUpBenchmark {
+
+    private static final int CATALOG_SIZE = 2_000;
+    private static final int TOP_N = 500;
+    private static final int FIRST_READS = 1_000;
+    private static final int PREVIOUS_RUN_READS = 20_000;
+
+    @Param({"false", "true"})
+    boolean warmed;
+
+    @Param({"5"})
+    long queryMillis;
+
+    private Path countsFile;
+    private String[] trace;
+    private CachingProductCatalog catalog;
+
+    @Setup
+    public void setUp() throws IOException {
+        AccessCountStore previousRun = new AccessCountStore();
+        for (String productId : skewedTrace(PREVIOUS_RUN_READS, new Random(7))) {
+            previousRun.record(productId);
+        }
+        countsFile = Files.createTempFile("access-counts", ".txt");
+        previousRun.save(countsFile);
+        trace = skewedTrace(FIRST_READS, new Random(11));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(countsFile);
+    }
+
+    @Setup(Level.Iteration)
+    public void restart() throws IOException, InterruptedException {
+        catalog = new CachingProductCatalog(new SlowSource(queryMillis));
+        if (warmed) {
+            try (ProductCacheWarmer warmer =
+                         new ProductCacheWarmer(catalog, AccessCountStore.load(countsFile), TOP_N, 4)) {
+                warmer.warmUp();
+                if (!warmer.awaitReady(Duration.ofSeconds(30))) {
+                    throw new IllegalStateException("Warm-up did not finish within 30s");
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int firstReads() {
+        int found = 0;
+        for (String productId : trace) {
+            if (catalog.getProduct(productId) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static String[] skewedTrace(int reads, Random random) {
+        String[] trace = new String[reads];
+        for (int i = 0; i < reads; i++) {
+            // Log-uniform rank: the first products take most of the reads
+            int rank = (int) Math.min(CATALOG_SIZE, Math.pow(CATALOG_SIZE, random.nextDouble() * random.nextDouble())) - 1;
+            trace[i] = "P" + rank;
+        }
+        return trace;
+    }
+}
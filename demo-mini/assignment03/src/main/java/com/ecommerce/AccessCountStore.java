@@ -0,0 +1,116 @@
+package com.ecommerce;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How often each product has been read, kept across restarts so a fresh instance
+ * knows which products to preload before it takes traffic.
+ *
+ * The file holds one "productId count" line per product. Saving writes a temporary
+ * file and moves it into place, so a crash mid-save leaves the previous counts intact.
+ */
+public class AccessCountStore {
+
+    private final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Reads counts saved by a previous run.
+     *
+     * @return The saved counts, or an empty store if the file does not exist yet
+     */
+    public static AccessCountStore load(Path file) throws IOException {
+        AccessCountStore store = new AccessCountStore();
+        if (!Files.exists(file)) {
+            return store;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.lastIndexOf(' ');
+                if (space <= 0) {
+                    continue;
+                }
+                try {
+                    store.add(line.substring(0, space), Long.parseLong(line.substring(space + 1)));
+                } catch (NumberFormatException e) {
+                    // Skip a line damaged by hand editing rather than losing the rest
+                }
+            }
+        }
+        return store;
+    }
+
+    public void save(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, LongAdder> entry : counts.entrySet()) {
+                writer.write(entry.getKey() + " " + entry.getValue().sum());
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void record(String productId) {
+        counts.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    public void add(String productId, long count) {
+        counts.computeIfAbsent(productId, id -> new LongAdder()).add(count);
+    }
+
+    public long getCount(String productId) {
+        LongAdder count = counts.get(productId);
+        return count == null ? 0 : count.sum();
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    /**
+     * @return Up to n product IDs, most read first
+     */
+    public List<String> topN(int n) {
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>();
+        counts.forEach((productId, count) -> ranked.add(Map.entry(productId, count.sum())));
+        ranked.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        List<String> top = new ArrayList<>();
+        for (int i = 0; i < Math.min(n, ranked.size()); i++) {
+            top.add(ranked.get(i).getKey());
+        }
+        return top;
+    }
+
+    /**
+     * Wraps a lookup so every product read through it is counted.
+     */
+    public ProductLookup tracking(ProductLookup delegate) {
+        return new ProductLookup() {
+            @Override
+            public Product getProduct(String productId) {
+                record(productId);
+                return delegate.getProduct(productId);
+            }
+
+            @Override
+            public Map<String, Product> getProducts(Collection<String> productIds) {
+                productIds.forEach(AccessCountStore.this::record);
+                return delegate.getProducts(productIds);
+            }
+        };
+    }
+}
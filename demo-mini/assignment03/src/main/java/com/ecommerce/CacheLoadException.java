@@ -0,0 +1,23 @@
+package com.ecommerce;
+
+/**
+ * Thrown when a value could not be loaded into a cache: the load failed, the caller
+ * gave up waiting for it, or the caller was interrupted while waiting.
+ */
+public class CacheLoadException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final boolean timeout;
+
+    public CacheLoadException(String message, Throwable cause, boolean timeout) {
+        super(message, cause);
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return true if the load may still be running and only this caller stopped waiting
+     */
+    public boolean isTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce;
+
+/**
+ * Point-in-time counters of a caching proxy.
+ */
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long loadCount;
+    private final long coalescedCount;
+    private final long refreshCount;
+    private final long expiredCount;
+    private final long bypassCount;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, long loadCount,
+                      long coalescedCount, long refreshCount, long expiredCount, long bypassCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.loadCount = loadCount;
+        this.coalescedCount = coalescedCount;
+        this.refreshCount = refreshCount;
+        this.expiredCount = expiredCount;
+        this.bypassCount = bypassCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /** Lookups that found nothing usable, including entries that had expired. */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /** Entries pushed out to stay within the size bound. */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** Queries sent to the source on a miss. */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /** Misses that waited for another reader's query instead of sending their own. */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /** Background reloads of entries older than the refresh interval. */
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    /** Entries dropped on read because they outlived the TTL. */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /** Real-time reads that went straight to the source. */
+    public long getBypassCount() {
+        return bypassCount;
+    }
+
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats{hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, loads=%d, "
+                        + "coalesced=%d, refreshes=%d, expired=%d, bypasses=%d}",
+                hitCount, missCount, hitRate() * 100, evictionCount, loadCount, coalescedCount,
+                refreshCount, expiredCount, bypassCount);
+    }
+}
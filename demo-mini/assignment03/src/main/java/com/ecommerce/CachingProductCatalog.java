@@ -0,0 +1,311 @@
+package com.ecommerce;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caching proxy in front of any {@link ProductLookup}.
+ *
+ * Products are kept in a {@link WTinyLfuCache}, so the bound holds on to the products
+ * that are asked for most rather than the ones asked for last. Two time limits apply
+ * to each cached product:
+ * - refreshAfterWrite: an older product is still returned, and reloaded in the
+ *   background so the next reader gets fresh data without waiting for the database
+ * - expireAfterWrite (TTL): an older product is never returned; the reader loads it again
+ *
+ * Products that only get read now and then may have no reader inside the window
+ * between the two. {@link #refreshAhead()} reloads every product that was read since
+ * it was loaded and is past the refresh interval, so run periodically (see
+ * {@link ProductCacheWarmer}) it keeps products in use from ever expiring.
+ *
+ * Admins read through {@link #getProduct(String, UserRole)} and always hit the source;
+ * what they read replaces the cached copy, so customers see it too.
+ *
+ * Misses go through a {@link SingleFlightLoader}: when a popular product expires,
+ * the readers that miss together share one query instead of each sending their own,
+ * and each waits at most the load timeout for it.
+ */
+public class CachingProductCatalog implements ProductLookup {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+    public static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+    public static final Duration DEFAULT_REFRESH_AFTER_WRITE = Duration.ofMinutes(1);
+    public static final Duration DEFAULT_LOAD_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ProductLookup source;
+    private final WTinyLfuCache<String, CachedProduct> cache;
+    private final long expireAfterWriteNanos;
+    private final long refreshAfterWriteNanos;
+    private final Duration loadTimeout;
+    private final LongSupplier ticker;
+    private final Executor executor;
+    private final SingleFlightLoader<String, Product> loader;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder bypassCount = new LongAdder();
+
+    public CachingProductCatalog(ProductLookup source) {
+        this(source, DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER_WRITE, DEFAULT_REFRESH_AFTER_WRITE);
+    }
+
+    public CachingProductCatalog(ProductLookup source, int maximumSize,
+                                 Duration expireAfterWrite, Duration refreshAfterWrite) {
+        this(source, maximumSize, expireAfterWrite, refreshAfterWrite, DEFAULT_LOAD_TIMEOUT,
+                System::nanoTime, defaultExecutor());
+    }
+
+    /**
+     * @param loadTimeout How long a reader waits for a miss to load
+     * @param ticker      Source of nanosecond timestamps, replaceable to control time
+     * @param executor    Runs loads and background reloads
+     */
+    CachingProductCatalog(ProductLookup source, int maximumSize, Duration expireAfterWrite,
+                          Duration refreshAfterWrite, Duration loadTimeout, LongSupplier ticker, Executor executor) {
+        if (refreshAfterWrite.compareTo(expireAfterWrite) > 0) {
+            throw new IllegalArgumentException("Refresh interval must not exceed the TTL");
+        }
+        this.source = source;
+        this.cache = new WTinyLfuCache<>(maximumSize);
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.refreshAfterWriteNanos = refreshAfterWrite.toNanos();
+        this.loadTimeout = loadTimeout;
+        this.ticker = ticker;
+        this.executor = executor;
+        this.loader = new SingleFlightLoader<>(this::load, this::loadAll, executor);
+    }
+
+    @Override
+    public Product getProduct(String productId) {
+        return getProduct(productId, UserRole.CUSTOMER);
+    }
+
+    /**
+     * Returns a product, from the cache unless the role needs real-time data.
+     *
+     * @throws CacheLoadException If a miss could not be loaded within the load timeout
+     */
+    public Product getProduct(String productId, UserRole role) {
+        if (role.requiresRealTimeData()) {
+            bypassCount.increment();
+            Product product = source.getProduct(productId);
+            if (product != null) {
+                cache.put(productId, new CachedProduct(product, ticker.getAsLong()));
+            }
+            return product;
+        }
+
+        CachedProduct cached = lookUp(productId);
+        if (cached == null) {
+            return loader.load(productId, loadTimeout);
+        }
+        return cached.product;
+    }
+
+    /**
+     * Returns a product without blocking. On a miss the future joins the load already
+     * in flight for the product, if any; cancelling it only stops this caller waiting.
+     */
+    public CompletableFuture<Product> getProductAsync(String productId) {
+        CachedProduct cached = lookUp(productId);
+        if (cached == null) {
+            return loader.loadAsync(productId);
+        }
+        return CompletableFuture.completedFuture(cached.product);
+    }
+
+    @Override
+    public Map<String, Product> getProducts(Collection<String> productIds) {
+        return getProducts(productIds, UserRole.CUSTOMER);
+    }
+
+    /**
+     * Returns several products: cached ones straight away, and all misses with one
+     * {@link ProductLookup#getProducts} query, except those another reader is already
+     * loading, which are joined.
+     *
+     * @return The products found, keyed by ID
+     * @throws CacheLoadException If the misses could not be loaded within the load timeout
+     */
+    public Map<String, Product> getProducts(Collection<String> productIds, UserRole role) {
+        if (role.requiresRealTimeData()) {
+            bypassCount.increment();
+            Map<String, Product> products = source.getProducts(productIds);
+            long now = ticker.getAsLong();
+            products.forEach((productId, product) -> cache.put(productId, new CachedProduct(product, now)));
+            return products;
+        }
+
+        Map<String, Product> products = new LinkedHashMap<>();
+        List<String> missed = new ArrayList<>();
+        for (String productId : productIds) {
+            CachedProduct cached = lookUp(productId);
+            if (cached == null) {
+                missed.add(productId);
+            } else {
+                products.put(productId, cached.product);
+            }
+        }
+        if (!missed.isEmpty()) {
+            products.putAll(loader.loadAll(missed, loadTimeout));
+        }
+        return products;
+    }
+
+    /**
+     * Reloads, in one query, every product that has been read since it was loaded and
+     * is past the refresh interval.
+     *
+     * @return Number of products reloaded
+     */
+    public int refreshAhead() {
+        long now = ticker.getAsLong();
+        Map<String, CachedProduct> due = new LinkedHashMap<>();
+        cache.snapshot().forEach((productId, cached) -> {
+            if (cached.read && now - cached.loadedAt >= refreshAfterWriteNanos
+                    && cached.refreshing.compareAndSet(false, true)) {
+                due.put(productId, cached);
+            }
+        });
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            Map<String, Product> products = source.getProducts(due.keySet());
+            long loadedAt = ticker.getAsLong();
+            int refreshed = 0;
+            for (Map.Entry<String, Product> entry : products.entrySet()) {
+                // Skipped if the entry was invalidated, evicted or replaced while reloading
+                if (cache.replace(entry.getKey(), due.get(entry.getKey()), new CachedProduct(entry.getValue(), loadedAt))) {
+                    refreshed++;
+                }
+            }
+            refreshCount.add(refreshed);
+            return refreshed;
+        } catch (RuntimeException e) {
+            System.out.println("Refresh-ahead failed for " + due.size() + " products: " + e.getMessage());
+            return 0;
+        } finally {
+            due.values().forEach(cached -> cached.refreshing.set(false));
+        }
+    }
+
+    /**
+     * Drops a product so the next read loads it again, e.g. after its price changed.
+     */
+    public void invalidate(String productId) {
+        cache.remove(productId);
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), cache.getEvictionCount(), loadCount.sum(),
+                loader.getCoalescedCount(), refreshCount.sum(), expiredCount.sum(), bypassCount.sum());
+    }
+
+    /**
+     * Returns the cached product if it is still within its TTL, scheduling a background
+     * reload if it is past the refresh interval; null on a miss.
+     */
+    private CachedProduct lookUp(String productId) {
+        CachedProduct cached = cache.getIfPresent(productId);
+        long now = ticker.getAsLong();
+        if (cached == null || now - cached.loadedAt >= expireAfterWriteNanos) {
+            if (cached != null) {
+                cache.remove(productId, cached);
+                expiredCount.increment();
+            }
+            missCount.increment();
+            return null;
+        }
+
+        hitCount.increment();
+        if (!cached.read) {
+            cached.read = true;
+        }
+        if (now - cached.loadedAt >= refreshAfterWriteNanos && cached.refreshing.compareAndSet(false, true)) {
+            executor.execute(() -> refresh(productId, cached));
+        }
+        return cached;
+    }
+
+    /**
+     * Loads a missed product and caches it. Runs once per product per miss, on the
+     * executor, outside the cache's lock so a slow query never blocks other lookups.
+     */
+    private Product load(String productId) {
+        Product product = source.getProduct(productId);
+        loadCount.increment();
+        if (product != null) {
+            cache.put(productId, new CachedProduct(product, ticker.getAsLong()));
+        }
+        return product;
+    }
+
+    private Map<String, Product> loadAll(Collection<String> productIds) {
+        Map<String, Product> products = source.getProducts(productIds);
+        loadCount.increment();
+        long now = ticker.getAsLong();
+        products.forEach((productId, product) -> cache.put(productId, new CachedProduct(product, now)));
+        return products;
+    }
+
+    private void refresh(String productId, CachedProduct stale) {
+        try {
+            Product product = source.getProduct(productId);
+            if (product != null) {
+                // Dropped if the entry was invalidated, evicted or replaced while reloading,
+                // and then not counted, as in refreshAhead()
+                if (cache.replace(productId, stale, new CachedProduct(product, ticker.getAsLong()))) {
+                    refreshCount.increment();
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Refresh failed for product " + productId + ": " + e.getMessage());
+        } finally {
+            // Lets a later read retry if the stale entry is still cached
+            stale.refreshing.set(false);
+        }
+    }
+
+    private static Executor defaultExecutor() {
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "product-cache-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
+
+class CachedProduct {
+    final Product product;
+    final long loadedAt;
+    final AtomicBoolean refreshing = new AtomicBoolean();
+    volatile boolean read;    // Set by the first hit; refresh-ahead skips products nobody read
+
+    CachedProduct(Product product, long loadedAt) {
+        this.product = product;
+        this.loadedAt = loadedAt;
+    }
+}
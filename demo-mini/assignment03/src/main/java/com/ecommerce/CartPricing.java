@@ -1,55 +1,171 @@
 package com.ecommerce;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CartPricing {
-    private List<CartItem> items = new ArrayList<>();
+    public static final Fee EXPRESS_SHIPPING = Fee.flat("Express shipping", 15.00);
+    public static final Fee GIFT_WRAP = Fee.flat("Gift wrap", 5.00);
+    public static final Fee INSURANCE = Fee.percentOfRunningTotal("Insurance", 2.0);
 
+    // The fees the old boolean flags selected, indexed by flag bits; insurance always last
+    private static final FeeConfiguration[] LEGACY_CONFIGURATIONS = new FeeConfiguration[8];
+
+    static {
+        for (int flags = 0; flags < LEGACY_CONFIGURATIONS.length; flags++) {
+            FeeConfiguration configuration = FeeConfiguration.NONE;
+            if ((flags & 1) != 0) {
+                configuration = configuration.with(EXPRESS_SHIPPING);
+            }
+            if ((flags & 2) != 0) {
+                configuration = configuration.with(GIFT_WRAP);
+            }
+            if ((flags & 4) != 0) {
+                configuration = configuration.with(INSURANCE);
+            }
+            LEGACY_CONFIGURATIONS[flags] = configuration;
+        }
+    }
+
+    private final FeePlanCache feePlans;
+
+    // Lines per product, oldest first; a product added at a new price gets a line of its own
+    private final Map<String, List<CartItem>> items = new LinkedHashMap<>();
+
+    // Running totals, updated by each item change so totals never re-sum the cart
+    private long subtotalCents;
+    private int itemCount;
+
+    public CartPricing() {
+        this(FeePlanCache.shared());
+    }
+
+    public CartPricing(FeePlanCache feePlans) {
+        this.feePlans = feePlans;
+    }
+
+    /**
+     * Adds units at the given price. Units already in the cart keep the price they were
+     * added at: the same product at the same price joins its line, at a different price
+     * it starts a new one.
+     */
     public void addItem(String productName, double price, int quantity) {
-        items.add(new CartItem(productName, price, quantity));
-    }
-
-    // Problem: Adding fees using inheritance causes class explosion:
-    //   CartWithExpressShipping extends CartPricing
-    //   CartWithGiftWrap extends CartPricing
-    //   CartWithExpressShippingAndGiftWrap extends CartPricing
-    //   CartWithInsurance extends CartPricing
-    //   CartWithExpressShippingAndInsurance extends CartPricing
-    //   ... and so on for every combination
-    //
-    // Current approach: hardcoded fee logic inside calculateTotal()
-    public double calculateTotal(boolean expressShipping, boolean giftWrap, boolean insurance) {
-        double total = 0;
-        for (CartItem item : items) {
-            total += item.price * item.quantity;
+        List<CartItem> lines = items.computeIfAbsent(productName, name -> new ArrayList<>(1));
+        CartItem newest = lines.isEmpty() ? null : lines.get(lines.size() - 1);
+        if (newest != null && toCents(newest.price) == toCents(price)) {
+            newest.quantity += quantity;
+        } else {
+            lines.add(new CartItem(productName, price, quantity));
         }
+        subtotalCents += toCents(price) * quantity;
+        itemCount += quantity;
+    }
 
-        if (expressShipping) {
-            total += 15.00; // Express shipping fee
+    /**
+     * Sets how many units of the product are in the cart. Units added are priced like
+     * the newest line, and units removed come off the newest lines first.
+     */
+    public void updateQuantity(String productName, int quantity) {
+        List<CartItem> lines = items.get(productName);
+        if (lines == null) {
+            throw new IllegalArgumentException("Not in cart: " + productName);
+        }
+        if (quantity <= 0) {
+            removeItem(productName);
+            return;
+        }
+
+        int current = 0;
+        for (CartItem line : lines) {
+            current += line.quantity;
+        }
+        int change = quantity - current;
+        if (change > 0) {
+            CartItem newest = lines.get(lines.size() - 1);
+            newest.quantity += change;
+            subtotalCents += toCents(newest.price) * change;
+        }
+        for (int excess = -change; excess > 0; ) {
+            CartItem newest = lines.get(lines.size() - 1);
+            int removed = Math.min(excess, newest.quantity);
+            newest.quantity -= removed;
+            subtotalCents -= toCents(newest.price) * removed;
+            excess -= removed;
+            if (newest.quantity == 0) {
+                lines.remove(lines.size() - 1);
+            }
         }
-        if (giftWrap) {
-            total += 5.00;  // Gift wrapping fee per order
+        itemCount += change;
+    }
+
+    public void removeItem(String productName) {
+        List<CartItem> lines = items.remove(productName);
+        if (lines != null) {
+            for (CartItem line : lines) {
+                subtotalCents -= line.lineCents();
+                itemCount -= line.quantity;
+            }
         }
-        if (insurance) {
-            total += total * 0.02; // 2% insurance fee
+    }
+
+    public double getSubtotal() {
+        return subtotalCents / 100.0;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Sums every line from scratch; only meant to check the running subtotal.
+     */
+    public double recalculateSubtotal() {
+        long cents = 0;
+        for (List<CartItem> lines : items.values()) {
+            for (CartItem line : lines) {
+                cents += line.lineCents();
+            }
         }
+        return cents / 100.0;
+    }
 
-        // Problem: Every new fee type requires adding another boolean parameter
-        // and another if-block. This violates Open/Closed Principle.
-        return total;
+    /**
+     * @return The subtotal plus the configuration's fees, priced by its shared compiled plan
+     */
+    public double calculateTotal(FeeConfiguration fees) {
+        return calculateTotalCents(fees) / 100.0;
+    }
+
+    public long calculateTotalCents(FeeConfiguration fees) {
+        return feePlans.planFor(fees).totalCents(subtotalCents, itemCount);
+    }
+
+    /**
+     * @deprecated Build a {@link FeeConfiguration} and call {@link #calculateTotal(FeeConfiguration)}
+     */
+    @Deprecated
+    public double calculateTotal(boolean expressShipping, boolean giftWrap, boolean insurance) {
+        return calculateTotal(LEGACY_CONFIGURATIONS[(expressShipping ? 1 : 0) | (giftWrap ? 2 : 0) | (insurance ? 4 : 0)]);
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("Cart:\n");
-        for (CartItem item : items) {
-            sb.append("  - ").append(item.productName)
-              .append(" x").append(item.quantity)
-              .append(" @ $").append(item.price).append("\n");
+        for (List<CartItem> lines : items.values()) {
+            for (CartItem item : lines) {
+                sb.append("  - ").append(item.productName)
+                  .append(" x").append(item.quantity)
+                  .append(" @ $").append(item.price).append("\n");
+            }
         }
         return sb.toString();
     }
+
+    static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
 }
 
 class CartItem {
@@ -62,4 +178,8 @@ class CartItem {
         this.price = price;
         this.quantity = quantity;
     }
+
+    long lineCents() {
+        return CartPricing.toCents(price) * quantity;
+    }
 }
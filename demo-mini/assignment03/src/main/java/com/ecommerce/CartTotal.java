@@ -0,0 +1,13 @@
+package com.ecommerce;
+
+/**
+ * Turns a cart's subtotal into the amount charged. Fee decorators wrap one another
+ * around {@link #SUBTOTAL}, each adding its fee to what the wrapped total returns.
+ */
+public interface CartTotal {
+
+    /** The subtotal with no fees. */
+    CartTotal SUBTOTAL = (subtotalCents, itemCount) -> subtotalCents;
+
+    long totalCents(long subtotalCents, int itemCount);
+}
@@ -0,0 +1,108 @@
+package com.ecommerce;
+
+import java.util.Objects;
+
+/**
+ * One fee added on top of a cart's subtotal, in cents.
+ *
+ * Fees apply in the order they are listed in a {@link FeeConfiguration}, so a
+ * percentage fee is charged on the subtotal plus every fee listed before it.
+ *
+ * Usage:
+ * Fee shipping = Fee.flat("Express shipping", 15.00);
+ * Fee insurance = Fee.percentOfRunningTotal("Insurance", 2.0);
+ */
+public final class Fee {
+
+    public enum Kind {
+        /** A fixed amount per order. */
+        FLAT,
+        /** A fixed amount per unit in the cart. */
+        PER_ITEM,
+        /** A share of the subtotal plus the fees before it. */
+        PERCENT_OF_RUNNING_TOTAL
+    }
+
+    private final String name;
+    private final Kind kind;
+    private final long amount;    // Cents, or basis points for a percentage
+
+    private Fee(String name, Kind kind, long amount) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.kind = kind;
+        this.amount = amount;
+    }
+
+    public static Fee flat(String name, double amount) {
+        return new Fee(name, Kind.FLAT, nonNegative(CartPricing.toCents(amount)));
+    }
+
+    public static Fee perItem(String name, double amountPerItem) {
+        return new Fee(name, Kind.PER_ITEM, nonNegative(CartPricing.toCents(amountPerItem)));
+    }
+
+    /**
+     * @param percent Percent of the running total, to two decimal places
+     */
+    public static Fee percentOfRunningTotal(String name, double percent) {
+        return new Fee(name, Kind.PERCENT_OF_RUNNING_TOTAL, nonNegative(Math.round(percent * 100)));
+    }
+
+    /**
+     * @return The basis points of cents, rounded half up
+     */
+    static long percentOf(long cents, long basisPoints) {
+        return (cents * basisPoints + 5_000) / 10_000;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return Cents for a flat or per-item fee, basis points for a percentage
+     */
+    public long getAmount() {
+        return amount;
+    }
+
+    private static long nonNegative(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Fee must not be negative: " + amount);
+        }
+        return amount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Fee)) {
+            return false;
+        }
+        Fee other = (Fee) o;
+        return kind == other.kind && amount == other.amount && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, kind, amount);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case FLAT:
+                return String.format("%s $%.2f", name, amount / 100.0);
+            case PER_ITEM:
+                return String.format("%s $%.2f/item", name, amount / 100.0);
+            default:
+                return String.format("%s %.2f%%", name, amount / 100.0);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An ordered set of fees a cart is charged, e.g. express shipping plus insurance.
+ *
+ * Configurations with the same fees in the same order are equal, so the
+ * {@link FeePlanCache} compiles each distinct configuration once, however many
+ * carts or requests build it.
+ */
+public final class FeeConfiguration {
+
+    public static final FeeConfiguration NONE = new FeeConfiguration(List.of());
+
+    private final List<Fee> fees;
+    private final int hash;
+
+    private FeeConfiguration(List<Fee> fees) {
+        this.fees = fees;
+        this.hash = fees.hashCode();
+    }
+
+    public static FeeConfiguration of(Fee... fees) {
+        return new FeeConfiguration(List.of(fees));
+    }
+
+    /**
+     * @return A configuration charging this one's fees, then the given fee
+     */
+    public FeeConfiguration with(Fee fee) {
+        List<Fee> extended = new ArrayList<>(fees);
+        extended.add(fee);
+        return new FeeConfiguration(List.copyOf(extended));
+    }
+
+    /**
+     * @return The fees wrapped around the subtotal as decorators, first fee innermost
+     */
+    public CartTotal toDecoratorChain() {
+        CartTotal total = CartTotal.SUBTOTAL;
+        for (Fee fee : fees) {
+            total = FeeDecorator.wrap(total, fee);
+        }
+        return total;
+    }
+
+    public List<Fee> getFees() {
+        return fees;
+    }
+
+    public int size() {
+        return fees.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof FeeConfiguration && hash == ((FeeConfiguration) o).hash
+                && fees.equals(((FeeConfiguration) o).fees);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return fees.isEmpty() ? "no fees" : fees.toString();
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce;
+
+/**
+ * Adds one {@link Fee} to the total of the {@link CartTotal} it wraps.
+ *
+ * Any combination of fees is a chain of decorators, so a new fee needs neither a new
+ * flag nor a new cart subclass. Evaluating a chain costs one virtual call per fee;
+ * carts priced in bulk use the {@link FeePlan} compiled from the same fees instead.
+ */
+public abstract class FeeDecorator implements CartTotal {
+
+    private final CartTotal inner;
+    private final Fee fee;
+
+    protected FeeDecorator(CartTotal inner, Fee fee) {
+        this.inner = inner;
+        this.fee = fee;
+    }
+
+    /**
+     * @return The decorator for the fee's kind, wrapped around inner
+     */
+    public static FeeDecorator wrap(CartTotal inner, Fee fee) {
+        switch (fee.getKind()) {
+            case FLAT:
+                return new FlatFeeDecorator(inner, fee);
+            case PER_ITEM:
+                return new PerItemFeeDecorator(inner, fee);
+            default:
+                return new PercentageFeeDecorator(inner, fee);
+        }
+    }
+
+    @Override
+    public long totalCents(long subtotalCents, int itemCount) {
+        long runningTotal = inner.totalCents(subtotalCents, itemCount);
+        return runningTotal + feeCents(runningTotal, itemCount);
+    }
+
+    protected abstract long feeCents(long runningTotalCents, int itemCount);
+
+    public CartTotal getInner() {
+        return inner;
+    }
+
+    public Fee getFee() {
+        return fee;
+    }
+
+    @Override
+    public String toString() {
+        return (inner == SUBTOTAL ? "subtotal" : inner.toString()) + " + " + fee;
+    }
+}
+
+class FlatFeeDecorator extends FeeDecorator {
+    private final long cents;
+
+    FlatFeeDecorator(CartTotal inner, Fee fee) {
+        super(inner, fee);
+        this.cents = fee.getAmount();
+    }
+
+    @Override
+    protected long feeCents(long runningTotalCents, int itemCount) {
+        return cents;
+    }
+}
+
+class PerItemFeeDecorator extends FeeDecorator {
+    private final long centsPerItem;
+
+    PerItemFeeDecorator(CartTotal inner, Fee fee) {
+        super(inner, fee);
+        this.centsPerItem = fee.getAmount();
+    }
+
+    @Override
+    protected long feeCents(long runningTotalCents, int itemCount) {
+        return centsPerItem * itemCount;
+    }
+}
+
+class PercentageFeeDecorator extends FeeDecorator {
+    private final long basisPoints;
+
+    PercentageFeeDecorator(CartTotal inner, Fee fee) {
+        super(inner, fee);
+        this.basisPoints = fee.getAmount();
+    }
+
+    @Override
+    protected long feeCents(long runningTotalCents, int itemCount) {
+        return Fee.percentOf(runningTotalCents, basisPoints);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compiled {@link FeePlan}s by configuration, shared by every cart.
+ *
+ * A shop has a handful of fee configurations and millions of carts, so each
+ * configuration is compiled on first use and the plan reused from then on. Past the
+ * size bound, further configurations are compiled per call rather than cached, so
+ * configurations built from user input cannot grow the cache without limit.
+ */
+public class FeePlanCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private static final FeePlanCache SHARED = new FeePlanCache(DEFAULT_MAXIMUM_SIZE);
+
+    private final ConcurrentHashMap<FeeConfiguration, FeePlan> plans = new ConcurrentHashMap<>();
+    private final int maximumSize;
+    private final LongAdder compileCount = new LongAdder();
+
+    public FeePlanCache(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return The cache used by carts that are not given one
+     */
+    public static FeePlanCache shared() {
+        return SHARED;
+    }
+
+    public FeePlan planFor(FeeConfiguration configuration) {
+        FeePlan plan = plans.get(configuration);
+        if (plan != null) {
+            return plan;
+        }
+        if (plans.size() >= maximumSize) {
+            return compile(configuration);
+        }
+        return plans.computeIfAbsent(configuration, this::compile);
+    }
+
+    public int size() {
+        return plans.size();
+    }
+
+    /** Configurations compiled so far, including those compiled past the size bound. */
+    public long getCompileCount() {
+        return compileCount.sum();
+    }
+
+    public void clear() {
+        plans.clear();
+    }
+
+    private FeePlan compile(FeeConfiguration configuration) {
+        compileCount.increment();
+        return FeePlan.compile(configuration);
+    }
+}
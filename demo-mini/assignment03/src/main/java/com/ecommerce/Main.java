@@ -1,7 +1,13 @@
 package com.ecommerce;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
         System.out.println("=== STRUCTURAL PATTERNS DEMO ===\n");
 
         // Problem 1: Adapter - Legacy gateway with incompatible interface
@@ -21,13 +27,17 @@ public class Main {
         cart.addItem("Mouse", 29.99, 2);
         System.out.println(cart);
 
-        // Every new fee type = new boolean parameter = new if-block
-        double total1 = cart.calculateTotal(false, false, false);
-        double total2 = cart.calculateTotal(true, true, false);
-        double total3 = cart.calculateTotal(true, true, true);
-        System.out.println("Base total:     $" + total1);
-        System.out.println("+ Ship + Gift:  $" + total2);
-        System.out.println("+ All fees:     $" + total3);
+        System.out.println("--- Decorator Solution ---");
+        // Fees are composed per order instead of hard-coded; each configuration is compiled once and shared
+        FeeConfiguration shipAndGift = FeeConfiguration.of(CartPricing.EXPRESS_SHIPPING, CartPricing.GIFT_WRAP);
+        FeeConfiguration allFees = shipAndGift.with(CartPricing.INSURANCE);
+        FeeConfiguration bulky = FeeConfiguration.of(Fee.perItem("Handling", 1.50), CartPricing.INSURANCE);
+        System.out.println("Base total:     $" + cart.calculateTotal(FeeConfiguration.NONE));
+        System.out.println("+ Ship + Gift:  $" + cart.calculateTotal(shipAndGift));
+        System.out.println("+ All fees:     $" + cart.calculateTotal(allFees));
+        System.out.println("+ Handling/item + Insurance: $" + cart.calculateTotal(bulky));
+        System.out.println("As decorators:  " + allFees.toDecoratorChain());
+        System.out.println("Compiled:       " + FeePlanCache.shared().planFor(allFees));
         System.out.println();
 
         // Problem 3: Proxy - No caching, repeated DB calls
@@ -42,5 +52,55 @@ public class Main {
 
         long elapsed = System.currentTimeMillis() - start;
         System.out.println("3 queries for same product took " + elapsed + "ms (should be cached!)");
+        System.out.println();
+
+        System.out.println("--- Proxy Solution ---");
+        CachingProductCatalog cachedCatalog = new CachingProductCatalog(catalog);
+        start = System.currentTimeMillis();
+
+        // First call loads from the DB, the next two are served from the cache
+        cachedCatalog.getProduct("P001");
+        cachedCatalog.getProduct("P001");
+        cachedCatalog.getProduct("P001");
+
+        elapsed = System.currentTimeMillis() - start;
+        System.out.println("3 cached lookups for same product took " + elapsed + "ms");
+
+        // Admins always see real-time data
+        cachedCatalog.getProduct("P001", UserRole.ADMIN);
+        System.out.println(cachedCatalog.stats());
+
+        // A page listing 5 uncached products: the misses are batched into one query
+        CachingProductCatalog pageCatalog = new CachingProductCatalog(new ProductBatchLoader(catalog));
+        start = System.currentTimeMillis();
+        pageCatalog.getProducts(Arrays.asList("P002", "P003", "P004", "P005", "P006"));
+        elapsed = System.currentTimeMillis() - start;
+        System.out.println("5 products for one page took " + elapsed + "ms");
+
+        // Count what gets read, so the next start knows what to preload
+        AccessCountStore accessCounts = new AccessCountStore();
+        ProductLookup trackedCatalog = accessCounts.tracking(pageCatalog);
+        trackedCatalog.getProduct("P002");
+        trackedCatalog.getProduct("P002");
+        trackedCatalog.getProduct("P004");
+        Path countsFile = Files.createTempFile("product-access-counts", ".txt");
+        accessCounts.save(countsFile);
+
+        // After a restart: preload the most read products before taking traffic
+        CachingProductCatalog restartedCatalog = new CachingProductCatalog(new ProductBatchLoader(catalog));
+        try (ProductCacheWarmer warmer = new ProductCacheWarmer(restartedCatalog,
+                AccessCountStore.load(countsFile), 2, 2)) {
+            warmer.warmUp();
+            if (warmer.awaitReady(Duration.ofSeconds(5))) {
+                System.out.println("Ready after warm-up: " + warmer.warmUp().join());
+            }
+            warmer.startRefreshAhead(Duration.ofSeconds(30));
+
+            start = System.currentTimeMillis();
+            restartedCatalog.getProduct("P002");
+            elapsed = System.currentTimeMillis() - start;
+            System.out.println("First read of P002 after restart took " + elapsed + "ms");
+        }
+        Files.deleteIfExists(countsFile);
     }
 }
@@ -0,0 +1,18 @@
+package com.ecommerce;
+
+class Product {
+    String id;
+    String name;
+    double price;
+
+    Product(String id, String name, double price) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+    }
+
+    @Override
+    public String toString() {
+        return "Product{id='" + id + "', name='" + name + "', price=$" + price + "}";
+    }
+}
@@ -0,0 +1,171 @@
+package com.ecommerce;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proxy that turns many single-product lookups into one batch query.
+ *
+ * Lookups arriving within a short window, from any number of threads, are collected
+ * into one batch and sent to the source's {@link ProductLookup#getProducts} as a single
+ * query; each caller then gets its own product back. A batch goes out as soon as the
+ * window closes or it reaches the maximum size, whichever comes first. The same ID
+ * asked for twice in one batch is only queried once.
+ *
+ * Put it behind a {@link CachingProductCatalog} and the cache's concurrent misses are
+ * batched too: rendering 50 uncached products costs about one round trip.
+ */
+public class ProductBatchLoader implements ProductLookup {
+
+    public static final Duration DEFAULT_BATCH_WINDOW = Duration.ofMillis(2);
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private final ProductLookup source;
+    private final long batchWindowNanos;
+    private final int maxBatchSize;
+    private final Executor executor;
+
+    private final Object lock = new Object();
+    private Batch current;    // Guarded by lock
+
+    public ProductBatchLoader(ProductLookup source) {
+        this(source, DEFAULT_BATCH_WINDOW, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public ProductBatchLoader(ProductLookup source, Duration batchWindow, int maxBatchSize) {
+        this(source, batchWindow, maxBatchSize, Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "product-batch-loader");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * @param executor Runs the batch queries
+     */
+    ProductBatchLoader(ProductLookup source, Duration batchWindow, int maxBatchSize, Executor executor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Maximum batch size must be positive: " + maxBatchSize);
+        }
+        this.source = source;
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Adds the product to the current batch.
+     *
+     * @return Completes with the product, or null if the source has none with this ID
+     */
+    public CompletableFuture<Product> load(String productId) {
+        Batch full = null;
+        CompletableFuture<Product> future;
+        synchronized (lock) {
+            if (current == null) {
+                Batch opened = new Batch();
+                current = opened;
+                CompletableFuture.delayedExecutor(batchWindowNanos, TimeUnit.NANOSECONDS, executor)
+                        .execute(() -> dispatch(opened));
+            }
+            future = current.futures.computeIfAbsent(productId, id -> new CompletableFuture<>());
+            if (current.futures.size() >= maxBatchSize) {
+                full = current;
+                current = null;
+            }
+        }
+        if (full != null) {
+            Batch batch = full;
+            executor.execute(() -> dispatch(batch));
+        }
+        return future;
+    }
+
+    /**
+     * Adds every product to the current batch, spilling into further batches past the maximum size.
+     *
+     * @return Completes with the products found, keyed by ID
+     */
+    public CompletableFuture<Map<String, Product>> loadAll(Collection<String> productIds) {
+        Map<String, CompletableFuture<Product>> futures = new LinkedHashMap<>();
+        for (String productId : productIds) {
+            futures.computeIfAbsent(productId, this::load);
+        }
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<String, Product> products = new LinkedHashMap<>();
+                    futures.forEach((productId, future) -> {
+                        Product product = future.join();
+                        if (product != null) {
+                            products.put(productId, product);
+                        }
+                    });
+                    return products;
+                });
+    }
+
+    /**
+     * @throws CacheLoadException If the batch query failed, including with an Error
+     */
+    @Override
+    public Product getProduct(String productId) {
+        return await(load(productId), productId);
+    }
+
+    /**
+     * @throws CacheLoadException If a batch query failed
+     */
+    @Override
+    public Map<String, Product> getProducts(Collection<String> productIds) {
+        return await(loadAll(productIds), productIds);
+    }
+
+    private void dispatch(Batch batch) {
+        synchronized (lock) {
+            if (batch.dispatched) {
+                return;    // Already sent because it filled up before the window closed
+            }
+            batch.dispatched = true;
+            if (current == batch) {
+                current = null;
+            }
+        }
+
+        List<String> productIds = new ArrayList<>(batch.futures.keySet());
+        Map<String, Product> products;
+        try {
+            products = source.getProducts(productIds);
+        } catch (Throwable e) {
+            // Errors too, or every caller waiting on this batch would hang
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            return;
+        }
+        batch.futures.forEach((productId, future) -> future.complete(products.get(productId)));
+    }
+
+    private static <T> T await(CompletableFuture<T> future, Object productIds) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new CacheLoadException("Failed to load " + productIds, e.getCause(), false);
+        }
+    }
+
+    private static final class Batch {
+        // Written under the loader's lock until dispatched, read only after
+        final Map<String, CompletableFuture<Product>> futures = new LinkedHashMap<>();
+        boolean dispatched;
+    }
+}
@@ -0,0 +1,175 @@
+package com.ecommerce;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills a {@link CachingProductCatalog} before the service takes traffic, and keeps
+ * the products in use loaded afterwards.
+ *
+ * Warm-up loads the products read most in the previous run, as recorded in an
+ * {@link AccessCountStore}, in batches loaded in parallel. The service is ready once
+ * every batch has finished; a failed batch is reported but does not hold readiness
+ * back, since a cold product is still served, only slower.
+ *
+ * Once warm, refresh-ahead runs periodically so hot products are reloaded before
+ * their TTL expires and reads never wait on the catalog's slow path.
+ */
+public class ProductCacheWarmer implements AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private final CachingProductCatalog catalog;
+    private final AccessCountStore accessCounts;
+    private final int topN;
+    private final int batchSize;
+    private final ExecutorService warmUpExecutor;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<WarmUpResult> ready = new CompletableFuture<>();
+
+    /**
+     * @param topN        How many of the most read products to preload
+     * @param parallelism How many batches to load at once
+     */
+    public ProductCacheWarmer(CachingProductCatalog catalog, AccessCountStore accessCounts,
+                              int topN, int parallelism) {
+        this(catalog, accessCounts, topN, DEFAULT_BATCH_SIZE, parallelism);
+    }
+
+    public ProductCacheWarmer(CachingProductCatalog catalog, AccessCountStore accessCounts,
+                              int topN, int batchSize, int parallelism) {
+        this.catalog = catalog;
+        this.accessCounts = accessCounts;
+        this.topN = topN;
+        this.batchSize = batchSize;
+        this.warmUpExecutor = Executors.newFixedThreadPool(parallelism, daemon("product-cache-warm-up"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("product-cache-refresh-ahead"));
+    }
+
+    /**
+     * Starts loading the top products. Calling it again returns the same warm-up.
+     *
+     * @return Completes when every batch has finished, successfully or not
+     */
+    public CompletableFuture<WarmUpResult> warmUp() {
+        if (!started.compareAndSet(false, true)) {
+            return ready;
+        }
+
+        long start = System.nanoTime();
+        List<String> productIds = accessCounts.topN(topN);
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger failedBatches = new AtomicInteger();
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < productIds.size(); from += batchSize) {
+            List<String> batch = productIds.subList(from, Math.min(from + batchSize, productIds.size()));
+            batches.add(CompletableFuture
+                    .runAsync(() -> loaded.addAndGet(catalog.getProducts(batch).size()), warmUpExecutor)
+                    .exceptionally(failure -> {
+                        failedBatches.incrementAndGet();
+                        System.out.println("Warm-up batch failed: " + failure.getMessage());
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).thenRun(() -> ready.complete(
+                new WarmUpResult(productIds.size(), loaded.get(), failedBatches.get(),
+                        (System.nanoTime() - start) / 1_000_000)));
+        return ready;
+    }
+
+    public boolean isReady() {
+        return ready.isDone();
+    }
+
+    /**
+     * @return true if warm-up finished within the timeout
+     */
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
+        try {
+            ready.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;    // Never completed exceptionally; failed batches are counted instead
+        }
+    }
+
+    /**
+     * Runs {@link CachingProductCatalog#refreshAhead()} at a fixed period. Pick a period
+     * well below TTL minus refresh interval so hot products never reach their TTL.
+     */
+    public void startRefreshAhead(Duration period) {
+        long periodNanos = period.toNanos();
+        scheduler.scheduleWithFixedDelay(() -> {
+            int refreshed = catalog.refreshAhead();
+            if (refreshed > 0) {
+                System.out.println("Refreshed ahead " + refreshed + " products");
+            }
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        warmUpExecutor.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public static final class WarmUpResult {
+        private final int requested;
+        private final int loaded;
+        private final int failedBatches;
+        private final long elapsedMillis;
+
+        WarmUpResult(int requested, int loaded, int failedBatches, long elapsedMillis) {
+            this.requested = requested;
+            this.loaded = loaded;
+            this.failedBatches = failedBatches;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getRequested() {
+            return requested;
+        }
+
+        public int getLoaded() {
+            return loaded;
+        }
+
+        public int getFailedBatches() {
+            return failedBatches;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "WarmUpResult{requested=" + requested + ", loaded=" + loaded
+                    + ", failedBatches=" + failedBatches + ", elapsed=" + elapsedMillis + "ms}";
+        }
+    }
+}
@@ -1,17 +1,31 @@
 package com.ecommerce;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
-public class ProductCatalog {
+public class ProductCatalog implements ProductLookup {
     
     // Simulates a slow database query
+    @Override
     public Product getProduct(String productId) {
         simulateSlowQuery();
         System.out.println("DATABASE QUERY: Fetching product " + productId);
         return new Product(productId, "Product " + productId, 29.99);
     }
 
+    // One query for the whole list, e.g. WHERE id IN (...)
+    @Override
+    public Map<String, Product> getProducts(Collection<String> productIds) {
+        simulateSlowQuery();
+        System.out.println("DATABASE QUERY: Fetching products " + productIds);
+        Map<String, Product> products = new HashMap<>();
+        for (String productId : productIds) {
+            products.put(productId, new Product(productId, "Product " + productId, 29.99));
+        }
+        return products;
+    }
+
     // Problem: Every call hits the database, even for the same product.
     // In a single page load, getProduct("P001") might be called 10+ times
     // from different parts of the code (cart, recommendations, reviews).
@@ -31,20 +45,3 @@ public class ProductCatalog {
         }
     }
 }
-
-class Product {
-    String id;
-    String name;
-    double price;
-
-    Product(String id, String name, double price) {
-        this.id = id;
-        this.name = name;
-        this.price = price;
-    }
-
-    @Override
-    public String toString() {
-        return "Product{id='" + id + "', name='" + name + "', price=$" + price + "}";
-    }
-}
@@ -0,0 +1,31 @@
+package com.ecommerce;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lookup contract shared by the real catalog and the proxies in front of it,
+ * so callers never know whether a product came from the database or a cache.
+ */
+public interface ProductLookup {
+
+    Product getProduct(String productId);
+
+    /**
+     * Looks up several products at once. Sources that can fetch many products in one
+     * round trip override this; the default looks them up one by one.
+     *
+     * @return The products found, keyed by ID; IDs with no product are left out
+     */
+    default Map<String, Product> getProducts(Collection<String> productIds) {
+        Map<String, Product> products = new LinkedHashMap<>();
+        for (String productId : productIds) {
+            Product product = getProduct(productId);
+            if (product != null) {
+                products.put(productId, product);
+            }
+        }
+        return products;
+    }
+}
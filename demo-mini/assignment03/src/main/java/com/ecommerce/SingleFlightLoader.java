@@ -0,0 +1,223 @@
+package com.ecommerce;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent loads of the same key into one call to the loader.
+ *
+ * The first caller for a key starts the load on the executor; everyone who asks for
+ * that key before it finishes waits on the same result. Once it completes the key is
+ * forgotten, so the next request after that loads again. However many requests miss
+ * at once, the backend sees at most one query per key at a time.
+ *
+ * Each caller gets its own view of the shared result: a caller that times out or
+ * cancels stops waiting without affecting the load or the other callers.
+ *
+ * Given a bulk loader, {@link #loadAll} starts the keys not already in flight with
+ * a single call to it, so a multi-get's misses cost one query too.
+ */
+public class SingleFlightLoader<K, V> {
+
+    private final Function<K, V> loader;
+    private final Function<Collection<K>, Map<K, V>> bulkLoader;
+    private final Executor executor;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * @param loader   Loads one key; may block, and may return null
+     * @param executor Runs the loads, so callers can stop waiting on them
+     */
+    public SingleFlightLoader(Function<K, V> loader, Executor executor) {
+        this(loader, null, executor);
+    }
+
+    /**
+     * @param bulkLoader Loads several keys in one call, leaving out keys it has no value
+     *                   for; null to load each key separately
+     */
+    public SingleFlightLoader(Function<K, V> loader, Function<Collection<K>, Map<K, V>> bulkLoader,
+                              Executor executor) {
+        this.loader = loader;
+        this.bulkLoader = bulkLoader;
+        this.executor = executor;
+    }
+
+    /**
+     * Joins the load in flight for the key, or starts one.
+     *
+     * @return This caller's view of the result; cancelling it only stops this caller waiting
+     */
+    public CompletableFuture<V> loadAsync(K key) {
+        CompletableFuture<V> started = new CompletableFuture<>();
+        CompletableFuture<V> shared = inFlight.putIfAbsent(key, started);
+        if (shared != null) {
+            coalescedCount.increment();
+            return shared.copy();
+        }
+
+        loadCount.increment();
+        try {
+            executor.execute(() -> run(key, started));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, started);
+            started.completeExceptionally(e);
+        }
+        return started.copy();
+    }
+
+    /**
+     * Loads the key, waiting at most the given time for the shared result.
+     *
+     * @throws CacheLoadException If the load failed, the wait timed out or the caller was interrupted
+     */
+    public V load(K key, Duration timeout) {
+        return await(loadAsync(key), timeout, key);
+    }
+
+    /**
+     * Loads several keys concurrently, joining any loads already in flight, and waits
+     * at most the given time for all of them.
+     *
+     * @return The loaded values by key; keys the loader returned null for are left out
+     * @throws CacheLoadException If any load failed, the wait timed out or the caller was interrupted
+     */
+    public Map<K, V> loadAll(Collection<K> keys, Duration timeout) {
+        Map<K, CompletableFuture<V>> results = new LinkedHashMap<>();
+        if (bulkLoader == null) {
+            for (K key : keys) {
+                results.computeIfAbsent(key, this::loadAsync);
+            }
+        } else {
+            startAll(keys, results);
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(results.values().toArray(new CompletableFuture<?>[0]));
+        try {
+            await(all, timeout, keys);
+        } catch (CacheLoadException e) {
+            results.values().forEach(result -> result.cancel(false));
+            throw e;
+        }
+
+        Map<K, V> values = new LinkedHashMap<>();
+        results.forEach((key, result) -> {
+            V value = result.join();
+            if (value != null) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Joins the keys already in flight and starts the rest with one bulk load.
+     */
+    private void startAll(Collection<K> keys, Map<K, CompletableFuture<V>> results) {
+        Map<K, CompletableFuture<V>> started = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (results.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<V> created = new CompletableFuture<>();
+            CompletableFuture<V> shared = inFlight.putIfAbsent(key, created);
+            if (shared != null) {
+                coalescedCount.increment();
+                results.put(key, shared.copy());
+            } else {
+                started.put(key, created);
+                results.put(key, created.copy());
+            }
+        }
+        if (started.isEmpty()) {
+            return;
+        }
+
+        loadCount.increment();
+        try {
+            executor.execute(() -> runAll(started));
+        } catch (RejectedExecutionException e) {
+            started.forEach((key, future) -> {
+                inFlight.remove(key, future);
+                future.completeExceptionally(e);
+            });
+        }
+    }
+
+    private void runAll(Map<K, CompletableFuture<V>> started) {
+        Map<K, V> values;
+        try {
+            values = bulkLoader.apply(started.keySet());
+        } catch (Throwable t) {
+            started.forEach((key, future) -> {
+                inFlight.remove(key, future);
+                future.completeExceptionally(t);
+            });
+            return;
+        }
+        started.forEach((key, future) -> inFlight.remove(key, future));
+        started.forEach((key, future) -> future.complete(values.get(key)));
+    }
+
+    private static <T> T await(CompletableFuture<T> result, Duration timeout, Object keys) {
+        try {
+            return result.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(false);
+            throw new CacheLoadException("Timed out after " + timeout.toMillis() + "ms loading " + keys, e, true);
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new CacheLoadException("Interrupted while loading " + keys, e, false);
+        } catch (ExecutionException e) {
+            throw new CacheLoadException("Failed to load " + keys, e.getCause(), false);
+        } catch (CancellationException e) {
+            throw new CacheLoadException("Load of " + keys + " was cancelled", e, false);
+        }
+    }
+
+    private void run(K key, CompletableFuture<V> started) {
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (Throwable t) {
+            inFlight.remove(key, started);
+            started.completeExceptionally(t);
+            return;
+        }
+        // Forget the key before publishing, so nobody joins a load that has already finished
+        inFlight.remove(key, started);
+        started.complete(value);
+    }
+
+    /**
+     * @return Number of keys currently being loaded
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /** Loads actually started, i.e. calls made to the loader or the bulk loader. */
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    /** Requests that joined a load already in flight instead of starting one. */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce;
+
+/**
+ * Who is asking for a product. Admins need real-time data, so their reads skip the cache.
+ */
+public enum UserRole {
+    CUSTOMER(false),
+    ADMIN(true);
+
+    private final boolean realTime;
+
+    UserRole(boolean realTime) {
+        this.realTime = realTime;
+    }
+
+    public boolean requiresRealTimeData() {
+        return realTime;
+    }
+}
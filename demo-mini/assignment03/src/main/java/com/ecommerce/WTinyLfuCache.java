@@ -0,0 +1,338 @@
+package com.ecommerce;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded map with the W-TinyLFU admission and eviction policy.
+ *
+ * New entries land in a small LRU window (1% of the capacity). When the window
+ * overflows, its oldest entry becomes a candidate for the main space, a segmented LRU
+ * split into probation (20%) and protected (80%). The candidate is admitted only if a
+ * frequency sketch says it has been asked for more often than the entry it would push
+ * out of probation, so a burst of one-off lookups cannot flush the popular products
+ * the way it does in a plain LRU. An entry read again while on probation moves to
+ * protected.
+ *
+ * All operations hold the cache's lock, and none of them call out to other code, so
+ * callers must load values outside it.
+ */
+public class WTinyLfuCache<K, V> {
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        Segment<K, V> segment;
+        Node<K, V> previous;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * LRU list threaded through the nodes themselves, so moving an entry never costs
+     * another hash lookup. The sentinel's next node is the least recently used one.
+     */
+    private static final class Segment<K, V> {
+        private final Node<K, V> sentinel = new Node<>(null, null);
+        private int size;
+
+        Segment() {
+            sentinel.previous = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        void addMostRecent(Node<K, V> node) {
+            node.segment = this;
+            node.previous = sentinel.previous;
+            node.next = sentinel;
+            sentinel.previous.next = node;
+            sentinel.previous = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            node.previous.next = node.next;
+            node.next.previous = node.previous;
+            node.previous = null;
+            node.next = null;
+            node.segment = null;
+            size--;
+        }
+
+        void moveToMostRecent(Node<K, V> node) {
+            remove(node);
+            addMostRecent(node);
+        }
+
+        Node<K, V> leastRecent() {
+            return size == 0 ? null : sentinel.next;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            sentinel.previous = sentinel;
+            sentinel.next = sentinel;
+            size = 0;
+        }
+    }
+
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int mainMaximum;
+    private final int protectedMaximum;
+
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    private final Segment<K, V> window = new Segment<>();
+    private final Segment<K, V> probation = new Segment<>();
+    private final Segment<K, V> protectedSegment = new Segment<>();
+    private final FrequencySketch sketch;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public WTinyLfuCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.mainMaximum = maximumSize - windowMaximum;
+        this.protectedMaximum = mainMaximum * 80 / 100;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Looks up a value and records the access, whether or not it is cached.
+     *
+     * @return The cached value, or null on a miss
+     */
+    public synchronized V getIfPresent(K key) {
+        sketch.increment(key);
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        onAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Adds or replaces a value. A replaced value keeps its place in the policy;
+     * a new one enters the window, which may evict another entry.
+     */
+    public synchronized void put(K key, V value) {
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            node.value = value;
+            return;
+        }
+        node = new Node<>(key, value);
+        data.put(key, node);
+        window.addMostRecent(node);
+        if (window.size() > windowMaximum) {
+            evictFromWindow();
+        }
+    }
+
+    /**
+     * Replaces a value only if the key still maps to the expected one.
+     *
+     * @return true if replaced; false if the entry was removed or changed meanwhile
+     */
+    public synchronized boolean replace(K key, V expected, V value) {
+        Node<K, V> node = data.get(key);
+        if (node == null || node.value != expected) {
+            return false;
+        }
+        node.value = value;
+        return true;
+    }
+
+    public synchronized V remove(K key) {
+        Node<K, V> node = data.remove(key);
+        if (node == null) {
+            return null;
+        }
+        node.segment.remove(node);
+        return node.value;
+    }
+
+    /**
+     * Removes a key only if it still maps to the expected value.
+     */
+    public synchronized boolean remove(K key, V expected) {
+        Node<K, V> node = data.get(key);
+        if (node == null || node.value != expected) {
+            return false;
+        }
+        remove(key);
+        return true;
+    }
+
+    /**
+     * @return A copy of every cached entry; reading it does not count as access
+     */
+    public synchronized Map<K, V> snapshot() {
+        Map<K, V> entries = new HashMap<>(data.size() * 4 / 3 + 1);
+        data.forEach((key, node) -> entries.put(key, node.value));
+        return entries;
+    }
+
+    public synchronized void clear() {
+        data.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    public synchronized int size() {
+        return data.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (node.segment != probation) {
+            node.segment.moveToMostRecent(node);
+            return;
+        }
+        probation.remove(node);
+        protectedSegment.addMostRecent(node);
+        if (protectedSegment.size() > protectedMaximum) {
+            // Protected is full: its least recently used entry gets another chance on probation
+            Node<K, V> demoted = protectedSegment.leastRecent();
+            protectedSegment.remove(demoted);
+            probation.addMostRecent(demoted);
+        }
+    }
+
+    /**
+     * Moves the window's oldest entry into the main space if it beats the main space's
+     * next victim on frequency; otherwise evicts it.
+     */
+    private void evictFromWindow() {
+        Node<K, V> candidate = window.leastRecent();
+        window.remove(candidate);
+        if (probation.size() + protectedSegment.size() < mainMaximum) {
+            probation.addMostRecent(candidate);
+            return;
+        }
+
+        Node<K, V> victim = probation.size() > 0 ? probation.leastRecent() : protectedSegment.leastRecent();
+        if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            victim.segment.remove(victim);
+            evict(victim);
+            probation.addMostRecent(candidate);
+        } else {
+            evict(candidate);
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        data.remove(node.key);
+        evictionCount++;
+    }
+}
+
+/**
+ * Count-Min sketch of recent access frequencies with 4-bit counters, 16 to a long.
+ * Each key maps to four counters and its estimate is the smallest of them. Once the
+ * number of increments reaches ten times the cache size, every counter is halved,
+ * so popularity fades and products that stop selling can be evicted.
+ */
+class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int capacity = Math.min(Math.max(maximumSize, 16), 1 << 30);
+        int tableSize = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = maximumSize <= Integer.MAX_VALUE / 10 ? 10 * maximumSize : Integer.MAX_VALUE;
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long slot = slot(hash, i);
+            int count = (int) ((table[index(slot)] >>> offset(slot)) & MAX_COUNT);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long slot = slot(hash, i);
+            int index = index(slot);
+            int offset = offset(slot);
+            if (((table[index] >>> offset) & MAX_COUNT) != MAX_COUNT) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long slot(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return h + (h >>> 32);
+    }
+
+    private int index(long slot) {
+        return (int) slot & tableMask;
+    }
+
+    private static int offset(long slot) {
+        return (int) ((slot >>> 40) & 15) << 2;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.analytics.AnalyticsService;
+import com.ecommerce_refactor.discount.DiscountService;
+import com.ecommerce_refactor.discount.DiscountStrategy;
+import com.ecommerce_refactor.discount.NoDiscountStrategy;
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.Product;
+import com.ecommerce_refactor.model.enumeration.ProductCategory;
+import com.ecommerce_refactor.notification.NotificationService;
+import com.ecommerce_refactor.payment.PaymentProcessor;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Shared test data and no-op collaborators for benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Builds a catalog of products cycling through every category, with enough
+     * stock that benchmarks never run out.
+     */
+    public static List<Product> catalog(int size) {
+        ProductCategory[] categories = ProductCategory.values();
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(new Product(productId(i), "Product " + i, 10.0 + (i % 1000),
+                    categories[i % categories.length], Integer.MAX_VALUE / 2));
+        }
+        return products;
+    }
+
+    public static String productId(int index) {
+        return "P" + index;
+    }
+
+    /** Payment that always succeeds without printing. */
+    public static PaymentProcessor instantPayment() {
+        return new PaymentProcessor() {
+            @Override
+            public boolean processPayment(double amount) {
+                return true;
+            }
+
+            @Override
+            public double calculateFee(double amount) {
+                return amount * 0.03;
+            }
+        };
+    }
+
+    /**
+     * Payment that always succeeds after a simulated gateway round trip.
+     *
+     * @param latencyMicros Simulated gateway latency
+     */
+    public static PaymentProcessor delayedPayment(long latencyMicros) {
+        return new PaymentProcessor() {
+            @Override
+            public boolean processPayment(double amount) {
+                LockSupport.parkNanos(latencyMicros * 1_000);
+                return true;
+            }
+
+            @Override
+            public double calculateFee(double amount) {
+                return amount * 0.03;
+            }
+        };
+    }
+
+    public static NotificationService silentNotifications() {
+        return new NotificationService() {
+            @Override
+            public void sendOrderConfirmation(String email, Order order) {
+            }
+
+            @Override
+            public void sendOrderShipped(Order order, String trackingNumber) {
+            }
+
+            @Override
+            public void sendOrderCancelled(Order order) {
+            }
+        };
+    }
+
+    public static AnalyticsService silentAnalytics() {
+        return new AnalyticsService() {
+            @Override
+            public void trackOrderCreated(Order order, String paymentMethod) {
+            }
+
+            @Override
+            public void trackStatusChange(Order order) {
+            }
+        };
+    }
+
+    /**
+     * Builds a discount service with the given number of strategies. All but the last
+     * one discount a slice of the catalog's price range, so on average a product is
+     * checked against half the chain; the last is the no-discount fallback.
+     *
+     * @param strategyCount Total number of strategies, at least 1
+     */
+    public static DiscountService discountService(int strategyCount) {
+        List<DiscountStrategy> strategies = new ArrayList<>(strategyCount);
+        int bands = strategyCount - 1;
+        for (int i = 0; i < bands; i++) {
+            double low = 10.0 + 1000.0 * i / bands;
+            double high = 10.0 + 1000.0 * (i + 1) / bands;
+            strategies.add(new PriceBandDiscount(low, high));
+        }
+        strategies.add(new NoDiscountStrategy());
+        return new DiscountService(strategies);
+    }
+
+    /** 10% off products priced in [low, high). */
+    private static final class PriceBandDiscount implements DiscountStrategy {
+        private final double low;
+        private final double high;
+
+        PriceBandDiscount(double low, double high) {
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        public boolean isApplicable(Product product) {
+            double price = product.getPrice();
+            return price >= low && price < high;
+        }
+
+        @Override
+        public double applyDiscount(Product product, double originalPrice) {
+            return isApplicable(product) ? originalPrice * 0.9 : originalPrice;
+        }
+
+        @Override
+        public String getDescription() {
+            return "10% off products from $" + low + " to $" + high;
+        }
+    }
+
+    /**
+     * Replaces System.out with a sink that discards everything, so the service's
+     * console logging does not dominate the measurement.
+     *
+     * @return The original stream, to restore afterwards
+     */
+    public static PrintStream muteConsole() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return original;
+    }
+}
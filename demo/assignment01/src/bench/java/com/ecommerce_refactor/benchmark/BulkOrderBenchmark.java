@@ -0,0 +1,105 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.discount.DiscountService;
+import com.ecommerce_refactor.model.OrderRequest;
+import com.ecommerce_refactor.model.OrderResult;
+import com.ecommerce_refactor.repository.InMemoryOrderRepository;
+import com.ecommerce_refactor.repository.InMemoryProductRepository;
+import com.ecommerce_refactor.service.OrderService;
+import com.ecommerce_refactor.service.OrderServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares bulk ingestion through createOrders with a loop of createOrder calls,
+ * for a batch of {@value #BATCH_SIZE} orders against a payment gateway with
+ * {@value #PAYMENT_LATENCY_MICROS}us latency. Reports throughput in orders per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BulkOrderBenchmark.BATCH_SIZE)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkOrderBenchmark {
+
+    static final int BATCH_SIZE = 1_000;
+
+    private static final int CATALOG_SIZE = 1_000;
+    private static final int ITEMS_PER_ORDER = 5;
+    private static final long PAYMENT_LATENCY_MICROS = 200;
+
+    private List<OrderRequest> batch;
+    private OrderService service;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() {
+        batch = buildBatch(new Random(42));
+        console = BenchmarkFixtures.muteConsole();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    // Every batch goes into an empty service, as a fresh import would
+    @Setup(Level.Invocation)
+    public void newService() {
+        service = new OrderServiceImpl(
+                new InMemoryProductRepository(BenchmarkFixtures.catalog(CATALOG_SIZE)),
+                new InMemoryOrderRepository(),
+                BenchmarkFixtures.delayedPayment(PAYMENT_LATENCY_MICROS),
+                BenchmarkFixtures.silentNotifications(),
+                new DiscountService(),
+                BenchmarkFixtures.silentAnalytics());
+    }
+
+    @Benchmark
+    public int loopOfCreateOrder() {
+        int created = 0;
+        for (OrderRequest request : batch) {
+            if (service.createOrder(request.getCustomerEmail(), request.getProductIds(),
+                    request.getPaymentMethod(), request.getShippingAddress()) != null) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    @Benchmark
+    public List<OrderResult> createOrders() {
+        return service.createOrders(batch);
+    }
+
+    private static List<OrderRequest> buildBatch(Random random) {
+        List<OrderRequest> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            List<String> productIds = new ArrayList<>(ITEMS_PER_ORDER);
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                productIds.add(BenchmarkFixtures.productId(random.nextInt(CATALOG_SIZE)));
+            }
+            batch.add(new OrderRequest("customer" + i + "@example.com", productIds, "CREDIT_CARD", "Hola Park"));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,273 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.discount.DiscountService;
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.OrderRequest;
+import com.ecommerce_refactor.model.OrderResult;
+import com.ecommerce_refactor.model.Product;
+import com.ecommerce_refactor.notification.NotificationService;
+import com.ecommerce_refactor.payment.PaymentProcessor;
+import com.ecommerce_refactor.repository.InMemoryOrderRepository;
+import com.ecommerce_refactor.repository.InMemoryProductRepository;
+import com.ecommerce_refactor.service.OrderServiceImpl;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that order creation settles each order on its own when collaborators fail.
+ *
+ * 1. A createOrders batch where some payments throw, some saves throw and some
+ *    confirmations cannot be sent must still return a result for every order. Stock
+ *    must stay reserved for exactly the orders that were saved, and every saved order
+ *    must be reported as a success; in particular, no reservation may leak.
+ * 2. createOrder one at a time against the same throwing gateway must not leak
+ *    reservations either.
+ * 3. Order IDs generated on many threads at once must sort as strings in the same
+ *    order as their sequence numbers.
+ * 4. An order saved without a status must be rejected with an IllegalStateException
+ *    naming it, and a cancelOrders batch containing it must still cancel the others.
+ *
+ * Exits with status 1 if any check fails.
+ */
+public class BulkOrderFailureCheck {
+
+    private static final int ORDERS = 200;
+    private static final int PRODUCTS = 4;
+    private static final int PAYMENT_FAILURE_EVERY = 10;
+    private static final int ID_THREADS = 8;
+    private static final int IDS_PER_THREAD = 2_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> failures = new ArrayList<>();
+        checkBatch(failures);
+        checkSingleOrders(failures);
+        checkIdOrder(failures);
+        checkStatuslessOrder(failures);
+
+        if (failures.isEmpty()) {
+            System.out.println("PASS");
+        } else {
+            failures.forEach(f -> System.out.println("FAIL: " + f));
+            System.exit(1);
+        }
+    }
+
+    private static void checkBatch(List<String> failures) {
+        InMemoryProductRepository products = new InMemoryProductRepository(BenchmarkFixtures.catalog(PRODUCTS));
+        FailingOrderRepository orders = new FailingOrderRepository();
+        OrderServiceImpl service = new OrderServiceImpl(products, orders, new ThrowingPayment(),
+                new FailingNotifications(), new DiscountService(), BenchmarkFixtures.silentAnalytics());
+
+        List<OrderRequest> batch = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            String email = (i % 25 == 7 ? "unsaveable" : i % 25 == 11 ? "unreachable" : "bulk") + i + "@example.com";
+            batch.add(new OrderRequest(email, Arrays.asList(BenchmarkFixtures.productId(i % PRODUCTS)),
+                    "CREDIT_CARD", "Hola Park"));
+        }
+
+        List<OrderResult> results;
+        PrintStream console = BenchmarkFixtures.muteConsole();
+        try {
+            results = service.createOrders(batch);
+        } finally {
+            System.setOut(console);
+        }
+
+        long succeeded = results.stream().filter(OrderResult::isSuccess).count();
+        long reserved = 0;
+        for (Product product : products.getAllProducts()) {
+            reserved += product.getReservedStock();
+        }
+        System.out.printf("%d orders: %d created, %d failed, %d saves rejected, %d units still reserved%n",
+                ORDERS, succeeded, results.size() - succeeded, orders.rejected.get(), reserved);
+
+        if (results.size() != ORDERS) {
+            failures.add(results.size() + " results for " + ORDERS + " orders");
+        }
+        if (reserved != succeeded) {
+            failures.add(reserved + " units reserved for " + succeeded + " created orders");
+        }
+        if (orders.findAll().size() != succeeded) {
+            failures.add(orders.findAll().size() + " orders saved, " + succeeded + " reported created");
+        }
+        if (orders.rejected.get() == 0 || succeeded == ORDERS || succeeded == 0) {
+            failures.add("batch did not exercise both failures and successes");
+        }
+        for (int i = 0; i < results.size(); i++) {
+            OrderResult result = results.get(i);
+            if (!result.isSuccess() && result.getErrorMessage() == null) {
+                failures.add("order " + i + " failed without a reason");
+            }
+        }
+    }
+
+    private static void checkSingleOrders(List<String> failures) {
+        InMemoryProductRepository products = new InMemoryProductRepository(BenchmarkFixtures.catalog(PRODUCTS));
+        InMemoryOrderRepository orders = new InMemoryOrderRepository();
+        OrderServiceImpl service = new OrderServiceImpl(products, orders, new ThrowingPayment(),
+                BenchmarkFixtures.silentNotifications(), new DiscountService(), BenchmarkFixtures.silentAnalytics());
+
+        int thrown = 0;
+        PrintStream console = BenchmarkFixtures.muteConsole();
+        try {
+            for (int i = 0; i < ORDERS; i++) {
+                try {
+                    service.createOrder("single" + i + "@example.com",
+                            Arrays.asList(BenchmarkFixtures.productId(i % PRODUCTS)), "CREDIT_CARD", "Hola Park");
+                } catch (IllegalStateException e) {
+                    thrown++;
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        long reserved = 0;
+        for (Product product : products.getAllProducts()) {
+            reserved += product.getReservedStock();
+        }
+        System.out.printf("%d single orders: %d saved, %d payments threw, %d units still reserved%n",
+                ORDERS, orders.findAll().size(), thrown, reserved);
+        if (thrown == 0) {
+            failures.add("no single-order payment threw");
+        }
+        if (reserved != orders.findAll().size()) {
+            failures.add(reserved + " units reserved for " + orders.findAll().size() + " saved single orders");
+        }
+    }
+
+    private static void checkIdOrder(List<String> failures) throws InterruptedException {
+        InMemoryOrderRepository orders = new InMemoryOrderRepository();
+        OrderServiceImpl service = new OrderServiceImpl(
+                new InMemoryProductRepository(BenchmarkFixtures.catalog(PRODUCTS)), orders,
+                BenchmarkFixtures.instantPayment(), BenchmarkFixtures.silentNotifications(), new DiscountService(),
+                BenchmarkFixtures.silentAnalytics());
+
+        List<Thread> threads = new ArrayList<>();
+        PrintStream console = BenchmarkFixtures.muteConsole();
+        try {
+            for (int t = 0; t < ID_THREADS; t++) {
+                String productId = BenchmarkFixtures.productId(t % PRODUCTS);
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        service.createOrder("ids@example.com", Arrays.asList(productId), "CREDIT_CARD", "Hola Park");
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (Order order : orders.findAll()) {
+            ids.add(order.getOrderId());
+        }
+        ids.sort(null);
+        int outOfOrder = 0;
+        for (int i = 1; i < ids.size(); i++) {
+            if (sequenceOf(ids.get(i)) < sequenceOf(ids.get(i - 1))) {
+                outOfOrder++;
+            }
+        }
+        System.out.printf("%,d IDs from %d threads: %d sort out of sequence order%n", ids.size(), ID_THREADS, outOfOrder);
+        if (ids.size() != ID_THREADS * IDS_PER_THREAD) {
+            failures.add(ids.size() + " orders saved, expected " + ID_THREADS * IDS_PER_THREAD);
+        }
+        if (outOfOrder > 0) {
+            failures.add(outOfOrder + " order IDs sort out of sequence order");
+        }
+    }
+
+    private static void checkStatuslessOrder(List<String> failures) {
+        InMemoryProductRepository products = new InMemoryProductRepository(BenchmarkFixtures.catalog(PRODUCTS));
+        InMemoryOrderRepository orders = new InMemoryOrderRepository();
+        OrderServiceImpl service = new OrderServiceImpl(products, orders, BenchmarkFixtures.instantPayment(),
+                BenchmarkFixtures.silentNotifications(), new DiscountService(), BenchmarkFixtures.silentAnalytics());
+        Order statusless = new Order();
+        statusless.setOrderId("ORD-statusless");
+        orders.save(statusless);
+
+        List<OrderResult> results;
+        PrintStream console = BenchmarkFixtures.muteConsole();
+        try {
+            String placed = service.createOrder("statusless@example.com",
+                    Arrays.asList(BenchmarkFixtures.productId(0)), "CREDIT_CARD", "Hola Park");
+            try {
+                service.confirmOrder(statusless.getOrderId());
+                failures.add("confirming an order without a status did not throw");
+            } catch (IllegalStateException e) {
+                if (!e.getMessage().contains(statusless.getOrderId())) {
+                    failures.add("status error does not name the order: " + e.getMessage());
+                }
+            }
+            results = service.cancelOrders(Arrays.asList(statusless.getOrderId(), placed));
+        } finally {
+            System.setOut(console);
+        }
+
+        if (results.size() != 2 || results.get(0).isSuccess() || !results.get(1).isSuccess()) {
+            failures.add("batch with a status-less order did not cancel the other order");
+        }
+    }
+
+    private static long sequenceOf(String orderId) {
+        return Long.parseLong(orderId.substring(orderId.lastIndexOf('-') + 1));
+    }
+
+    /** Throws on every tenth charge, as a gateway timeout would. */
+    private static final class ThrowingPayment implements PaymentProcessor {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public boolean processPayment(double amount) {
+            if (calls.incrementAndGet() % PAYMENT_FAILURE_EVERY == 0) {
+                throw new IllegalStateException("gateway timeout");
+            }
+            return true;
+        }
+
+        @Override
+        public double calculateFee(double amount) {
+            return 0;
+        }
+    }
+
+    private static final class FailingOrderRepository extends InMemoryOrderRepository {
+        private final AtomicInteger rejected = new AtomicInteger();
+
+        @Override
+        public void save(Order order) {
+            if (order.getCustomerEmail().startsWith("unsaveable")) {
+                rejected.incrementAndGet();
+                throw new IllegalStateException("storage unavailable");
+            }
+            super.save(order);
+        }
+    }
+
+    private static final class FailingNotifications implements NotificationService {
+        @Override
+        public void sendOrderConfirmation(String email, Order order) {
+            if (email.startsWith("unreachable")) {
+                throw new IllegalStateException("mailbox unavailable");
+            }
+        }
+
+        @Override
+        public void sendOrderShipped(Order order, String trackingNumber) {
+        }
+
+        @Override
+        public void sendOrderCancelled(Order order) {
+        }
+    }
+}
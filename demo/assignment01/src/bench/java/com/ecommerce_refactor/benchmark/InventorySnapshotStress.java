@@ -0,0 +1,79 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.inventory.InventorySnapshot;
+import com.ecommerce_refactor.model.Product;
+import com.ecommerce_refactor.model.StockLevel;
+import com.ecommerce_refactor.repository.InMemoryProductRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stress test for point-in-time inventory snapshots.
+ *
+ * Each writer owns two products A and B and loops reserve(A), reserve(B), release(B),
+ * release(A). At any single point in time, A's reserved stock is therefore B's or one
+ * more. A snapshot that read A and B at different moments could instead show B ahead
+ * of A. Snapshots are captured continuously while the writers run, and every
+ * point-in-time snapshot must satisfy the invariant; exits with status 1 otherwise.
+ */
+public class InventorySnapshotStress {
+
+    private static final int WRITERS = 4;
+    private static final int SNAPSHOTS = 50_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        List<Product> catalog = BenchmarkFixtures.catalog(WRITERS * 2);
+        InMemoryProductRepository products = new InMemoryProductRepository(catalog);
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            Product a = catalog.get(2 * w);
+            Product b = catalog.get(2 * w + 1);
+            Thread writer = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    a.reserveStock(1);
+                    b.reserveStock(1);
+                    b.releaseReservedStock(1);
+                    a.releaseReservedStock(1);
+                }
+            }, "writer-" + w);
+            writer.setDaemon(true);
+            writers.add(writer);
+            writer.start();
+        }
+
+        long pointInTime = 0;
+        long violations = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            InventorySnapshot snapshot = InventorySnapshot.capture(products);
+            if (!snapshot.isPointInTime()) {
+                continue;
+            }
+            pointInTime++;
+            for (int w = 0; w < WRITERS; w++) {
+                StockLevel a = snapshot.get(catalog.get(2 * w).getProductId());
+                StockLevel b = snapshot.get(catalog.get(2 * w + 1).getProductId());
+                int lead = a.getReservedStock() - b.getReservedStock();
+                if (lead != 0 && lead != 1) {
+                    if (violations++ < 10) {
+                        System.out.println("FAIL: snapshot @" + snapshot.getSequence() + " shows A " + a + ", B " + b);
+                    }
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        for (Thread writer : writers) {
+            writer.interrupt();
+        }
+
+        System.out.printf("%,d snapshots of %d products in %.1f ms (%.1f us each), %.1f%% point-in-time%n",
+                SNAPSHOTS, catalog.size(), elapsed / 1e6, elapsed / 1e3 / SNAPSHOTS, 100.0 * pointInTime / SNAPSHOTS);
+        if (violations > 0) {
+            System.out.println("FAIL: " + violations + " torn snapshots");
+            System.exit(1);
+        }
+        System.out.println("PASS: every point-in-time snapshot was consistent across products");
+    }
+}
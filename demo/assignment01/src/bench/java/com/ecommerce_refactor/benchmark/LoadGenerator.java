@@ -0,0 +1,422 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.model.Product;
+import com.ecommerce_refactor.payment.PaymentProcessor;
+import com.ecommerce_refactor.repository.InMemoryOrderRepository;
+import com.ecommerce_refactor.repository.InMemoryProductRepository;
+import com.ecommerce_refactor.service.OrderService;
+import com.ecommerce_refactor.service.OrderServiceImpl;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator and soak test for {@link OrderService}.
+ *
+ * Drives a configurable mix of create/confirm/cancel/ship operations, picking products
+ * from a Zipfian popularity distribution, and reports throughput and latency
+ * percentiles at a fixed interval. At the end, checks that every product's stock
+ * agrees with the final order statuses; exits with status 1 otherwise.
+ *
+ * Modes:
+ * closed - {@code threads} workers each issue operations back to back, paced to
+ *          rate / threads per worker when a rate is given
+ * open   - arrivals are scheduled at {@code rate} per second regardless of how fast
+ *          the service answers, and queue up for {@code threads} workers
+ *
+ * Latency is measured from each operation's scheduled start, not from when a worker
+ * got around to it, so a stall is charged to every operation it delayed
+ * (coordinated-omission correction). The uncorrected service time is reported too.
+ * Unpaced closed-loop runs have no schedule, so there the two are the same.
+ *
+ * Arguments (name=value, all optional):
+ * mode=closed|open rate=5000 threads=8 duration=60 report=5 catalog=1000 zipf=1.0
+ * items=3 mix=60,20,10,10 (create,confirm,cancel,ship weights) paymentMicros=0
+ *
+ * Orders are kept by the in-memory repository, so heap use grows with run length;
+ * used heap is part of every report line.
+ */
+public class LoadGenerator {
+
+    private enum Operation {
+        CREATE, CONFIRM, CANCEL, SHIP
+    }
+
+    private final Config config;
+    private final PrintStream console;
+    private final List<Product> catalog;
+    private final String[] productIds;
+    private final ZipfDistribution popularity;
+    private final InMemoryProductRepository products;
+    private final InMemoryOrderRepository orders;
+    private final OrderService service;
+    private final Map<String, Integer> initialOnHand;
+
+    // Orders available for the next transition; each ID is handed to one operation only
+    private final Queue<String> pendingOrders = new ConcurrentLinkedQueue<>();
+    private final Queue<String> confirmedOrders = new ConcurrentLinkedQueue<>();
+
+    private final AtomicReference<LatencyHistogram> intervalLatency = new AtomicReference<>(new LatencyHistogram());
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+    private final LatencyHistogram totalServiceTime = new LatencyHistogram();
+    private final LongAdder[] succeeded = newAdders();
+    private final LongAdder[] failed = newAdders();
+    private volatile boolean draining;
+    private long startNanos;
+
+    public LoadGenerator(Config config, PrintStream console) {
+        this.config = config;
+        this.console = console;
+        this.catalog = BenchmarkFixtures.catalog(config.catalog);
+        this.productIds = catalog.stream().map(Product::getProductId).toArray(String[]::new);
+        this.popularity = new ZipfDistribution(config.catalog, config.zipf);
+        this.initialOnHand = StockInvariants.captureOnHand(catalog);
+        this.products = new InMemoryProductRepository(catalog);
+        this.orders = new InMemoryOrderRepository();
+        PaymentProcessor payment = config.paymentMicros > 0
+                ? BenchmarkFixtures.delayedPayment(config.paymentMicros)
+                : BenchmarkFixtures.instantPayment();
+        this.service = new OrderServiceImpl(products, orders, payment, BenchmarkFixtures.silentNotifications(),
+                BenchmarkFixtures.discountService(3), BenchmarkFixtures.silentAnalytics());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Config config = Config.parse(args);
+        PrintStream console = BenchmarkFixtures.muteConsole();
+        List<String> violations;
+        try {
+            violations = new LoadGenerator(config, console).run();
+        } finally {
+            System.setOut(console);
+        }
+        if (!violations.isEmpty()) {
+            violations.stream().limit(20).forEach(v -> System.out.println("FAIL: " + v));
+            System.exit(1);
+        }
+        System.out.println("PASS: stock matches order statuses");
+    }
+
+    /**
+     * Runs the configured load, prints periodic and final reports, and checks stock.
+     *
+     * @return Stock invariant violations, empty if consistent
+     */
+    public List<String> run() throws InterruptedException {
+        console.println("Load: " + config);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        startNanos = System.nanoTime();
+        reporter.scheduleAtFixedRate(this::reportInterval, config.reportSeconds, config.reportSeconds, TimeUnit.SECONDS);
+
+        long endNanos = startNanos + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        if (config.open) {
+            runOpenLoop(endNanos);
+        } else {
+            runClosedLoop(endNanos);
+        }
+
+        reporter.shutdown();
+        reporter.awaitTermination(config.reportSeconds, TimeUnit.SECONDS);
+        reportInterval();
+        reportTotals();
+        return StockInvariants.verify(products, orders.findAll(), initialOnHand);
+    }
+
+    private void runClosedLoop(long endNanos) throws InterruptedException {
+        long perWorkerInterval = config.rate > 0 ? TimeUnit.SECONDS.toNanos(config.threads) / config.rate : 0;
+        List<Thread> workers = new ArrayList<>(config.threads);
+        for (int t = 0; t < config.threads; t++) {
+            Thread worker = new Thread(() -> {
+                long next = startNanos;
+                while (System.nanoTime() < endNanos) {
+                    if (perWorkerInterval > 0) {
+                        waitUntil(next);
+                        perform(next);
+                        next += perWorkerInterval;
+                    } else {
+                        perform(System.nanoTime());
+                    }
+                }
+            }, "load-worker-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private void runOpenLoop(long endNanos) throws InterruptedException {
+        if (config.rate <= 0) {
+            throw new IllegalArgumentException("Open-loop mode needs a rate");
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(config.threads);
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.rate;
+        for (long scheduled = startNanos; scheduled < endNanos; scheduled += interval) {
+            waitUntil(scheduled);
+            long intendedStart = scheduled;
+            workers.execute(() -> perform(intendedStart));
+        }
+        draining = true;
+        workers.shutdown();
+        // Arrivals that queued up behind a slow service still count
+        workers.awaitTermination(1, TimeUnit.HOURS);
+        draining = false;
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void perform(long intendedStart) {
+        long actualStart = System.nanoTime();
+        Operation operation = pickOperation();
+        boolean ok;
+        switch (operation) {
+            case CONFIRM: {
+                String orderId = pendingOrders.poll();
+                if (orderId == null) {
+                    operation = Operation.CREATE;
+                    ok = create();
+                    break;
+                }
+                ok = service.confirmOrder(orderId);
+                if (ok) {
+                    confirmedOrders.add(orderId);
+                }
+                break;
+            }
+            case CANCEL: {
+                boolean fromPending = ThreadLocalRandom.current().nextBoolean();
+                String orderId = fromPending ? pendingOrders.poll() : confirmedOrders.poll();
+                if (orderId == null) {
+                    orderId = fromPending ? confirmedOrders.poll() : pendingOrders.poll();
+                }
+                if (orderId == null) {
+                    operation = Operation.CREATE;
+                    ok = create();
+                    break;
+                }
+                ok = service.cancelOrder(orderId);
+                break;
+            }
+            case SHIP: {
+                String orderId = confirmedOrders.poll();
+                if (orderId == null) {
+                    operation = Operation.CREATE;
+                    ok = create();
+                    break;
+                }
+                ok = service.shipOrder(orderId, "TRACK-" + orderId);
+                break;
+            }
+            default:
+                ok = create();
+                break;
+        }
+        long end = System.nanoTime();
+        intervalLatency.get().record(end - intendedStart);
+        totalServiceTime.record(end - actualStart);
+        (ok ? succeeded : failed)[operation.ordinal()].increment();
+    }
+
+    private boolean create() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> ids = new ArrayList<>(config.items);
+        for (int i = 0; i < config.items; i++) {
+            ids.add(productIds[popularity.sample(random)]);
+        }
+        String orderId = service.createOrder("load" + random.nextInt(100_000) + "@example.com", ids,
+                "CREDIT_CARD", "Hola Park");
+        if (orderId == null) {
+            return false;
+        }
+        pendingOrders.add(orderId);
+        return true;
+    }
+
+    private Operation pickOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(config.mixTotal);
+        for (Operation operation : Operation.values()) {
+            roll -= config.mix[operation.ordinal()];
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return Operation.CREATE;
+    }
+
+    private void reportInterval() {
+        LatencyHistogram interval = intervalLatency.getAndSet(new LatencyHistogram());
+        totalLatency.add(interval);
+        long count = interval.getCount();
+        Runtime runtime = Runtime.getRuntime();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+        console.printf("[%6.1fs] %,9.0f ops/s  p50 %8s  p90 %8s  p99 %8s  p99.9 %8s  max %8s  heap %,6d MB%s%n",
+                (System.nanoTime() - startNanos) / 1e9,
+                count / (double) config.reportSeconds,
+                millis(interval.getValueAtPercentile(50)),
+                millis(interval.getValueAtPercentile(90)),
+                millis(interval.getValueAtPercentile(99)),
+                millis(interval.getValueAtPercentile(99.9)),
+                millis(interval.getMax()),
+                usedMb,
+                draining ? "  (draining)" : "");
+    }
+
+    private void reportTotals() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long total = totalLatency.getCount();
+        console.println();
+        console.printf("Total: %,d operations in %.1f s (%,.0f ops/s)%n", total, seconds, total / seconds);
+        for (Operation operation : Operation.values()) {
+            console.printf("  %-8s %,12d ok %,10d failed%n", operation,
+                    succeeded[operation.ordinal()].sum(), failed[operation.ordinal()].sum());
+        }
+        console.println("Latency percentiles (ms):    p50      p90      p99    p99.9      max");
+        printPercentiles("  corrected for omission", totalLatency);
+        printPercentiles("  service time only     ", totalServiceTime);
+        console.printf("Orders in store: %,d%n", orders.findAll().size());
+    }
+
+    private void printPercentiles(String label, LatencyHistogram histogram) {
+        console.printf("%s %8s %8s %8s %8s %8s%n", label,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMax()));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[Operation.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Load settings parsed from name=value arguments.
+     */
+    public static final class Config {
+        private boolean open;
+        private int rate = 5_000;
+        private int threads = 8;
+        private int durationSeconds = 60;
+        private int reportSeconds = 5;
+        private int catalog = 1_000;
+        private double zipf = 1.0;
+        private int items = 3;
+        private int[] mix = {60, 20, 10, 10};
+        private int mixTotal = 100;
+        private long paymentMicros;
+
+        public static Config parse(String[] args) {
+            Config config = new Config();
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("Expected name=value, got: " + arg);
+                }
+                values.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                String value = entry.getValue();
+                switch (entry.getKey()) {
+                    case "mode":
+                        if (!value.equals("open") && !value.equals("closed")) {
+                            throw new IllegalArgumentException("mode must be open or closed: " + value);
+                        }
+                        config.open = value.equals("open");
+                        break;
+                    case "rate":
+                        config.rate = Integer.parseInt(value);
+                        break;
+                    case "threads":
+                        config.threads = Integer.parseInt(value);
+                        break;
+                    case "duration":
+                        config.durationSeconds = Integer.parseInt(value);
+                        break;
+                    case "report":
+                        config.reportSeconds = Integer.parseInt(value);
+                        break;
+                    case "catalog":
+                        config.catalog = Integer.parseInt(value);
+                        break;
+                    case "zipf":
+                        config.zipf = Double.parseDouble(value);
+                        break;
+                    case "items":
+                        config.items = Integer.parseInt(value);
+                        break;
+                    case "paymentMicros":
+                        config.paymentMicros = Long.parseLong(value);
+                        break;
+                    case "mix":
+                        config.mix = parseMix(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown argument: " + entry.getKey());
+                }
+            }
+            config.mixTotal = 0;
+            for (int weight : config.mix) {
+                config.mixTotal += weight;
+            }
+            if (config.threads <= 0 || config.durationSeconds <= 0 || config.reportSeconds <= 0
+                    || config.items <= 0 || config.mixTotal <= 0) {
+                throw new IllegalArgumentException("threads, duration, report, items and mix must be positive");
+            }
+            return config;
+        }
+
+        private static int[] parseMix(String value) {
+            String[] parts = value.split(",");
+            if (parts.length != Operation.values().length) {
+                throw new IllegalArgumentException("mix needs create,confirm,cancel,ship weights: " + value);
+            }
+            int[] weights = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                weights[i] = Integer.parseInt(parts[i].trim());
+                if (weights[i] < 0) {
+                    throw new IllegalArgumentException("mix weights must not be negative: " + value);
+                }
+            }
+            return weights;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("mode=%s rate=%d threads=%d duration=%ds report=%ds catalog=%d zipf=%.2f items=%d "
+                            + "mix=%d,%d,%d,%d paymentMicros=%d",
+                    open ? "open" : "closed", rate, threads, durationSeconds, reportSeconds, catalog, zipf, items,
+                    mix[0], mix[1], mix[2], mix[3], paymentMicros);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.discount.DiscountService;
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+import com.ecommerce_refactor.notification.CoalescingNotificationService;
+import com.ecommerce_refactor.notification.NotificationService;
+import com.ecommerce_refactor.repository.InMemoryOrderRepository;
+import com.ecommerce_refactor.repository.InMemoryProductRepository;
+import com.ecommerce_refactor.service.OrderService;
+import com.ecommerce_refactor.service.OrderServiceImpl;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Checks CoalescingNotificationService in front of the order service.
+ *
+ * 1. Runs create, confirm and ship for a batch of orders with and without the
+ *    coalescer, and reports provider calls for each; with it, every order must get
+ *    exactly one notification, the "shipped" one.
+ * 2. A cancellation must win over a shipment that lands in the same window,
+ *    whichever arrives first.
+ * 3. Many threads open windows for distinct orders at once, well past the bound;
+ *    the number of orders held must never exceed it, and no order may lose its
+ *    final notification.
+ *
+ * Exits with status 1 if any check fails.
+ */
+public class NotificationCoalescingCheck {
+
+    private static final int ORDERS = 2_000;
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 4;
+    private static final int BOUND_ROUNDS = 1_000;
+    private static final int MAX_PENDING = 64;
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> failures = new ArrayList<>();
+        checkCallReduction(failures);
+        checkCancelOutranksShip(failures);
+        checkPendingBound(failures);
+
+        if (failures.isEmpty()) {
+            System.out.println("PASS");
+        } else {
+            failures.stream().limit(20).forEach(f -> System.out.println("FAIL: " + f));
+            System.exit(1);
+        }
+    }
+
+    private static void checkCallReduction(List<String> failures) {
+        RecordingNotifications direct = new RecordingNotifications();
+        runLifecycle(direct);
+
+        RecordingNotifications provider = new RecordingNotifications();
+        try (CoalescingNotificationService coalescer = new CoalescingNotificationService(provider, 60_000, ORDERS)) {
+            runLifecycle(coalescer);
+        }
+
+        System.out.printf("create -> confirm -> ship for %,d orders: %,d provider calls direct, %,d coalesced (%.0f%% fewer)%n",
+                ORDERS, direct.calls(), provider.calls(), 100.0 * (direct.calls() - provider.calls()) / direct.calls());
+        provider.sent.forEach((orderId, kinds) -> {
+            if (!kinds.equals(List.of("SHIPPED"))) {
+                failures.add(orderId + " was sent " + kinds + ", expected only SHIPPED");
+            }
+        });
+        if (provider.sent.size() != ORDERS) {
+            failures.add(provider.sent.size() + " of " + ORDERS + " orders were notified");
+        }
+    }
+
+    private static void runLifecycle(NotificationService notifications) {
+        OrderService service = new OrderServiceImpl(
+                new InMemoryProductRepository(BenchmarkFixtures.catalog(16)), new InMemoryOrderRepository(),
+                BenchmarkFixtures.instantPayment(), notifications, new DiscountService(),
+                BenchmarkFixtures.silentAnalytics());
+        PrintStream console = BenchmarkFixtures.muteConsole();
+        try {
+            for (int i = 0; i < ORDERS; i++) {
+                String orderId = service.createOrder("coalesce" + i + "@example.com",
+                        Arrays.asList(BenchmarkFixtures.productId(i % 16)), "CREDIT_CARD", "Hola Park");
+                service.confirmOrder(orderId);
+                service.shipOrder(orderId, "TRACK-" + i);
+            }
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void checkCancelOutranksShip(List<String> failures) {
+        RecordingNotifications provider = new RecordingNotifications();
+        try (CoalescingNotificationService coalescer = new CoalescingNotificationService(provider, 60_000, 16)) {
+            Order shippedFirst = order("ORD-SHIP-THEN-CANCEL");
+            coalescer.sendOrderShipped(shippedFirst, "TRACK-1");
+            coalescer.sendOrderCancelled(shippedFirst);
+
+            Order cancelledFirst = order("ORD-CANCEL-THEN-SHIP");
+            coalescer.sendOrderCancelled(cancelledFirst);
+            coalescer.sendOrderShipped(cancelledFirst, "TRACK-2");
+        }
+        provider.sent.forEach((orderId, kinds) -> {
+            if (!kinds.equals(List.of("CANCELLED"))) {
+                failures.add(orderId + " was sent " + kinds + ", expected only CANCELLED");
+            }
+        });
+        System.out.println("Cancel vs ship in one window: " + provider.sent);
+    }
+
+    private static void checkPendingBound(List<String> failures) throws InterruptedException {
+        RecordingNotifications provider = new RecordingNotifications();
+        int maxHeld = 0;
+        long overflowed = 0;
+
+        // Each round fills the coalescer to one below the bound, then releases every thread at once
+        // so they race for the last slot
+        for (int round = 0; round < BOUND_ROUNDS; round++) {
+            try (CoalescingNotificationService coalescer =
+                         new CoalescingNotificationService(provider, 60_000, MAX_PENDING)) {
+                for (int i = 0; i < MAX_PENDING - 1; i++) {
+                    Order order = order("ORD-" + round + "-fill-" + i);
+                    coalescer.sendOrderConfirmation(order.getCustomerEmail(), order);
+                    coalescer.sendOrderShipped(order, "TRACK-" + i);
+                }
+                CountDownLatch start = new CountDownLatch(1);
+                List<Thread> threads = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    String prefix = "ORD-" + round + "-" + t + "-";
+                    threads.add(new Thread(() -> {
+                        awaitQuietly(start);
+                        for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                            Order order = order(prefix + i);
+                            coalescer.sendOrderConfirmation(order.getCustomerEmail(), order);
+                            coalescer.sendOrderShipped(order, "TRACK-" + i);
+                        }
+                    }));
+                }
+                threads.forEach(Thread::start);
+                start.countDown();
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                maxHeld = Math.max(maxHeld, coalescer.getPendingCount());
+                overflowed += coalescer.getOverflowCount();
+            }
+        }
+
+        int orders = BOUND_ROUNDS * (THREADS * ORDERS_PER_THREAD + MAX_PENDING - 1);
+        System.out.printf("%,d orders in %d rounds of %d threads, bound %d: at most %d held, %,d sent straight through%n",
+                orders, BOUND_ROUNDS, THREADS, MAX_PENDING, maxHeld, overflowed);
+        if (maxHeld > MAX_PENDING) {
+            failures.add(maxHeld + " orders held at once, bound is " + MAX_PENDING);
+        }
+        if (provider.sent.size() != orders) {
+            failures.add(provider.sent.size() + " of " + orders + " orders were notified");
+        }
+        provider.sent.forEach((orderId, kinds) -> {
+            if (!kinds.get(kinds.size() - 1).equals("SHIPPED")) {
+                failures.add(orderId + " was sent " + kinds + ", last should be SHIPPED");
+            }
+        });
+    }
+
+    private static Order order(String orderId) {
+        return new Order(orderId, orderId.toLowerCase() + "@example.com", new ArrayList<>(), 10.0,
+                OrderStatus.PENDING, "Hola Park");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Records what would have reached the email provider, per order. */
+    private static final class RecordingNotifications implements NotificationService {
+        final Map<String, List<String>> sent = new ConcurrentHashMap<>();
+
+        @Override
+        public void sendOrderConfirmation(String email, Order order) {
+            record(order, "CONFIRMATION");
+        }
+
+        @Override
+        public void sendOrderShipped(Order order, String trackingNumber) {
+            record(order, "SHIPPED");
+        }
+
+        @Override
+        public void sendOrderCancelled(Order order) {
+            record(order, "CANCELLED");
+        }
+
+        int calls() {
+            return sent.values().stream().mapToInt(List::size).sum();
+        }
+
+        private void record(Order order, String kind) {
+            sent.computeIfAbsent(order.getOrderId(), id -> new CopyOnWriteArrayList<>()).add(kind);
+        }
+    }
+}
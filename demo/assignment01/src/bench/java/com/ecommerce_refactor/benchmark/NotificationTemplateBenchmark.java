@@ -0,0 +1,75 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+import com.ecommerce_refactor.notification.template.NotificationTemplate;
+import com.ecommerce_refactor.notification.template.NotificationTemplates;
+import com.ecommerce_refactor.notification.template.TemplateKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous concatenation + String.format message building with
+ * the compiled templates, for a confirmation subject and body. Run with -prof gc
+ * to compare bytes allocated per message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotificationTemplateBenchmark {
+
+    private final Order order = new Order("ORD-1700000000000-000042", "customer@example.com",
+            new ArrayList<>(), 1234.5678, OrderStatus.PENDING, "Hola Park");
+    private final String email = order.getCustomerEmail();
+
+    private final NotificationTemplate subject =
+            NotificationTemplates.defaults().get(TemplateKey.CONFIRMATION_SUBJECT);
+    private final NotificationTemplate body =
+            NotificationTemplates.defaults().get(TemplateKey.CONFIRMATION_BODY);
+    private final NotificationTemplate vietnameseBody =
+            NotificationTemplates.forLocale(Locale.forLanguageTag("vi-VN")).get(TemplateKey.CONFIRMATION_BODY);
+    private final StringBuilder reusable = new StringBuilder(256);
+
+    @Benchmark
+    public int concatAndFormat() {
+        String s = "Order Confirmation - " + order.getOrderId();
+        String b = "Thank you for your order! Total: $" + String.format("%.2f", order.getTotal());
+        return s.length() + b.length();
+    }
+
+    @Benchmark
+    public int templateToString() {
+        String s = subject.render(email, order, null);
+        String b = body.render(email, order, null);
+        return s.length() + b.length();
+    }
+
+    @Benchmark
+    public int templateToReusedBuffer() {
+        reusable.setLength(0);
+        subject.renderTo(reusable, email, order, null);
+        body.renderTo(reusable, email, order, null);
+        return reusable.length();
+    }
+
+    @Benchmark
+    public int vietnameseTemplateToReusedBuffer() {
+        reusable.setLength(0);
+        vietnameseBody.renderTo(reusable, email, order, null);
+        return reusable.length();
+    }
+}
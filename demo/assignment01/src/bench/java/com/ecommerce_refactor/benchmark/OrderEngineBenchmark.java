@@ -0,0 +1,159 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.discount.DiscountService;
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.Product;
+import com.ecommerce_refactor.repository.InMemoryOrderRepository;
+import com.ecommerce_refactor.repository.InMemoryProductRepository;
+import com.ecommerce_refactor.service.OrderService;
+import com.ecommerce_refactor.service.OrderServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the order engine: createOrder end to end, discount evaluation,
+ * product and order repository lookups, and stock reserve/release.
+ *
+ * Parameters (override with -p name=v1,v2):
+ * catalog    - number of products in the catalog
+ * items      - products per order for createOrder
+ * strategies - discount strategies registered in the DiscountService
+ *
+ * State is shared by all benchmark threads, so running with -t N measures the
+ * engine under contention. main runs every benchmark at each of {@link #THREAD_COUNTS}
+ * with the GC profiler, reporting bytes allocated per operation and GC counts:
+ * gradle :demo-assignment01:runBench -PbenchMain=OrderEngineBenchmark -PbenchArgs='-p catalog=1000'
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderEngineBenchmark {
+
+    static final int[] THREAD_COUNTS = {1, 4};
+
+    // Orders placed before measuring, so order lookups do not depend on createOrder having run
+    private static final int SEEDED_ORDERS = 1_000;
+
+    @Param({"100", "10000"})
+    int catalog;
+
+    @Param({"1", "10"})
+    int items;
+
+    @Param({"3", "12"})
+    int strategies;
+
+    private List<Product> products;
+    private String[] productIds;
+    private InMemoryProductRepository productRepository;
+    private InMemoryOrderRepository orderRepository;
+    private DiscountService discounts;
+    private OrderService service;
+    private String[] orderIds;
+    private PrintStream console;
+
+    // Rebuilt every iteration so the orders createOrder piles up do not slow the next one down
+    @Setup(Level.Iteration)
+    public void setUp() {
+        console = BenchmarkFixtures.muteConsole();
+        products = BenchmarkFixtures.catalog(catalog);
+        productIds = products.stream().map(Product::getProductId).toArray(String[]::new);
+        productRepository = new InMemoryProductRepository(products);
+        orderRepository = new InMemoryOrderRepository();
+        discounts = BenchmarkFixtures.discountService(strategies);
+        service = new OrderServiceImpl(productRepository, orderRepository, BenchmarkFixtures.instantPayment(),
+                BenchmarkFixtures.silentNotifications(), discounts, BenchmarkFixtures.silentAnalytics());
+
+        for (int i = 0; i < SEEDED_ORDERS; i++) {
+            createOrder();
+        }
+        orderIds = orderRepository.findAll().stream().map(Order::getOrderId).toArray(String[]::new);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public String createOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> ids = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            ids.add(productIds[random.nextInt(catalog)]);
+        }
+        return service.createOrder("bench@example.com", ids, "CREDIT_CARD", "Hola Park");
+    }
+
+    @Benchmark
+    public double discountEvaluation() {
+        return discounts.calculateDiscountedPrice(products.get(ThreadLocalRandom.current().nextInt(catalog)));
+    }
+
+    @Benchmark
+    public Optional<Product> productLookup() {
+        return productRepository.getProductById(productIds[ThreadLocalRandom.current().nextInt(catalog)]);
+    }
+
+    @Benchmark
+    public Order orderLookup() {
+        return orderRepository.findById(orderIds[ThreadLocalRandom.current().nextInt(orderIds.length)]);
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        Product product = products.get(ThreadLocalRandom.current().nextInt(catalog));
+        boolean reserved = product.reserveStock(1);
+        if (reserved) {
+            product.releaseReservedStock(1);
+        }
+        return reserved;
+    }
+
+    /**
+     * Runs the benchmarks once per thread count, or only at the count given with -t.
+     * Other arguments are passed to JMH as they are.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        int[] threadCounts = options.getThreads().hasValue()
+                ? new int[] {options.getThreads().get()}
+                : THREAD_COUNTS;
+        for (int threads : threadCounts) {
+            new Runner(new OptionsBuilder()
+                    .parent(options)
+                    .include(OrderEngineBenchmark.class.getName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build())
+                    .run();
+        }
+    }
+}
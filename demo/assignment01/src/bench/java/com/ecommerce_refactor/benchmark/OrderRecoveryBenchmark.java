@@ -0,0 +1,127 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.OrderItem;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+import com.ecommerce_refactor.repository.eventsourced.EventSourcedOrderRepository;
+import com.ecommerce_refactor.repository.eventsourced.InMemoryOrderEventLog;
+import com.ecommerce_refactor.repository.eventsourced.OrderEventLog;
+import com.ecommerce_refactor.repository.eventsourced.OrderSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long an event-sourced order store takes to recover.
+ *
+ * Compares a full replay with a replay from a snapshot covering 90% of the log,
+ * each projected by orderId partition across {@code partitions} threads.
+ * After every iteration the last recovered store must have the same per-status
+ * counts as the one that wrote the log; the benchmark fails otherwise.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderRecoveryBenchmark {
+
+    private static final int ORDERS = 200_000;
+    private static final double SNAPSHOT_FRACTION = 0.9;
+    private static final int SNAPSHOT_INTERVAL = Integer.MAX_VALUE;
+
+    @Param({"1", "4"})
+    int partitions;
+
+    private OrderEventLog log;
+    private OrderSnapshot snapshot;
+    private long[] expected;
+    private EventSourcedOrderRepository recovered;
+
+    @Setup
+    public void setUp() {
+        log = new InMemoryOrderEventLog();
+        try (EventSourcedOrderRepository writer = new EventSourcedOrderRepository(log, SNAPSHOT_INTERVAL)) {
+            Random random = new Random(42);
+            int beforeSnapshot = (int) (ORDERS * SNAPSHOT_FRACTION);
+            writeOrders(writer, 0, beforeSnapshot, random);
+            snapshot = writer.snapshotNow();
+            writeOrders(writer, beforeSnapshot, ORDERS, random);
+            expected = statusCounts(writer);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        long[] actual = statusCounts(recovered);
+        for (OrderStatus status : OrderStatus.values()) {
+            if (actual[status.ordinal()] != expected[status.ordinal()]) {
+                throw new IllegalStateException("Recovered " + actual[status.ordinal()] + " " + status
+                        + " orders, expected " + expected[status.ordinal()]);
+            }
+        }
+    }
+
+    @Benchmark
+    public EventSourcedOrderRepository fullReplay() {
+        return recover(OrderSnapshot.empty());
+    }
+
+    @Benchmark
+    public EventSourcedOrderRepository snapshotAndTail() {
+        return recover(snapshot);
+    }
+
+    private EventSourcedOrderRepository recover(OrderSnapshot from) {
+        recovered = EventSourcedOrderRepository.recover(log, from, SNAPSHOT_INTERVAL, partitions);
+        recovered.close();
+        return recovered;
+    }
+
+    private static void writeOrders(EventSourcedOrderRepository repository, int from, int to, Random random) {
+        List<OrderItem> items = Collections.singletonList(
+                new OrderItem(1, BenchmarkFixtures.productId(0), 1, 10.0, 10.0));
+        for (int i = from; i < to; i++) {
+            Order order = new Order(String.format("ORD-%08d", i), "customer" + (i % 5_000) + "@example.com",
+                    new ArrayList<>(items), 10.0, OrderStatus.PENDING, "Hola Park");
+            repository.save(order);
+            int roll = random.nextInt(100);
+            if (roll < 15) {
+                order.setStatus(OrderStatus.CANCELLED);
+                repository.save(order);
+            } else if (roll < 75) {
+                order.setStatus(OrderStatus.CONFIRMED);
+                repository.save(order);
+                if (roll < 40) {
+                    order.setStatus(OrderStatus.SHIPPED);
+                    repository.save(order);
+                }
+            }
+        }
+    }
+
+    private static long[] statusCounts(EventSourcedOrderRepository repository) {
+        long[] counts = new long[OrderStatus.values().length];
+        for (OrderStatus status : OrderStatus.values()) {
+            counts[status.ordinal()] = repository.countByStatus(status);
+        }
+        return counts;
+    }
+}
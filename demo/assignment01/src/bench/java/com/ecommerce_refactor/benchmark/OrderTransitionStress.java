@@ -0,0 +1,139 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.discount.DiscountService;
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.Product;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+import com.ecommerce_refactor.repository.InMemoryOrderRepository;
+import com.ecommerce_refactor.repository.InMemoryProductRepository;
+import com.ecommerce_refactor.repository.OrderRepository;
+import com.ecommerce_refactor.repository.ProductRepository;
+import com.ecommerce_refactor.service.OrderService;
+import com.ecommerce_refactor.service.OrderServiceImpl;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Stress test for concurrent order lifecycle transitions.
+ *
+ * Many threads hammer the same small set of orders with conflicting confirm,
+ * cancel and ship calls. Afterwards every product's stock must match the final
+ * order statuses exactly, and each order must have won exactly one terminal
+ * transition. Exits with status 1 if an invariant is violated.
+ */
+public class OrderTransitionStress {
+
+    private static final int CATALOG_SIZE = 8;
+    private static final int ORDERS = 2_000;
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 50_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        List<Product> catalog = BenchmarkFixtures.catalog(CATALOG_SIZE);
+        Map<String, Integer> initialOnHand = StockInvariants.captureOnHand(catalog);
+        ProductRepository products = new InMemoryProductRepository(catalog);
+        OrderRepository orders = new InMemoryOrderRepository();
+        OrderService service = new OrderServiceImpl(products, orders, BenchmarkFixtures.instantPayment(),
+                BenchmarkFixtures.silentNotifications(), new DiscountService(), BenchmarkFixtures.silentAnalytics());
+
+        PrintStream console = BenchmarkFixtures.muteConsole();
+        String[] orderIds = new String[ORDERS];
+        AtomicIntegerArray shipWins = new AtomicIntegerArray(ORDERS);
+        long elapsed;
+        try {
+            for (int i = 0; i < ORDERS; i++) {
+                orderIds[i] = service.createOrder("stress" + i + "@example.com",
+                        Arrays.asList(BenchmarkFixtures.productId(i % CATALOG_SIZE),
+                                BenchmarkFixtures.productId((i * 7 + 3) % CATALOG_SIZE)),
+                        "CREDIT_CARD", "Hola Park");
+            }
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Thread thread = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    awaitQuietly(start);
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        int index = random.nextInt(ORDERS);
+                        String orderId = orderIds[index];
+                        switch (random.nextInt(3)) {
+                            case 0:
+                                service.confirmOrder(orderId);
+                                break;
+                            case 1:
+                                service.cancelOrder(orderId);
+                                break;
+                            default:
+                                if (service.shipOrder(orderId, "TRACK-" + i)) {
+                                    shipWins.incrementAndGet(index);
+                                }
+                                break;
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            elapsed = System.nanoTime() - startNanos;
+        } finally {
+            System.setOut(console);
+        }
+
+        List<String> violations = verify(products, orders, orderIds, initialOnHand, shipWins);
+        long attempts = (long) THREADS * ATTEMPTS_PER_THREAD;
+        System.out.printf("%,d transition attempts on %,d orders by %d threads in %.1f ms (%,.0f ops/s)%n",
+                attempts, ORDERS, THREADS, elapsed / 1e6, attempts * 1e9 / elapsed);
+        Map<OrderStatus, Integer> finalStatuses = new HashMap<>();
+        for (String orderId : orderIds) {
+            finalStatuses.merge(orders.findById(orderId).getStatus(), 1, Integer::sum);
+        }
+        System.out.println("Final statuses: " + finalStatuses);
+
+        if (violations.isEmpty()) {
+            System.out.println("PASS: stock matches order statuses, every order shipped at most once");
+        } else {
+            violations.stream().limit(20).forEach(v -> System.out.println("FAIL: " + v));
+            System.exit(1);
+        }
+    }
+
+    private static List<String> verify(ProductRepository products, OrderRepository orders, String[] orderIds,
+                                       Map<String, Integer> initialOnHand, AtomicIntegerArray shipWins) {
+        List<String> violations = new ArrayList<>();
+        List<Order> placed = new ArrayList<>(orderIds.length);
+        for (int i = 0; i < orderIds.length; i++) {
+            Order order = orders.findById(orderIds[i]);
+            placed.add(order);
+            int shipped = shipWins.get(i);
+            if (shipped > 1 || (shipped == 1) != (order.getStatus() == OrderStatus.SHIPPED)) {
+                violations.add(order.getOrderId() + " won " + shipped + " ship transitions, final status "
+                        + order.getStatus());
+            }
+        }
+        violations.addAll(StockInvariants.verify(products, placed, initialOnHand));
+        return violations;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
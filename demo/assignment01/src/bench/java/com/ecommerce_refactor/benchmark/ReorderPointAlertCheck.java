@@ -0,0 +1,44 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.inventory.LowStockAlertService;
+import com.ecommerce_refactor.inventory.StockAlert;
+import com.ecommerce_refactor.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that crossings caused by moving the reorder point are alerted like those
+ * caused by stock writes.
+ *
+ * A reserve takes a product below its reorder point; lowering the point then puts it
+ * back above without any stock write, and raising it puts it below again. Each of the
+ * three is a crossing, and none may be dropped as a duplicate of the one before.
+ *
+ * Exits with status 1 if the alerts differ from that.
+ */
+public class ReorderPointAlertCheck {
+
+    public static void main(String[] args) {
+        Product product = BenchmarkFixtures.catalog(1).get(0);
+        product.setOnHandStock(100);
+        List<StockAlert.Type> received = new ArrayList<>();
+
+        try (LowStockAlertService alerts = new LowStockAlertService(Runnable::run)) {
+            alerts.subscribe(alert -> received.add(alert.getType()));
+            alerts.watch(product, 50);
+            product.reserveStock(60);      // Available 40, below 50
+            product.setReorderPoint(30);   // 40 is no longer below
+            product.setReorderPoint(50);   // ... and now is again
+
+            List<StockAlert.Type> expected = List.of(
+                    StockAlert.Type.LOW_STOCK, StockAlert.Type.RECOVERED, StockAlert.Type.LOW_STOCK);
+            System.out.println("Alerts: " + received + ", dropped " + alerts.getDroppedCount());
+            if (!received.equals(expected) || alerts.getDroppedCount() != 0) {
+                System.out.println("FAIL: expected " + expected + " with none dropped");
+                System.exit(1);
+            }
+        }
+        System.out.println("PASS");
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.inventory.LowStockAlertService;
+import com.ecommerce_refactor.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what reorder point checks add to the stock mutation path.
+ *
+ * Compares reserve + release on an unwatched product, on a watched product that
+ * never crosses its reorder point, and on one whose every reserve crosses it and
+ * every release crosses back (the worst case, two alerts per operation).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReorderPointBenchmark {
+
+    private Product unwatched;
+    private Product quiet;
+    private Product crossing;
+    private LowStockAlertService alerts;
+
+    @Setup
+    public void setUp() {
+        List<Product> catalog = BenchmarkFixtures.catalog(3);
+        unwatched = catalog.get(0);
+        quiet = catalog.get(1);
+        crossing = catalog.get(2);
+
+        alerts = new LowStockAlertService(Runnable::run);
+        alerts.watch(quiet, 10);
+        alerts.watch(crossing, crossing.getAvailableStock());
+    }
+
+    @TearDown
+    public void tearDown() {
+        alerts.close();
+    }
+
+    @Benchmark
+    public boolean noReorderPoint() {
+        return reserveAndRelease(unwatched);
+    }
+
+    @Benchmark
+    public boolean neverCrossing() {
+        return reserveAndRelease(quiet);
+    }
+
+    @Benchmark
+    public boolean crossingEachTime() {
+        return reserveAndRelease(crossing);
+    }
+
+    private static boolean reserveAndRelease(Product product) {
+        boolean reserved = product.reserveStock(1);
+        product.releaseReservedStock(1);
+        return reserved;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.OrderItem;
+import com.ecommerce_refactor.model.Product;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+import com.ecommerce_refactor.repository.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that product stock agrees with the orders placed against it.
+ *
+ * For every product: reserved stock equals the quantity in PENDING orders, and
+ * on-hand stock equals the initial on-hand minus the quantity in CONFIRMED and
+ * SHIPPED orders. Cancelled orders must have given back everything.
+ */
+public final class StockInvariants {
+
+    private StockInvariants() {
+    }
+
+    /**
+     * @return On-hand stock per product ID, to pass to {@link #verify} later
+     */
+    public static Map<String, Integer> captureOnHand(Collection<Product> products) {
+        Map<String, Integer> onHand = new HashMap<>();
+        for (Product product : products) {
+            onHand.put(product.getProductId(), product.getOnHandStock());
+        }
+        return onHand;
+    }
+
+    /**
+     * @param products The products the orders were placed against
+     * @param orders Every order placed since initialOnHand was captured
+     * @param initialOnHand On-hand stock per product before any order
+     * @return A description of each violation, empty if stock is consistent
+     */
+    public static List<String> verify(ProductRepository products, Collection<Order> orders,
+                                      Map<String, Integer> initialOnHand) {
+        Map<String, Integer> expectedReserved = new HashMap<>();
+        Map<String, Integer> expectedCommitted = new HashMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                if (order.getStatus() == OrderStatus.PENDING) {
+                    expectedReserved.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                } else if (order.getStatus() == OrderStatus.CONFIRMED || order.getStatus() == OrderStatus.SHIPPED) {
+                    expectedCommitted.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                }
+            }
+        }
+
+        List<String> violations = new ArrayList<>();
+        for (Product product : products.getAllProducts()) {
+            String id = product.getProductId();
+            int reserved = expectedReserved.getOrDefault(id, 0);
+            int onHand = initialOnHand.get(id) - expectedCommitted.getOrDefault(id, 0);
+            if (product.getReservedStock() != reserved || product.getOnHandStock() != onHand) {
+                violations.add(id + " on-hand " + product.getOnHandStock() + " (expected " + onHand
+                        + "), reserved " + product.getReservedStock() + " (expected " + reserved + ")");
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecommerce_refactor.benchmark;
+
+import com.ecommerce_refactor.analytics.AnalyticsSnapshot;
+import com.ecommerce_refactor.analytics.MetricTotals;
+import com.ecommerce_refactor.analytics.StreamingAnalyticsService;
+import com.ecommerce_refactor.discount.DiscountService;
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+import com.ecommerce_refactor.repository.InMemoryOrderRepository;
+import com.ecommerce_refactor.repository.InMemoryProductRepository;
+import com.ecommerce_refactor.service.OrderService;
+import com.ecommerce_refactor.service.OrderServiceImpl;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks StreamingAnalyticsService against known input.
+ *
+ * 1. Right after startup the orders-per-minute rate is taken over the time
+ *    elapsed, not the whole window, and orders leave the window once it has passed.
+ * 2. Many threads record orders at once; counts and revenue must be exact, and the
+ *    unique-customer estimate within a few percent.
+ * 3. Orders placed through OrderServiceImpl reach the aggregator, status changes included.
+ *
+ * Exits with status 1 if any check fails.
+ */
+public class StreamingAnalyticsCheck {
+
+    private static final long MINUTE = 60_000;
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 50_000;
+    private static final int CUSTOMERS = 20_000;
+    private static final double MAX_UNIQUE_ERROR = 0.05;
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> failures = new ArrayList<>();
+        checkRateAndExpiry(failures);
+        checkConcurrentTotals(failures);
+        checkOrderServiceWiring(failures);
+
+        if (failures.isEmpty()) {
+            System.out.println("PASS");
+        } else {
+            failures.forEach(f -> System.out.println("FAIL: " + f));
+            System.exit(1);
+        }
+    }
+
+    private static void checkRateAndExpiry(List<String> failures) {
+        AtomicLong clock = new AtomicLong(7 * MINUTE + 12_345);
+        StreamingAnalyticsService analytics = new StreamingAnalyticsService(MINUTE, 60, clock::get);
+
+        // 30 orders over the first 30 seconds is 60 a minute, however long the window is
+        for (int i = 0; i < 30; i++) {
+            clock.addAndGet(1_000);
+            analytics.trackOrderCreated(order("ORD-" + i, "early" + i + "@example.com", 10.0), "CRYPTO");
+        }
+        AnalyticsSnapshot early = analytics.snapshot();
+        System.out.println("30 s after startup: " + early);
+        expect(failures, "orders per minute 30 s after startup", 60.0, early.getOrdersPerMinute());
+
+        clock.addAndGet(90 * MINUTE);
+        AnalyticsSnapshot later = analytics.snapshot();
+        expect(failures, "orders left once the window has passed", 0, later.getCreated().getCount());
+        if (later.getCoveredMillis() != later.getWindowMillis() - MINUTE + clock.get() % MINUTE) {
+            failures.add("window covers " + later.getCoveredMillis() + " ms once full");
+        }
+    }
+
+    private static void checkConcurrentTotals(List<String> failures) throws InterruptedException {
+        StreamingAnalyticsService analytics = new StreamingAnalyticsService();
+        String[] methods = {"CREDIT_CARD", "PAYPAL", "CRYPTO"};
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    int n = thread * ORDERS_PER_THREAD + i;
+                    Order order = order("ORD-" + n, "customer" + n % CUSTOMERS + "@example.com", 12.34);
+                    analytics.trackOrderCreated(order, methods[n % methods.length]);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        AnalyticsSnapshot snapshot = analytics.snapshot();
+        long orders = (long) THREADS * ORDERS_PER_THREAD;
+        System.out.println(orders + " orders from " + THREADS + " threads: " + snapshot.getCreated()
+                + ", ~" + snapshot.getUniqueCustomers() + " of " + CUSTOMERS + " customers");
+        expect(failures, "orders counted", orders, snapshot.getCreated().getCount());
+        expect(failures, "revenue", orders * 1234 / 100.0, snapshot.getCreated().getRevenue());
+        for (int m = 0; m < methods.length; m++) {
+            // Order n used method n % 3
+            long expected = (orders + methods.length - 1 - m) / methods.length;
+            expect(failures, methods[m] + " orders", expected,
+                    snapshot.getByPaymentMethod().get(methods[m]).getCount());
+        }
+        double error = Math.abs(snapshot.getUniqueCustomers() - CUSTOMERS) / (double) CUSTOMERS;
+        if (error > MAX_UNIQUE_ERROR) {
+            failures.add("unique customers estimated at " + snapshot.getUniqueCustomers() + ", actual " + CUSTOMERS);
+        }
+    }
+
+    private static void checkOrderServiceWiring(List<String> failures) {
+        StreamingAnalyticsService analytics = new StreamingAnalyticsService();
+        OrderService service = new OrderServiceImpl(
+                new InMemoryProductRepository(BenchmarkFixtures.catalog(4)), new InMemoryOrderRepository(),
+                BenchmarkFixtures.instantPayment(), BenchmarkFixtures.silentNotifications(), new DiscountService(),
+                analytics);
+        PrintStream console = BenchmarkFixtures.muteConsole();
+        try {
+            for (int i = 0; i < 10; i++) {
+                String orderId = service.createOrder("wired" + i + "@example.com",
+                        Arrays.asList(BenchmarkFixtures.productId(i % 4)), "PAYPAL", "Hola Park");
+                service.confirmOrder(orderId);
+            }
+        } finally {
+            System.setOut(console);
+        }
+        AnalyticsSnapshot snapshot = analytics.snapshot();
+        System.out.println("Through OrderServiceImpl: " + snapshot);
+        expect(failures, "orders reported by OrderServiceImpl", 10, snapshot.getCreated().getCount());
+        MetricTotals confirmed = snapshot.getByStatus().get(OrderStatus.CONFIRMED);
+        expect(failures, "confirmations reported by OrderServiceImpl", 10, confirmed == null ? 0 : confirmed.getCount());
+    }
+
+    private static Order order(String orderId, String email, double total) {
+        return new Order(orderId, email, new ArrayList<>(), total, OrderStatus.PENDING, "Hola Park");
+    }
+
+    private static void expect(List<String> failures, String what, double expected, double actual) {
+        if (Math.abs(expected - actual) > 1e-6) {
+            failures.add(what + ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce_refactor.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipfian distribution over ranks 0..n-1: rank k is drawn with probability
+ * proportional to 1 / (k + 1)^exponent, so a few ranks take most draws.
+ * Sampling is a binary search over the precomputed cumulative distribution.
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    /**
+     * @param n Number of ranks
+     * @param exponent Skew; 0 is uniform, around 1 is typical of product popularity
+     */
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    /**
+     * @return A rank in [0, n), rank 0 being the most likely
+     */
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
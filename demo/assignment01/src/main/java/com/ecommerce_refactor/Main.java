@@ -1,10 +1,19 @@
 package com.ecommerce_refactor;
 
+import com.ecommerce_refactor.analytics.StreamingAnalyticsService;
 import com.ecommerce_refactor.discount.BlackFridayDiscountStrategy;
 import com.ecommerce_refactor.discount.DiscountService;
+import com.ecommerce_refactor.inventory.InventorySnapshot;
+import com.ecommerce_refactor.inventory.LowStockAlertService;
+import com.ecommerce_refactor.inventory.StockChange;
+import com.ecommerce_refactor.model.OrderPage;
+import com.ecommerce_refactor.model.OrderQuery;
+import com.ecommerce_refactor.model.OrderSummary;
 import com.ecommerce_refactor.model.Product;
+import com.ecommerce_refactor.model.StockLevel;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+import com.ecommerce_refactor.notification.CoalescingNotificationService;
 import com.ecommerce_refactor.notification.ConsoleNotificationService;
-import com.ecommerce_refactor.notification.NotificationService;
 import com.ecommerce_refactor.payment.CryptoProcessor;
 import com.ecommerce_refactor.payment.PayPalProcessor;
 import com.ecommerce_refactor.payment.PaymentProcessor;
@@ -34,15 +43,28 @@ public class Main {
         
         // Initialize repositories
         ProductRepository productRepository = new InMemoryProductRepository();
-        OrderRepository orderRepository = new InMemoryOrderRepository();
+        InMemoryOrderRepository orderStore = new InMemoryOrderRepository();
+        OrderRepository orderRepository = orderStore;
         
-        // Initialize notification service
-        NotificationService notificationService = new ConsoleNotificationService();
+        // Initialize notification service. Notifications for the same order within 2 seconds are
+        // merged, so create -> confirm -> ship sends one email instead of three.
+        CoalescingNotificationService notificationService = new CoalescingNotificationService(
+                new ConsoleNotificationService(), 2_000, 10_000);
+        
+        // Every order service reports to one aggregator, summarised at the end
+        StreamingAnalyticsService analyticsService = new StreamingAnalyticsService();
         
         System.out.println("\n" + "=".repeat(80));
         System.out.println("INITIAL PRODUCT INVENTORY");
         System.out.println("=".repeat(80));
         displayInventory(productRepository);
+        InventorySnapshot initialInventory = InventorySnapshot.capture(productRepository);
+        
+        // Alert when available stock drops below 49 (low so the demo orders trigger it).
+        // Delivered on the ordering thread so alerts print in sequence with the scenario output.
+        LowStockAlertService stockAlerts = new LowStockAlertService(Runnable::run);
+        stockAlerts.subscribe(alert -> System.out.println("[ALERT] " + alert));
+        stockAlerts.watchAll(productRepository, 49);
         
         // Test Scenario 1: Regular discounts with Crypto payment
         System.out.println("\n" + "=".repeat(80));
@@ -57,7 +79,8 @@ public class Main {
             orderRepository, 
             cryptoProcessor, 
             notificationService, 
-            regularDiscountService
+            regularDiscountService,
+            analyticsService
         );
         
         String order1Id = orderService1.createOrder(
@@ -74,6 +97,8 @@ public class Main {
             System.out.println("\n✗ Order 1 Failed");
         }
         
+        notificationService.flush(); // Deliver what this scenario coalesced before the next one starts
+        
         // Test Scenario 2: Black Friday discount with PayPal payment
         System.out.println("\n" + "=".repeat(80));
         System.out.println("SCENARIO 2: Black Friday Sale (20% off everything!)");
@@ -88,7 +113,8 @@ public class Main {
             orderRepository, 
             paypalProcessor, 
             notificationService, 
-            blackFridayDiscountService
+            blackFridayDiscountService,
+            analyticsService
         );
         
         String order2Id = orderService2.createOrder(
@@ -105,6 +131,8 @@ public class Main {
             System.out.println("\n✗ Order 2 Failed");
         }
         
+        notificationService.flush();
+        
         // Test Scenario 3: Order lifecycle - Create, Confirm, Cancel
         System.out.println("\n" + "=".repeat(80));
         System.out.println("SCENARIO 3: Order Lifecycle Test (Create -> Confirm -> Cancel)");
@@ -117,7 +145,8 @@ public class Main {
             orderRepository, 
             cryptoProcessor, 
             notificationService, 
-            regularDiscountService
+            regularDiscountService,
+            analyticsService
         );
         
         System.out.println("\n--- Step 1: Create Order (Stock Reserved) ---");
@@ -149,6 +178,8 @@ public class Main {
             System.out.println("\n✗ Order 3 Failed");
         }
         
+        notificationService.flush();
+        
         // Test Scenario 4: Cancel PENDING order (release reserved stock)
         System.out.println("\n" + "=".repeat(80));
         System.out.println("SCENARIO 4: Cancel PENDING Order (Release Reserved Stock)");
@@ -176,6 +207,8 @@ public class Main {
             System.out.println("\n✗ Order 4 Failed");
         }
         
+        notificationService.flush();
+        
         // Test Scenario 5: Ship an order
         if (order1Id != null) {
             System.out.println("\n" + "=".repeat(80));
@@ -188,6 +221,8 @@ public class Main {
             }
         }
         
+        notificationService.flush();
+        
         // Test Scenario 6: Try to cancel a shipped order (should fail)
         if (order1Id != null) {
             System.out.println("\n" + "=".repeat(80));
@@ -205,6 +240,8 @@ public class Main {
             displayInventory(productRepository);
         }
         
+        notificationService.flush();
+        
         // Test Scenario 7: Complete order lifecycle with shipping and cancellation attempt
         System.out.println("\n" + "=".repeat(80));
         System.out.println("SCENARIO 7: Full Lifecycle - Create -> Confirm -> Ship -> Cancel Attempt");
@@ -216,7 +253,8 @@ public class Main {
             orderRepository, 
             paypalProcessor, 
             notificationService, 
-            regularDiscountService
+            regularDiscountService,
+            analyticsService
         );
         
         System.out.println("\n--- Step 1: Create Order ---");
@@ -257,14 +295,32 @@ public class Main {
             System.out.println("\n✗ Order 7 Failed");
         }
         
+        notificationService.flush();
+        
         // Display all orders
         System.out.println("\n" + "=".repeat(80));
         System.out.println("ALL ORDERS SUMMARY");
         System.out.println("=".repeat(80));
-        List<String> allOrders = orderService1.getAllOrders();
-        for (String orderSummary : allOrders) {
-            System.out.println(orderSummary);
+        OrderQuery query = OrderQuery.all();
+        OrderPage page;
+        do {
+            page = orderService1.listOrders(query);
+            for (OrderSummary summary : page.getOrders()) {
+                System.out.printf("Order: %s - Status: %s - Total: $%.2f%n",
+                                  summary.getOrderId(), summary.getStatus(), summary.getTotal());
+            }
+            query = query.after(page.getNextCursor());
+        } while (page.hasNext());
+        
+        System.out.println("\nOrders by status:");
+        for (OrderStatus status : OrderStatus.values()) {
+            System.out.printf("  %-10s %d%n", status, orderRepository.countByStatus(status));
         }
+        System.out.println("[LOG] Order indexes: " + orderStore.getIndexStats());
+        notificationService.close();
+        System.out.println("[LOG] Notifications: " + notificationService.getDeliveredCount() + " sent, "
+                + notificationService.getSuppressedCount() + " merged into a later one");
+        System.out.println("[LOG] Analytics: " + analyticsService.snapshot());
         
         // Final inventory
         System.out.println("\n" + "=".repeat(80));
@@ -272,6 +328,11 @@ public class Main {
         System.out.println("=".repeat(80));
         displayInventory(productRepository);
         
+        System.out.println("\nStock changes since initial inventory:");
+        for (StockChange change : initialInventory.diff(InventorySnapshot.capture(productRepository))) {
+            System.out.println("  " + change);
+        }
+        
         // Summary of SOLID principles demonstrated
         System.out.println("\n" + "=".repeat(80));
         System.out.println("SOLID PRINCIPLES DEMONSTRATED");
@@ -306,18 +367,23 @@ public class Main {
                          "Product ID", "Name", "Price", "Category", "On-Hand", "Reserved", "Available");
         System.out.println("-".repeat(95));
         
+        // Stock figures come from one consistent snapshot rather than field-by-field reads
+        InventorySnapshot snapshot = InventorySnapshot.capture(productRepository);
         List<Product> products = productRepository.getAllProducts();
         for (Product product : products) {
+            StockLevel stock = snapshot.get(product.getProductId());
+            if (stock == null) {
+                continue;
+            }
             System.out.printf("%-12s %-20s $%-11.2f %-15s %-10d %-10d %-10d%n",
                             product.getProductId(),
                             product.getName(),
                             product.getPrice(),
                             product.getCategory(),
-                            product.getOnHandStock(),
-                            product.getReservedStock(),
-                            product.getAvailableStock());
+                            stock.getOnHandStock(),
+                            stock.getReservedStock(),
+                            stock.getAvailableStock());
         }
         System.out.println("-".repeat(95));
     }
 }
-
@@ -0,0 +1,25 @@
+package com.ecommerce_refactor.analytics;
+
+import com.ecommerce_refactor.model.Order;
+
+/**
+ * Receives order events for analytics.
+ * Keeps metric collection out of the order workflow (Single Responsibility).
+ */
+public interface AnalyticsService {
+
+    /**
+     * Records a newly created order.
+     *
+     * @param order The created order
+     * @param paymentMethod Payment method used for the order
+     */
+    void trackOrderCreated(Order order, String paymentMethod);
+
+    /**
+     * Records that an order has moved to its current status.
+     *
+     * @param order The order after the status change
+     */
+    void trackStatusChange(Order order);
+}
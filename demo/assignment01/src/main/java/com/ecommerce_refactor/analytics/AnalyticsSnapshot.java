@@ -0,0 +1,74 @@
+package com.ecommerce_refactor.analytics;
+
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Point-in-time view of the metrics over the aggregator's rolling window.
+ */
+public final class AnalyticsSnapshot {
+    private final long windowMillis;
+    private final long coveredMillis;
+    private final MetricTotals created;
+    private final Map<String, MetricTotals> byPaymentMethod;
+    private final Map<OrderStatus, MetricTotals> byStatus;
+    private final long uniqueCustomers;
+
+    AnalyticsSnapshot(long windowMillis, long coveredMillis, MetricTotals created, Map<String, MetricTotals> byPaymentMethod,
+                      Map<OrderStatus, MetricTotals> byStatus, long uniqueCustomers) {
+        this.windowMillis = windowMillis;
+        this.coveredMillis = coveredMillis;
+        this.created = created;
+        this.byPaymentMethod = Collections.unmodifiableMap(byPaymentMethod);
+        this.byStatus = Collections.unmodifiableMap(byStatus);
+        this.uniqueCustomers = uniqueCustomers;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Time the metrics actually span: the time since startup until the window has
+     * filled, then the window, including the part of the current bucket elapsed so far.
+     */
+    public long getCoveredMillis() {
+        return coveredMillis;
+    }
+
+    /** Orders created in the window and their revenue. */
+    public MetricTotals getCreated() {
+        return created;
+    }
+
+    /** Orders created in the window, grouped by payment method. */
+    public Map<String, MetricTotals> getByPaymentMethod() {
+        return byPaymentMethod;
+    }
+
+    /** Status changes in the window, grouped by the new status. */
+    public Map<OrderStatus, MetricTotals> getByStatus() {
+        return byStatus;
+    }
+
+    /** Approximate number of distinct customers who ordered in the window. */
+    public long getUniqueCustomers() {
+        return uniqueCustomers;
+    }
+
+    /** Orders created per minute over the time covered, so the rate is right from startup. */
+    public double getOrdersPerMinute() {
+        return coveredMillis == 0 ? 0 : created.getCount() * 60_000.0 / coveredMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "AnalyticsSnapshot{window=" + windowMillis + "ms, covered=" + coveredMillis
+                + "ms, created=" + created
+                + ", ordersPerMinute=" + String.format("%.1f", getOrdersPerMinute())
+                + ", uniqueCustomers~" + uniqueCustomers
+                + ", byPaymentMethod=" + byPaymentMethod + ", byStatus=" + byStatus + "}";
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce_refactor.analytics;
+
+import com.ecommerce_refactor.model.Order;
+
+/**
+ * Analytics that just writes each new order to the console.
+ */
+public class ConsoleAnalyticsService implements AnalyticsService {
+
+    @Override
+    public void trackOrderCreated(Order order, String paymentMethod) {
+        System.out.println("[ANALYTICS] New order: $" + String.format("%.2f", order.getTotal())
+                         + " via " + paymentMethod);
+    }
+
+    @Override
+    public void trackStatusChange(Order order) {
+        // Status changes are not reported on the console
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce_refactor.analytics;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free HyperLogLog sketch for approximate distinct counts.
+ *
+ * Registers are 8-bit values packed four to an int and updated with CAS, so
+ * concurrent writers never block. With precision p the sketch uses 2^p bytes
+ * and has a standard error of about 1.04 / sqrt(2^p).
+ */
+public final class HyperLogLog {
+
+    private final int precision;
+    private final int registerCount;
+    private final AtomicIntegerArray registers;
+
+    /**
+     * @param precision Number of index bits, between 4 and 16
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("precision must be between 4 and 16: " + precision);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.registers = new AtomicIntegerArray(registerCount / 4);
+    }
+
+    public void add(String value) {
+        long hash = hash64(value);
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+
+        int slot = index >>> 2;
+        int shift = (index & 3) << 3;
+        while (true) {
+            int current = registers.get(slot);
+            if (((current >>> shift) & 0xFF) >= rank) {
+                return;
+            }
+            int updated = (current & ~(0xFF << shift)) | (rank << shift);
+            if (registers.compareAndSet(slot, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes the register-wise maximum of this sketch into the given array,
+     * which is how sketches are merged.
+     */
+    void mergeInto(byte[] target) {
+        for (int slot = 0; slot < registers.length(); slot++) {
+            int packed = registers.get(slot);
+            for (int i = 0; i < 4; i++) {
+                int value = (packed >>> (i << 3)) & 0xFF;
+                int index = (slot << 2) + i;
+                if (value > target[index]) {
+                    target[index] = (byte) value;
+                }
+            }
+        }
+    }
+
+    public long estimate() {
+        byte[] snapshot = new byte[registerCount];
+        mergeInto(snapshot);
+        return estimate(snapshot);
+    }
+
+    int getRegisterCount() {
+        return registerCount;
+    }
+
+    static long estimate(byte[] registers) {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double raw = alpha * m * m / sum;
+        if (raw <= 2.5 * m && zeros > 0) {
+            // Small-range correction: linear counting
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    // FNV-1a over the chars, finished with the MurmurHash3 64-bit mixer
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce_refactor.analytics;
+
+/**
+ * Order count and revenue for one group in an analytics snapshot.
+ */
+public final class MetricTotals {
+    private final long count;
+    private final double revenue;
+
+    public MetricTotals(long count, double revenue) {
+        this.count = count;
+        this.revenue = revenue;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d orders, $%.2f", count, revenue);
+    }
+}
@@ -0,0 +1,177 @@
+package com.ecommerce_refactor.analytics;
+
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process streaming aggregator for order events.
+ *
+ * Time is split into fixed-size buckets kept in a ring; the rolling window is
+ * the last bucketCount buckets. Writers only add to LongAdder counters and a
+ * CAS-based HyperLogLog in the current bucket, so ingestion is lock-free.
+ * A bucket that has fallen out of the window is replaced (by CAS) the next
+ * time its slot comes round. No raw events are stored.
+ *
+ * Revenue is accumulated in cents to avoid floating-point drift.
+ */
+public class StreamingAnalyticsService implements AnalyticsService {
+
+    private static final int HLL_PRECISION = 12; // 4 KB per bucket, ~1.6% error
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final LongSupplier clock;
+    private final long startedMillis;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /**
+     * Creates an aggregator with a one-hour window of one-minute buckets.
+     */
+    public StreamingAnalyticsService() {
+        this(60_000, 60, System::currentTimeMillis);
+    }
+
+    /**
+     * @param bucketMillis Width of one bucket
+     * @param bucketCount Buckets in the rolling window
+     * @param clock Source of the current time in milliseconds
+     */
+    public StreamingAnalyticsService(long bucketMillis, int bucketCount, LongSupplier clock) {
+        if (bucketMillis <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("bucketMillis and bucketCount must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = bucketCount;
+        this.clock = clock;
+        this.startedMillis = clock.getAsLong();
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    @Override
+    public void trackOrderCreated(Order order, String paymentMethod) {
+        Bucket bucket = currentBucket();
+        long cents = toCents(order.getTotal());
+        bucket.created.add(cents);
+        bucket.byPaymentMethod.computeIfAbsent(paymentMethod, key -> new Counter()).add(cents);
+        bucket.byStatus[order.getStatus().ordinal()].add(cents);
+        bucket.customers.add(order.getCustomerEmail());
+    }
+
+    @Override
+    public void trackStatusChange(Order order) {
+        currentBucket().byStatus[order.getStatus().ordinal()].add(toCents(order.getTotal()));
+    }
+
+    /**
+     * Sums the buckets still inside the rolling window.
+     * Cost depends on the number of buckets and groups, not on the event count.
+     */
+    public AnalyticsSnapshot snapshot() {
+        long now = clock.getAsLong();
+        long currentEpoch = now / bucketMillis;
+        long oldestEpoch = currentEpoch - bucketCount + 1;
+
+        long createdCount = 0;
+        long createdCents = 0;
+        Map<String, long[]> paymentTotals = new HashMap<>();
+        long[][] statusTotals = new long[OrderStatus.values().length][2];
+        byte[] registers = null;
+
+        for (int i = 0; i < bucketCount; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket == null || bucket.epoch < oldestEpoch || bucket.epoch > currentEpoch) {
+                continue;
+            }
+            createdCount += bucket.created.count.sum();
+            createdCents += bucket.created.cents.sum();
+            for (Map.Entry<String, Counter> entry : bucket.byPaymentMethod.entrySet()) {
+                long[] totals = paymentTotals.computeIfAbsent(entry.getKey(), key -> new long[2]);
+                totals[0] += entry.getValue().count.sum();
+                totals[1] += entry.getValue().cents.sum();
+            }
+            for (int s = 0; s < statusTotals.length; s++) {
+                statusTotals[s][0] += bucket.byStatus[s].count.sum();
+                statusTotals[s][1] += bucket.byStatus[s].cents.sum();
+            }
+            if (registers == null) {
+                registers = new byte[bucket.customers.getRegisterCount()];
+            }
+            bucket.customers.mergeInto(registers);
+        }
+
+        Map<String, MetricTotals> byPaymentMethod = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : paymentTotals.entrySet()) {
+            byPaymentMethod.put(entry.getKey(), totals(entry.getValue()[0], entry.getValue()[1]));
+        }
+        Map<OrderStatus, MetricTotals> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            long[] totals = statusTotals[status.ordinal()];
+            if (totals[0] > 0) {
+                byStatus.put(status, totals(totals[0], totals[1]));
+            }
+        }
+
+        // Until the window has filled, the buckets only hold what arrived since startup
+        long coveredMillis = Math.min(now - startedMillis, now - oldestEpoch * bucketMillis);
+        return new AnalyticsSnapshot(bucketMillis * bucketCount, Math.max(coveredMillis, 1),
+                totals(createdCount, createdCents),
+                byPaymentMethod, byStatus, registers == null ? 0 : HyperLogLog.estimate(registers));
+    }
+
+    private Bucket currentBucket() {
+        long epoch = clock.getAsLong() / bucketMillis;
+        int index = (int) Math.floorMod(epoch, (long) bucketCount);
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.epoch >= epoch) {
+                // Current bucket, or a newer one if this thread's clock read is stale
+                return bucket;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    private static MetricTotals totals(long count, long cents) {
+        return new MetricTotals(count, cents / 100.0);
+    }
+
+    private static final class Counter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder cents = new LongAdder();
+
+        void add(long amountCents) {
+            count.increment();
+            cents.add(amountCents);
+        }
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final Counter created = new Counter();
+        private final Map<String, Counter> byPaymentMethod = new ConcurrentHashMap<>();
+        private final Counter[] byStatus = new Counter[OrderStatus.values().length];
+        private final HyperLogLog customers = new HyperLogLog(HLL_PRECISION);
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+            for (int i = 0; i < byStatus.length; i++) {
+                byStatus[i] = new Counter();
+            }
+        }
+    }
+}
@@ -3,7 +3,10 @@ package com.ecommerce_refactor.discount;
 import com.ecommerce_refactor.model.Product;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service class that manages and applies discount strategies.
@@ -62,6 +65,21 @@ public class DiscountService {
         return originalPrice;
     }
     
+    /**
+     * Calculates discounted prices for many products at once.
+     * Each distinct product is priced once, however often it appears.
+     * 
+     * @param products The products to price
+     * @return Discounted price keyed by product ID
+     */
+    public Map<String, Double> calculateDiscountedPrices(Collection<Product> products) {
+        Map<String, Double> prices = new HashMap<>();
+        for (Product product : products) {
+            prices.computeIfAbsent(product.getProductId(), id -> calculateDiscountedPrice(product));
+        }
+        return prices;
+    }
+    
     /**
      * Adds a new discount strategy to the service.
      * Useful for runtime configuration or promotional periods.
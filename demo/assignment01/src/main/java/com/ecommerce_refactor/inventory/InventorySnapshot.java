@@ -0,0 +1,139 @@
+package com.ecommerce_refactor.inventory;
+
+import com.ecommerce_refactor.model.Product;
+import com.ecommerce_refactor.model.StockLevel;
+import com.ecommerce_refactor.repository.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Point-in-time view of every product's stock, captured without blocking writers.
+ *
+ * Capture closes the current snapshot epoch, then asks each product for its figures
+ * as of that epoch. Each product validates its own read against its seqlock version
+ * and retries only that read if a write overlapped it, so writers on other products
+ * never force a restart. A product keeps its figures for the closed epoch however
+ * often it is written afterwards; they are lost only if other captures close further
+ * epochs meanwhile, and then the capture starts over. After {@link #MAX_ATTEMPTS}
+ * tries it settles for each product's latest figures, and {@link #isPointInTime()}
+ * reports false.
+ *
+ * Usage for incremental dashboards:
+ * InventorySnapshot previous = InventorySnapshot.capture(repository);
+ * ... later ...
+ * InventorySnapshot current = InventorySnapshot.capture(repository);
+ * for (StockChange change : previous.diff(current)) { ... }
+ */
+public final class InventorySnapshot {
+
+    public static final int MAX_ATTEMPTS = 8;
+
+    private final long epoch;
+    private final long capturedAtMillis;
+    private final boolean pointInTime;
+    private final Map<String, StockLevel> levels;
+
+    private InventorySnapshot(long epoch, boolean pointInTime, Map<String, StockLevel> levels) {
+        this.epoch = epoch;
+        this.capturedAtMillis = System.currentTimeMillis();
+        this.pointInTime = pointInTime;
+        this.levels = Collections.unmodifiableMap(levels);
+    }
+
+    /**
+     * Captures the stock of every product in the repository.
+     */
+    public static InventorySnapshot capture(ProductRepository productRepository) {
+        List<Product> products = productRepository.getAllProducts();
+        long epoch = 0;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            epoch = Product.closeStockEpoch();
+            Map<String, StockLevel> levels = new LinkedHashMap<>();
+            boolean complete = true;
+            for (Product product : products) {
+                StockLevel level = product.stockLevelAsOf(epoch);
+                if (level == null) {
+                    complete = false;
+                    break;
+                }
+                levels.put(product.getProductId(), level);
+            }
+            if (complete) {
+                return new InventorySnapshot(epoch, true, levels);
+            }
+        }
+
+        Map<String, StockLevel> levels = new LinkedHashMap<>();
+        for (Product product : products) {
+            levels.put(product.getProductId(), product.getStockLevel());
+        }
+        return new InventorySnapshot(epoch, false, levels);
+    }
+
+    /**
+     * Lists the products whose stock differs between this snapshot and a newer one.
+     * Products whose stock version is unchanged are skipped without comparing figures.
+     *
+     * @param newer A snapshot taken after this one
+     * @return One change per added, removed or changed product
+     */
+    public List<StockChange> diff(InventorySnapshot newer) {
+        List<StockChange> changes = new ArrayList<>();
+        for (Map.Entry<String, StockLevel> entry : newer.levels.entrySet()) {
+            StockLevel before = levels.get(entry.getKey());
+            StockLevel after = entry.getValue();
+            if (before == null) {
+                changes.add(new StockChange(entry.getKey(), null, after));
+            } else if (before.getSequence() != after.getSequence()
+                    && (before.getOnHandStock() != after.getOnHandStock()
+                        || before.getReservedStock() != after.getReservedStock())) {
+                changes.add(new StockChange(entry.getKey(), before, after));
+            }
+        }
+        for (Map.Entry<String, StockLevel> entry : levels.entrySet()) {
+            if (!newer.levels.containsKey(entry.getKey())) {
+                changes.add(new StockChange(entry.getKey(), entry.getValue(), null));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @return Stock of the product in this snapshot, or null if it was not in the repository
+     */
+    public StockLevel get(String productId) {
+        return levels.get(productId);
+    }
+
+    public Set<String> getProductIds() {
+        return levels.keySet();
+    }
+
+    public int size() {
+        return levels.size();
+    }
+
+    /**
+     * @return Snapshot epoch this snapshot reflects
+     */
+    public long getSequence() {
+        return epoch;
+    }
+
+    public long getCapturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    /**
+     * @return true if every product was read as of the same epoch; false if
+     *         writes kept racing the capture and each product shows its latest figures
+     */
+    public boolean isPointInTime() {
+        return pointInTime;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce_refactor.inventory;
+
+import com.ecommerce_refactor.model.Product;
+import com.ecommerce_refactor.model.ReorderPointCrossing;
+import com.ecommerce_refactor.model.ReorderPointListener;
+import com.ecommerce_refactor.repository.ProductRepository;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Turns reorder point crossings into alerts for subscribers.
+ *
+ * Products report crossings themselves as part of each stock change, so nothing is
+ * polled. Alerts are handed to an executor, a single background thread by default, so
+ * subscribers never slow down the order path. Two crossings of the same product can
+ * reach the executor out of order when they come from different threads; each alert
+ * carries the product's stock version at its write, and one older than the last alert delivered for
+ * that product is dropped. So subscribers see each crossing at most once, and a
+ * product's latest alert always reflects its current side of the threshold.
+ */
+public class LowStockAlertService implements ReorderPointListener, AutoCloseable {
+
+    private final List<StockAlertSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<String, Long> lastDelivered = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates a service that delivers alerts on its own background thread.
+     */
+    public LowStockAlertService() {
+        this.ownedExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-alerts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = ownedExecutor;
+    }
+
+    /**
+     * Creates a service that delivers alerts through the given executor.
+     * Pass {@code Runnable::run} to deliver on the thread that changed the stock.
+     */
+    public LowStockAlertService(Executor executor) {
+        this.executor = executor;
+        this.ownedExecutor = null;
+    }
+
+    /**
+     * Starts watching a product against a reorder point.
+     * If it is already below the point, an alert follows right away.
+     */
+    public void watch(Product product, int reorderPoint) {
+        product.setReorderPointListener(this);
+        product.setReorderPoint(reorderPoint);
+    }
+
+    /**
+     * Watches every product in the repository against the same reorder point.
+     */
+    public void watchAll(ProductRepository productRepository, int reorderPoint) {
+        for (Product product : productRepository.getAllProducts()) {
+            watch(product, reorderPoint);
+        }
+    }
+
+    public void unwatch(Product product) {
+        product.setReorderPoint(Product.NO_REORDER_POINT);
+        product.setReorderPointListener(null);
+        lastDelivered.remove(product.getProductId());
+    }
+
+    public void subscribe(StockAlertSubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(StockAlertSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    @Override
+    public void onReorderPointCrossed(ReorderPointCrossing crossing) {
+        StockAlert alert = new StockAlert(crossing);
+        executor.execute(() -> deliver(alert));
+    }
+
+    private void deliver(StockAlert alert) {
+        boolean[] newest = new boolean[1];
+        lastDelivered.compute(alert.getProductId(), (id, last) -> {
+            if (last != null && last >= alert.getSequence()) {
+                return last;
+            }
+            newest[0] = true;
+            return alert.getSequence();
+        });
+        if (!newest[0]) {
+            dropped.increment();
+            return;
+        }
+        delivered.increment();
+        for (StockAlertSubscriber subscriber : subscribers) {
+            try {
+                subscriber.onStockAlert(alert);
+            } catch (RuntimeException e) {
+                System.out.println("[ALERT] Subscriber failed for " + alert.getProductId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /** Alerts handed to subscribers. */
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    /** Alerts dropped because a newer one for the same product was already delivered. */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+}
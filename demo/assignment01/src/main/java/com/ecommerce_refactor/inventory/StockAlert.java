@@ -0,0 +1,69 @@
+package com.ecommerce_refactor.inventory;
+
+import com.ecommerce_refactor.model.ReorderPointCrossing;
+
+/**
+ * Notification that a product's available stock crossed its reorder point.
+ */
+public final class StockAlert {
+
+    public enum Type {
+        LOW_STOCK,      // Available stock dropped below the reorder point
+        RECOVERED       // Available stock is back at or above the reorder point
+    }
+
+    private final Type type;
+    private final String productId;
+    private final String productName;
+    private final int availableStock;
+    private final int reorderPoint;
+    private final long sequence;
+    private final long timestamp;
+
+    StockAlert(ReorderPointCrossing crossing) {
+        this.type = crossing.isBelow() ? Type.LOW_STOCK : Type.RECOVERED;
+        this.productId = crossing.getProduct().getProductId();
+        this.productName = crossing.getProduct().getName();
+        this.availableStock = crossing.getLevel().getAvailableStock();
+        this.reorderPoint = crossing.getReorderPoint();
+        this.sequence = crossing.getLevel().getSequence();
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getAvailableStock() {
+        return availableStock;
+    }
+
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+
+    /**
+     * @return The product's stock version at the write that caused the alert
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return (type == Type.LOW_STOCK ? "Low stock: " : "Stock recovered: ") + productName
+                + " (" + productId + ") available " + availableStock + ", reorder point " + reorderPoint;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce_refactor.inventory;
+
+/**
+ * Receives low-stock and recovery alerts from a {@link LowStockAlertService}.
+ */
+@FunctionalInterface
+public interface StockAlertSubscriber {
+    void onStockAlert(StockAlert alert);
+}
@@ -0,0 +1,66 @@
+package com.ecommerce_refactor.inventory;
+
+import com.ecommerce_refactor.model.StockLevel;
+
+/**
+ * How one product's stock differs between two inventory snapshots.
+ */
+public final class StockChange {
+    private final String productId;
+    private final StockLevel before;
+    private final StockLevel after;
+
+    StockChange(String productId, StockLevel before, StockLevel after) {
+        this.productId = productId;
+        this.before = before;
+        this.after = after;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    /** Level in the older snapshot, or null if the product was added since. */
+    public StockLevel getBefore() {
+        return before;
+    }
+
+    /** Level in the newer snapshot, or null if the product was removed since. */
+    public StockLevel getAfter() {
+        return after;
+    }
+
+    public boolean isAdded() {
+        return before == null;
+    }
+
+    public boolean isRemoved() {
+        return after == null;
+    }
+
+    public int getOnHandDelta() {
+        return onHand(after) - onHand(before);
+    }
+
+    public int getReservedDelta() {
+        return reserved(after) - reserved(before);
+    }
+
+    public int getAvailableDelta() {
+        return getOnHandDelta() - getReservedDelta();
+    }
+
+    private static int onHand(StockLevel level) {
+        return level == null ? 0 : level.getOnHandStock();
+    }
+
+    private static int reserved(StockLevel level) {
+        return level == null ? 0 : level.getReservedStock();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s on-hand %+d, reserved %+d, available %+d",
+                productId, getOnHandDelta(), getReservedDelta(), getAvailableDelta());
+    }
+}
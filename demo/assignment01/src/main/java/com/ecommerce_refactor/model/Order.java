@@ -3,13 +3,15 @@ package com.ecommerce_refactor.model;
 import com.ecommerce_refactor.model.enumeration.OrderStatus;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Order {
     private String orderId;
     private String customerEmail;
     private List<OrderItem> orderItems;
     private double total;
-    private OrderStatus status;
+    // Atomic so concurrent lifecycle transitions can compare-and-set
+    private final AtomicReference<OrderStatus> status = new AtomicReference<>();
     private String shippingAddress;
 
     public Order(String orderId, String customerEmail, List<OrderItem> orderItems, double total, OrderStatus status, String shippingAddress) {
@@ -17,7 +19,7 @@ public class Order {
         this.customerEmail = customerEmail;
         this.orderItems = orderItems;
         this.total = total;
-        this.status = status;
+        this.status.set(status);
         this.shippingAddress = shippingAddress;
     }
 
@@ -49,11 +51,22 @@ public class Order {
     }
 
     public OrderStatus getStatus() {
-        return status;
+        return status.get();
     }
 
     public void setStatus(OrderStatus status) {
-        this.status = status;
+        this.status.set(status);
+    }
+
+    /**
+     * Atomically moves the order to a new status if it is still in the expected one.
+     *
+     * @param expected The status the caller observed
+     * @param update The new status
+     * @return true if the status was changed, false if another thread changed it first
+     */
+    public boolean compareAndSetStatus(OrderStatus expected, OrderStatus update) {
+        return status.compareAndSet(expected, update);
     }
 
     public String getShippingAddress() {
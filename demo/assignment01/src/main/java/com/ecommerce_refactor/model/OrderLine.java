@@ -0,0 +1,78 @@
+package com.ecommerce_refactor.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One requested product and how many of it to order.
+ */
+public final class OrderLine {
+    private final String productId;
+    private final int quantity;
+
+    public OrderLine(String productId, int quantity) {
+        if (productId == null) {
+            throw new IllegalArgumentException("productId must not be null");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive: " + quantity);
+        }
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Merges lines for the same product, keeping the order in which products first appear.
+     *
+     * @param lines Lines that may repeat a productId
+     * @return One line per distinct productId with the quantities summed
+     */
+    public static List<OrderLine> merge(Collection<OrderLine> lines) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderLine line : lines) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        if (quantities.size() == lines.size()) {
+            return new ArrayList<>(lines);
+        }
+        return toLines(quantities);
+    }
+
+    /**
+     * Converts a list of product IDs, one entry per unit, into merged lines.
+     *
+     * @param productIds Product IDs, repeated once per unit ordered
+     * @return One line per distinct productId
+     */
+    public static List<OrderLine> fromProductIds(Collection<String> productIds) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (String productId : productIds) {
+            quantities.merge(productId, 1, Integer::sum);
+        }
+        return toLines(quantities);
+    }
+
+    private static List<OrderLine> toLines(Map<String, Integer> quantities) {
+        List<OrderLine> merged = new ArrayList<>(quantities.size());
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            merged.add(new OrderLine(entry.getKey(), entry.getValue()));
+        }
+        return merged;
+    }
+
+    @Override
+    public String toString() {
+        return quantity + "x " + productId;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce_refactor.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of order summaries plus the cursor for the next page.
+ */
+public final class OrderPage {
+    private final List<OrderSummary> orders;
+    private final String nextCursor;
+
+    public OrderPage(List<OrderSummary> orders, String nextCursor) {
+        this.orders = Collections.unmodifiableList(orders);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderSummary> getOrders() {
+        return orders;
+    }
+
+    /**
+     * @return Cursor to pass to {@link OrderQuery#after(String)}, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce_refactor.model;
+
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+
+/**
+ * Immutable filter and paging parameters for listing orders.
+ *
+ * Usage:
+ * OrderQuery.all().withStatus(OrderStatus.PENDING).limit(100)
+ * then pass page.getNextCursor() to after() to fetch the next page.
+ */
+public final class OrderQuery {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 1_000;
+
+    private static final OrderQuery ALL = new OrderQuery(null, null, null, DEFAULT_PAGE_SIZE);
+
+    private final OrderStatus status;
+    private final String customerEmail;
+    private final String cursor;
+    private final int limit;
+
+    private OrderQuery(OrderStatus status, String customerEmail, String cursor, int limit) {
+        this.status = status;
+        this.customerEmail = customerEmail;
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+
+    /**
+     * A query matching every order, first page, default page size.
+     */
+    public static OrderQuery all() {
+        return ALL;
+    }
+
+    public OrderQuery withStatus(OrderStatus status) {
+        return new OrderQuery(status, customerEmail, cursor, limit);
+    }
+
+    public OrderQuery withCustomerEmail(String customerEmail) {
+        return new OrderQuery(status, customerEmail, cursor, limit);
+    }
+
+    /**
+     * Continues after the given cursor (from a previous page); null starts from the beginning.
+     */
+    public OrderQuery after(String cursor) {
+        return new OrderQuery(status, customerEmail, cursor, limit);
+    }
+
+    /**
+     * Sets the page size, capped at {@link #MAX_PAGE_SIZE}.
+     */
+    public OrderQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        return new OrderQuery(status, customerEmail, cursor, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    public boolean matches(Order order) {
+        return (status == null || order.getStatus() == status)
+                && (customerEmail == null || customerEmail.equals(order.getCustomerEmail()));
+    }
+
+    /** Status filter, or null for any status. */
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    /** Customer filter, or null for any customer. */
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    /** Cursor to continue after, or null for the first page. */
+    public String getCursor() {
+        return cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
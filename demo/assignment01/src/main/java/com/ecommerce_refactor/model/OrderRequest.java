@@ -0,0 +1,81 @@
+package com.ecommerce_refactor.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Input for one order in a bulk ingestion request.
+ */
+public class OrderRequest {
+    private String customerEmail;
+    private List<String> productIds;
+    private List<OrderLine> lines;
+    private String paymentMethod;
+    private String shippingAddress;
+
+    public OrderRequest(String customerEmail, List<String> productIds, String paymentMethod, String shippingAddress) {
+        this.customerEmail = customerEmail;
+        this.productIds = productIds;
+        this.paymentMethod = paymentMethod;
+        this.shippingAddress = shippingAddress;
+    }
+
+    public OrderRequest() {
+    }
+
+    /**
+     * Creates a request from quantity lines instead of one product ID per unit.
+     */
+    public static OrderRequest ofLines(String customerEmail, List<OrderLine> lines,
+                                       String paymentMethod, String shippingAddress) {
+        OrderRequest request = new OrderRequest(customerEmail, null, paymentMethod, shippingAddress);
+        request.setLines(lines);
+        return request;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public void setCustomerEmail(String customerEmail) {
+        this.customerEmail = customerEmail;
+    }
+
+    public List<String> getProductIds() {
+        return productIds;
+    }
+
+    public void setProductIds(List<String> productIds) {
+        this.productIds = productIds;
+    }
+
+    /**
+     * @return The requested lines merged by productId; derived from the product IDs if no lines were set
+     */
+    public List<OrderLine> getLines() {
+        if (lines != null) {
+            return OrderLine.merge(lines);
+        }
+        return productIds == null ? new ArrayList<>() : OrderLine.fromProductIds(productIds);
+    }
+
+    public void setLines(List<OrderLine> lines) {
+        this.lines = lines;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getShippingAddress() {
+        return shippingAddress;
+    }
+
+    public void setShippingAddress(String shippingAddress) {
+        this.shippingAddress = shippingAddress;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce_refactor.model;
+
+/**
+ * Outcome of one order in a bulk operation.
+ */
+public final class OrderResult {
+    private final String orderId;
+    private final boolean success;
+    private final String errorMessage;
+
+    private OrderResult(String orderId, boolean success, String errorMessage) {
+        this.orderId = orderId;
+        this.success = success;
+        this.errorMessage = errorMessage;
+    }
+
+    public static OrderResult success(String orderId) {
+        return new OrderResult(orderId, true, null);
+    }
+
+    public static OrderResult failure(String orderId, String errorMessage) {
+        return new OrderResult(orderId, false, errorMessage);
+    }
+
+    /**
+     * @return The order ID, or null if the order was never created
+     */
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    /**
+     * @return Why the order failed, or null on success
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return success ? "OK " + orderId : "FAILED " + (orderId == null ? "" : orderId + " ") + errorMessage;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce_refactor.model;
+
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+
+/**
+ * Lightweight read-only view of an order for listings.
+ * Formatting is left to the caller.
+ */
+public final class OrderSummary {
+    private final String orderId;
+    private final String customerEmail;
+    private final OrderStatus status;
+    private final double total;
+    private final int itemCount;
+
+    public OrderSummary(String orderId, String customerEmail, OrderStatus status, double total, int itemCount) {
+        this.orderId = orderId;
+        this.customerEmail = customerEmail;
+        this.status = status;
+        this.total = total;
+        this.itemCount = itemCount;
+    }
+
+    public static OrderSummary of(Order order) {
+        return new OrderSummary(order.getOrderId(), order.getCustomerEmail(), order.getStatus(),
+                order.getTotal(), order.getOrderItems() == null ? 0 : order.getOrderItems().size());
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+}
@@ -2,6 +2,9 @@ package com.ecommerce_refactor.model;
 
 import com.ecommerce_refactor.model.enumeration.ProductCategory;
 
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Product domain model with proper stock management.
  * 
@@ -9,14 +12,46 @@ import com.ecommerce_refactor.model.enumeration.ProductCategory;
  * - onHandStock: Total physical inventory
  * - reservedStock: Stock reserved for unconfirmed orders
  * - availableStock: Stock available for new orders (onHand - reserved)
+ * 
+ * Stock methods are synchronized on the product, so concurrent orders for
+ * different products never contend with each other.
+ * 
+ * Readers never lock: each write is bracketed by a per-product seqlock version (odd
+ * while a write is in progress), and a reader retries until it has read on-hand and
+ * reserved under one unchanged even version, so the two are never read torn. Writes
+ * allocate nothing and touch no shared counter. Each write is stamped with the current
+ * snapshot epoch, which only snapshot captures advance, and the product keeps the
+ * figures it had at the end of the previous epoch; that lets
+ * {@link #stockLevelAsOf(long)} return the figures as of an epoch for point-in-time
+ * snapshots across products.
+ * 
+ * Each write also checks available stock against the product's reorder point and,
+ * once the lock is released, tells the registered {@link ReorderPointListener} if it
+ * moved across it. Only the write that crosses the point reports it, so alerts are
+ * edge-triggered without any scanning.
  */
 public class Product {
+    /** Reorder point that no stock level is below, i.e. no threshold. */
+    public static final int NO_REORDER_POINT = Integer.MIN_VALUE;
+    
+    // Written only by snapshot captures, so writers just read a shared cache line
+    private static final AtomicLong SNAPSHOT_EPOCH = new AtomicLong();
+
     private String productId;
     private String name;
     private double price;
     private ProductCategory category;
-    private int onHandStock;      // Total physical inventory
-    private int reservedStock;    // Reserved for pending orders
+    private volatile long version;         // Seqlock: odd while a stock write is in progress
+    // Guarded by the product's lock for writes and by the version for reads
+    private int onHandStock;
+    private int reservedStock;
+    private long epoch;                    // Snapshot epoch of the latest write
+    private int previousOnHandStock;       // Figures at the end of the epoch before that
+    private int previousReservedStock;
+    private long previousVersion;
+    private long previousEpoch;
+    private volatile int reorderPoint = NO_REORDER_POINT;
+    private volatile ReorderPointListener reorderPointListener;
     
     public Product(String productId, String name, double price, ProductCategory category, int onHandStock) {
         this.productId = productId;
@@ -24,11 +59,21 @@ public class Product {
         this.price = price;
         this.category = category;
         this.onHandStock = onHandStock;
-        this.reservedStock = 0;
+        this.previousOnHandStock = onHandStock;
     }
 
     public Product() {
-        this.reservedStock = 0;
+    }
+
+    /**
+     * Closes the current snapshot epoch. Writes that start after this call are stamped
+     * with a later epoch, so every product's figures as of the returned epoch stay
+     * readable through {@link #stockLevelAsOf(long)} until the next call.
+     * 
+     * @return The epoch just closed
+     */
+    public static long closeStockEpoch() {
+        return SNAPSHOT_EPOCH.getAndIncrement();
     }
 
     public String getProductId() {
@@ -64,19 +109,27 @@ public class Product {
     }
 
     public int getOnHandStock() {
-        return onHandStock;
+        return getStockLevel().getOnHandStock();
     }
 
     public void setOnHandStock(int onHandStock) {
-        this.onHandStock = onHandStock;
+        ReorderPointCrossing crossing;
+        synchronized (this) {
+            crossing = writeStock(onHandStock, this.reservedStock);
+        }
+        notifyCrossing(crossing);
     }
 
     public int getReservedStock() {
-        return reservedStock;
+        return getStockLevel().getReservedStock();
     }
 
     public void setReservedStock(int reservedStock) {
-        this.reservedStock = reservedStock;
+        ReorderPointCrossing crossing;
+        synchronized (this) {
+            crossing = writeStock(this.onHandStock, reservedStock);
+        }
+        notifyCrossing(crossing);
     }
     
     /**
@@ -84,7 +137,152 @@ public class Product {
      * This is the stock available for new orders.
      */
     public int getAvailableStock() {
-        return onHandStock - reservedStock;
+        return getStockLevel().getAvailableStock();
+    }
+    
+    /**
+     * @return The current stock figures, read together without locking
+     */
+    public StockLevel getStockLevel() {
+        while (true) {
+            long before = awaitStableVersion();
+            int onHand = onHandStock;
+            int reserved = reservedStock;
+            VarHandle.loadLoadFence();
+            if (version == before) {
+                return new StockLevel(onHand, reserved, before);
+            }
+        }
+    }
+    
+    /**
+     * Returns the stock figures in force at a snapshot epoch, without locking.
+     * Only this product is validated: if a write overlaps the read, the read is retried.
+     * 
+     * @param epoch A value returned by {@link #closeStockEpoch()}
+     * @return The figures as of that epoch, or null if later epochs were closed and
+     *         written since, so the product no longer has them
+     */
+    public StockLevel stockLevelAsOf(long epoch) {
+        while (true) {
+            long before = awaitStableVersion();
+            StockLevel level;
+            if (this.epoch <= epoch) {
+                level = new StockLevel(onHandStock, reservedStock, before);
+            } else if (previousEpoch <= epoch) {
+                level = new StockLevel(previousOnHandStock, previousReservedStock, previousVersion);
+            } else {
+                level = null;
+            }
+            VarHandle.loadLoadFence();
+            if (version == before) {
+                return level;
+            }
+        }
+    }
+    
+    /**
+     * Waits out a write in progress, which takes only as long as the writer's own
+     * critical section; the reader yields if the writer was descheduled.
+     * 
+     * @return The even version the caller's reads are validated against
+     */
+    private long awaitStableVersion() {
+        long current = version;
+        for (int spins = 0; (current & 1) != 0; spins++) {
+            if (spins < 64) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            current = version;
+        }
+        return current;
+    }
+    
+    /**
+     * Sets the available stock level below which this product needs reordering.
+     * If available stock is already below the new point, that counts as a crossing.
+     * The change takes its own stock version, so a crossing it causes is never
+     * mistaken for a repeat of the last stock write's crossing.
+     * 
+     * @param reorderPoint The threshold, or {@link #NO_REORDER_POINT} to stop checking
+     */
+    public void setReorderPoint(int reorderPoint) {
+        ReorderPointCrossing crossing = null;
+        synchronized (this) {
+            // Stays even: the figures are unchanged, so readers need not wait
+            version += 2;
+            int available = onHandStock - reservedStock;
+            boolean wasBelow = available < this.reorderPoint;
+            this.reorderPoint = reorderPoint;
+            if (wasBelow != available < reorderPoint) {
+                crossing = new ReorderPointCrossing(this, new StockLevel(onHandStock, reservedStock, version),
+                        reorderPoint);
+            }
+        }
+        notifyCrossing(crossing);
+    }
+    
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+    
+    /**
+     * Registers the listener told when available stock crosses the reorder point.
+     * 
+     * @param listener The listener, or null to remove it
+     */
+    public void setReorderPointListener(ReorderPointListener listener) {
+        this.reorderPointListener = listener;
+    }
+    
+    /**
+     * Publishes new stock figures. Callers hold the product's lock.
+     * The version goes odd before the epoch is read and even only after the figures are
+     * written. A capture closes the epoch before reading the version, so it either
+     * waits for this write or this write sees the new epoch and leaves the closed
+     * epoch's figures in place as the previous ones.
+     * 
+     * @return The crossing if this write moved available stock across the reorder point, else null
+     */
+    private ReorderPointCrossing writeStock(int onHandStock, int reservedStock) {
+        long start = version;
+        version = start + 1;
+        // A volatile read, so the figure writes below cannot move above the odd version
+        long currentEpoch = SNAPSHOT_EPOCH.get();
+        if (currentEpoch != epoch) {
+            previousOnHandStock = this.onHandStock;
+            previousReservedStock = this.reservedStock;
+            previousVersion = start;
+            previousEpoch = epoch;
+            epoch = currentEpoch;
+        }
+        int availableBefore = this.onHandStock - this.reservedStock;
+        this.onHandStock = onHandStock;
+        this.reservedStock = reservedStock;
+        version = start + 2;
+        
+        // Two compares on the hot path; an object only when the threshold is actually crossed
+        int point = reorderPoint;
+        int availableAfter = onHandStock - reservedStock;
+        if ((availableBefore < point) == (availableAfter < point)) {
+            return null;
+        }
+        return new ReorderPointCrossing(this, new StockLevel(onHandStock, reservedStock, start + 2), point);
+    }
+    
+    /**
+     * Tells the listener about a crossing. Called after the product's lock is released.
+     */
+    private void notifyCrossing(ReorderPointCrossing crossing) {
+        if (crossing == null) {
+            return;
+        }
+        ReorderPointListener listener = reorderPointListener;
+        if (listener != null) {
+            listener.onReorderPointCrossed(crossing);
+        }
     }
     
     /**
@@ -95,12 +293,16 @@ public class Product {
      * @return true if reservation successful, false if insufficient stock
      */
     public boolean reserveStock(int quantity) {
-        if (getAvailableStock() >= quantity) {
-            reservedStock += quantity;
+        ReorderPointCrossing crossing;
+        synchronized (this) {
+            if (onHandStock - reservedStock < quantity) {
+                return false;
+            }
             // On-hand remains unchanged
-            return true;
+            crossing = writeStock(onHandStock, reservedStock + quantity);
         }
-        return false;
+        notifyCrossing(crossing);
+        return true;
     }
     
     /**
@@ -110,8 +312,12 @@ public class Product {
      * @param quantity Quantity to release
      */
     public void releaseReservedStock(int quantity) {
-        reservedStock = Math.max(0, reservedStock - quantity);
-        // On-hand remains unchanged
+        ReorderPointCrossing crossing;
+        synchronized (this) {
+            // On-hand remains unchanged
+            crossing = writeStock(onHandStock, Math.max(0, reservedStock - quantity));
+        }
+        notifyCrossing(crossing);
     }
     
     /**
@@ -121,9 +327,13 @@ public class Product {
      * @param quantity Quantity to commit
      */
     public void commitReservedStock(int quantity) {
-        int toCommit = Math.min(quantity, reservedStock);
-        onHandStock -= toCommit;      // Decrease on-hand
-        reservedStock -= toCommit;     // Decrease reserved
+        ReorderPointCrossing crossing;
+        synchronized (this) {
+            int toCommit = Math.min(quantity, reservedStock);
+            crossing = writeStock(onHandStock - toCommit,     // Decrease on-hand
+                                  reservedStock - toCommit);  // Decrease reserved
+        }
+        notifyCrossing(crossing);
     }
     
     /**
@@ -133,8 +343,12 @@ public class Product {
      * @param quantity Quantity to restock
      */
     public void restock(int quantity) {
-        onHandStock += quantity;       // Increase on-hand
-        // Reserved remains unchanged
+        ReorderPointCrossing crossing;
+        synchronized (this) {
+            crossing = writeStock(onHandStock + quantity,     // Increase on-hand
+                                  reservedStock);             // Reserved remains unchanged
+        }
+        notifyCrossing(crossing);
     }
     
     // Deprecated: Use specific stock methods instead
@@ -145,8 +359,11 @@ public class Product {
     
     @Deprecated
     public void setStock(int stock) {
-        this.onHandStock = stock;
-        this.reservedStock = 0;
+        ReorderPointCrossing crossing;
+        synchronized (this) {
+            crossing = writeStock(stock, 0);
+        }
+        notifyCrossing(crossing);
     }
 }
 
@@ -0,0 +1,38 @@
+package com.ecommerce_refactor.model;
+
+/**
+ * A product's available stock moving across its reorder point, in either direction.
+ */
+public final class ReorderPointCrossing {
+    private final Product product;
+    private final StockLevel level;
+    private final int reorderPoint;
+
+    ReorderPointCrossing(Product product, StockLevel level, int reorderPoint) {
+        this.product = product;
+        this.level = level;
+        this.reorderPoint = reorderPoint;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * @return The stock level right after the write that crossed the reorder point
+     */
+    public StockLevel getLevel() {
+        return level;
+    }
+
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+
+    /**
+     * @return true if available stock dropped below the reorder point, false if it recovered
+     */
+    public boolean isBelow() {
+        return level.getAvailableStock() < reorderPoint;
+    }
+}
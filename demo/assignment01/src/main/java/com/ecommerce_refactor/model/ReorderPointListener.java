@@ -0,0 +1,10 @@
+package com.ecommerce_refactor.model;
+
+/**
+ * Receives reorder point crossings from the products it is registered on.
+ * Called on the thread that changed the stock, after the product's lock is released.
+ */
+@FunctionalInterface
+public interface ReorderPointListener {
+    void onReorderPointCrossed(ReorderPointCrossing crossing);
+}
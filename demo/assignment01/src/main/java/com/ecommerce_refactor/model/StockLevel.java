@@ -0,0 +1,45 @@
+package com.ecommerce_refactor.model;
+
+/**
+ * Immutable stock figures of one product, stamped with the product's stock version
+ * at the write that produced them.
+ *
+ * Versions only grow, and only within one product: two levels of the same product
+ * with the same version are the same figures, and the higher version is the newer.
+ */
+public final class StockLevel {
+    private final int onHandStock;
+    private final int reservedStock;
+    private final long sequence;
+
+    StockLevel(int onHandStock, int reservedStock, long sequence) {
+        this.onHandStock = onHandStock;
+        this.reservedStock = reservedStock;
+        this.sequence = sequence;
+    }
+
+    public int getOnHandStock() {
+        return onHandStock;
+    }
+
+    public int getReservedStock() {
+        return reservedStock;
+    }
+
+    public int getAvailableStock() {
+        return onHandStock - reservedStock;
+    }
+
+    /**
+     * @return The product's stock version at the write that produced this level
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return "on-hand " + onHandStock + ", reserved " + reservedStock + ", available " + getAvailableStock()
+                + " @" + sequence;
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecommerce_refactor.notification;
+
+import com.ecommerce_refactor.model.Order;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator that coalesces notifications per order before handing them to the
+ * real NotificationService.
+ *
+ * The first notification for an order opens a window. Anything else for the same
+ * order that arrives inside the window is merged into it: a more final status
+ * replaces an earlier one (e.g. confirm then ship within the window sends only
+ * "shipped", and a cancellation outranks both), and repeated confirmations are sent
+ * once. When the window closes the surviving notification is delivered.
+ *
+ * Memory is bounded: at most maxPendingOrders orders are held at once. A new order
+ * must claim a slot before it is added, so the bound holds under concurrent
+ * submits. When no slot is free, notifications for new orders are delivered
+ * immediately instead of being queued.
+ */
+public class CoalescingNotificationService implements NotificationService, AutoCloseable {
+
+    private final NotificationService delegate;
+    private final long windowMillis;
+    private final int maxPendingOrders;
+    private final ConcurrentHashMap<String, PendingNotification> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger claimedSlots = new AtomicInteger();    // Never below pending.size()
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    /**
+     * @param delegate Service that actually sends the notifications
+     * @param windowMillis How long to hold the first notification of an order
+     * @param maxPendingOrders Maximum number of orders held at once
+     */
+    public CoalescingNotificationService(NotificationService delegate, long windowMillis, int maxPendingOrders) {
+        if (windowMillis <= 0 || maxPendingOrders <= 0) {
+            throw new IllegalArgumentException("windowMillis and maxPendingOrders must be positive");
+        }
+        this.delegate = delegate;
+        this.windowMillis = windowMillis;
+        this.maxPendingOrders = maxPendingOrders;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void sendOrderConfirmation(String email, Order order) {
+        submit(new PendingNotification(Kind.CONFIRMATION, email, order, null));
+    }
+
+    @Override
+    public void sendOrderShipped(Order order, String trackingNumber) {
+        submit(new PendingNotification(Kind.SHIPPED, order.getCustomerEmail(), order, trackingNumber));
+    }
+
+    @Override
+    public void sendOrderCancelled(Order order) {
+        submit(new PendingNotification(Kind.CANCELLED, order.getCustomerEmail(), order, null));
+    }
+
+    /**
+     * Delivers every pending notification now, without waiting for the windows to close.
+     */
+    public void flush() {
+        for (String orderId : new ArrayList<>(pending.keySet())) {
+            flush(orderId);
+        }
+    }
+
+    /**
+     * Stops the scheduler and delivers everything still pending.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    public long getOverflowCount() {
+        return overflowed.get();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void submit(PendingNotification incoming) {
+        String orderId = incoming.order.getOrderId();
+
+        // An order already held needs no new slot
+        if (pending.computeIfPresent(orderId, (id, existing) -> merge(existing, incoming)) != null) {
+            return;
+        }
+
+        if (!claimSlot()) {
+            // Full: do not grow further, send straight through
+            overflowed.incrementAndGet();
+            deliver(incoming);
+            return;
+        }
+
+        boolean[] opened = new boolean[1];
+        pending.compute(orderId, (id, existing) -> {
+            if (existing == null) {
+                opened[0] = true;
+                return incoming;
+            }
+            return merge(existing, incoming);
+        });
+
+        if (opened[0]) {
+            scheduleFlush(orderId);
+        } else {
+            // Another thread opened the window first; it holds the order's slot
+            claimedSlots.decrementAndGet();
+        }
+    }
+
+    private PendingNotification merge(PendingNotification existing, PendingNotification incoming) {
+        suppressed.incrementAndGet();
+        return incoming.kind.priority >= existing.kind.priority ? incoming : existing;
+    }
+
+    private boolean claimSlot() {
+        while (true) {
+            int claimed = claimedSlots.get();
+            if (claimed >= maxPendingOrders) {
+                return false;
+            }
+            if (claimedSlots.compareAndSet(claimed, claimed + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void scheduleFlush(String orderId) {
+        try {
+            scheduler.schedule(() -> flush(orderId), windowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Already closed: deliver right away
+            flush(orderId);
+        }
+    }
+
+    private void flush(String orderId) {
+        PendingNotification notification = pending.remove(orderId);
+        if (notification != null) {
+            claimedSlots.decrementAndGet();
+            deliver(notification);
+        }
+    }
+
+    private void deliver(PendingNotification notification) {
+        delivered.incrementAndGet();
+        switch (notification.kind) {
+            case CONFIRMATION:
+                delegate.sendOrderConfirmation(notification.email, notification.order);
+                break;
+            case SHIPPED:
+                delegate.sendOrderShipped(notification.order, notification.trackingNumber);
+                break;
+            case CANCELLED:
+                delegate.sendOrderCancelled(notification.order);
+                break;
+            default:
+                throw new IllegalStateException("Unhandled notification kind: " + notification.kind);
+        }
+    }
+
+    /**
+     * Notification kinds ordered by how final they are; a higher priority supersedes a lower one.
+     */
+    private enum Kind {
+        CONFIRMATION(0),
+        SHIPPED(1),
+        CANCELLED(2);
+
+        private final int priority;
+
+        Kind(int priority) {
+            this.priority = priority;
+        }
+    }
+
+    private static final class PendingNotification {
+        private final Kind kind;
+        private final String email;
+        private final Order order;
+        private final String trackingNumber;
+
+        PendingNotification(Kind kind, String email, Order order, String trackingNumber) {
+            this.kind = kind;
+            this.email = email;
+            this.order = order;
+            this.trackingNumber = trackingNumber;
+        }
+    }
+}
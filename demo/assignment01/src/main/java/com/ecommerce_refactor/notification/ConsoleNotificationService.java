@@ -1,23 +1,50 @@
 package com.ecommerce_refactor.notification;
 
 import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.notification.template.NotificationTemplate;
+
+import java.util.List;
 
 public class ConsoleNotificationService implements NotificationService{
+    // Compiled once; each message is rendered into the thread's reusable buffer
+    private static final NotificationTemplate CONFIRMATION = NotificationTemplate.compile(
+            "Sending order confirmation email to {recipient} ...\n"
+            + "Subject: Order Confirmation - {orderId}\n"
+            + "Body: Thank you for your order! Total: ${total}");
+    private static final NotificationTemplate SHIPPED = NotificationTemplate.compile(
+            "[Email] Your order - {orderId} has been shipped!\n"
+            + "Tracking number: {trackingNumber}");
+    private static final NotificationTemplate CANCELLED = NotificationTemplate.compile(
+            "[Email] Your order - {orderId} has been cancelled.");
+
     @Override
     public void sendOrderConfirmation(String email, Order order) {
-        System.out.println("Sending order confirmation email to " + email + " ...");
-        System.out.println("Subject: Order Confirmation - " + order.getOrderId());
-        System.out.println("Body: Thank you for your order! Total: $" + String.format("%.2f", order.getTotal()));
+        print(CONFIRMATION, email, order, null);
     }
 
     @Override
     public void sendOrderShipped(Order order, String trackingNumber) {
-        System.out.println("[Email] Your order - " + order.getOrderId() + " has been shipped!");
-        System.out.println("Tracking number: " + trackingNumber);
+        print(SHIPPED, order.getCustomerEmail(), order, trackingNumber);
     }
 
     @Override
     public void sendOrderCancelled(Order order) {
-        System.out.println("[Email] Your order - " + order.getOrderId() + " has been cancelled.");
+        print(CANCELLED, order.getCustomerEmail(), order, null);
+    }
+
+    @Override
+    public void sendOrdersCancelled(List<Order> orders) {
+        // One write for the whole batch instead of one per order
+        StringBuilder buffer = NotificationTemplate.threadBuffer();
+        for (Order order : orders) {
+            CANCELLED.renderTo(buffer, order.getCustomerEmail(), order, null).append(System.lineSeparator());
+        }
+        System.out.append(buffer);
+    }
+
+    private void print(NotificationTemplate template, String recipient, Order order, String trackingNumber) {
+        StringBuilder buffer = NotificationTemplate.threadBuffer();
+        template.renderTo(buffer, recipient, order, trackingNumber).append(System.lineSeparator());
+        System.out.append(buffer);
     }
 }
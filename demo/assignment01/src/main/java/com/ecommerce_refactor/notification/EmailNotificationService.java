@@ -1,29 +1,40 @@
 package com.ecommerce_refactor.notification;
 
 import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.notification.template.NotificationTemplates;
+import com.ecommerce_refactor.notification.template.TemplateKey;
 
 public class EmailNotificationService implements NotificationService {
     private final EmailProvider emailProvider;
+    private final NotificationTemplates templates;
 
     public EmailNotificationService(EmailProvider emailProvider) {
+        this(emailProvider, NotificationTemplates.defaults());
+    }
+
+    public EmailNotificationService(EmailProvider emailProvider, NotificationTemplates templates) {
         this.emailProvider = emailProvider;
+        this.templates = templates;
     }
 
     @Override
     public void sendOrderConfirmation(String email, Order order) {
-        emailProvider.sendEmail(email, "Order Confirmation - " + order.getOrderId(),
-                "Thank you for your order! Total: $" + String.format("%.2f", order.getTotal()));
+        send(email, order, null, TemplateKey.CONFIRMATION_SUBJECT, TemplateKey.CONFIRMATION_BODY);
     }
 
     @Override
     public void sendOrderShipped(Order order, String trackingNumber) {
-        emailProvider.sendEmail(order.getCustomerEmail(), "Order Shipped - " + order.getOrderId(),
-                "Your order has been shipped. Tracking number: " + trackingNumber);
+        send(order.getCustomerEmail(), order, trackingNumber, TemplateKey.SHIPPED_SUBJECT, TemplateKey.SHIPPED_BODY);
     }
 
     @Override
     public void sendOrderCancelled(Order order) {
-        emailProvider.sendEmail(order.getCustomerEmail(), "Order cancelled - " + order.getOrderId(),
-                "Your order has been cancelled.");
+        send(order.getCustomerEmail(), order, null, TemplateKey.CANCELLED_SUBJECT, TemplateKey.CANCELLED_BODY);
+    }
+
+    private void send(String to, Order order, String trackingNumber, TemplateKey subjectKey, TemplateKey bodyKey) {
+        String subject = templates.get(subjectKey).render(to, order, trackingNumber);
+        String body = templates.get(bodyKey).render(to, order, trackingNumber);
+        emailProvider.sendEmail(to, subject, body);
     }
 }
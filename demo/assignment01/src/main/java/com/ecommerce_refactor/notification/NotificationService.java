@@ -2,8 +2,20 @@ package com.ecommerce_refactor.notification;
 
 import com.ecommerce_refactor.model.Order;
 
+import java.util.List;
+
 public interface NotificationService {
     void sendOrderConfirmation(String email, Order order);
     void sendOrderShipped(Order order, String trackingNumber);
     void sendOrderCancelled(Order order);
+
+    /**
+     * Notifies the customers of many cancelled orders at once.
+     * Implementations that can batch delivery should override this.
+     */
+    default void sendOrdersCancelled(List<Order> orders) {
+        for (Order order : orders) {
+            sendOrderCancelled(order);
+        }
+    }
 }
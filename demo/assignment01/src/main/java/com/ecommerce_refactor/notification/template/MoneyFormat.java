@@ -0,0 +1,53 @@
+package com.ecommerce_refactor.notification.template;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Allocation-free formatting of money amounts with two decimal places.
+ * Produces the same digits as String.format("%.2f", amount), but appends directly
+ * into a StringBuilder instead of creating a Formatter.
+ *
+ * String.format rounds the shortest decimal form of the double half up, so 1.005
+ * becomes 1.01 even though the double itself is slightly below 1.005. Rounding the
+ * double times 100 gives the same cents except when it lands next to a half cent;
+ * only those amounts take the slower, allocating path through BigDecimal.
+ */
+final class MoneyFormat {
+
+    // Beyond this a cent is no wider than a few ulps, so the fast path cannot tell ties apart
+    private static final double MAX_FAST_PATH = 1L << 40;
+
+    // Error bound, in ulps of the scaled amount, between amount * 100 and its decimal form times 100
+    private static final double TIE_MARGIN_ULPS = 4;
+
+    private MoneyFormat() {
+    }
+
+    static void appendAmount(StringBuilder out, double amount, char decimalSeparator) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount) || Math.abs(amount) >= MAX_FAST_PATH) {
+            // Rare case: fall back to the slow path
+            out.append(String.format("%.2f", amount).replace('.', decimalSeparator));
+            return;
+        }
+
+        double magnitude = Math.abs(amount);
+        double scaled = magnitude * 100.0;
+        double fraction = scaled - Math.floor(scaled);
+        long cents = Math.abs(fraction - 0.5) > TIE_MARGIN_ULPS * Math.ulp(scaled)
+                ? Math.round(scaled)
+                : BigDecimal.valueOf(magnitude).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+
+        // String.format keeps the sign of negative amounts that round to zero
+        if (amount < 0 || (amount == 0 && 1 / amount < 0)) {
+            out.append('-');
+        }
+        out.append(cents / 100).append(decimalSeparator);
+
+        int fractionCents = (int) (cents % 100);
+        if (fractionCents < 10) {
+            out.append('0');
+        }
+        out.append(fractionCents);
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce_refactor.notification.template;
+
+import com.ecommerce_refactor.model.Order;
+
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A notification template compiled once into a flat list of segments.
+ *
+ * The source text is parsed at compile time into alternating literal and
+ * field segments, so rendering is a single loop that appends straight into a
+ * caller-supplied buffer. No String.format or intermediate concatenation is
+ * performed per message.
+ *
+ * Template syntax: literal text with {placeholder} fields, see {@link TemplateField}.
+ */
+public final class NotificationTemplate {
+
+    private static final int INITIAL_BUFFER_CAPACITY = 256;
+
+    // One buffer per thread, reused for every render() call on that thread
+    private static final ThreadLocal<StringBuilder> RENDER_BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    private final String source;
+    private final String[] literals;      // literals[i] is written before fields[i]
+    private final TemplateField[] fields;
+    private final String trailingLiteral; // written after the last field
+    private final char decimalSeparator;
+
+    private NotificationTemplate(String source, String[] literals, TemplateField[] fields,
+                                 String trailingLiteral, char decimalSeparator) {
+        this.source = source;
+        this.literals = literals;
+        this.fields = fields;
+        this.trailingLiteral = trailingLiteral;
+        this.decimalSeparator = decimalSeparator;
+    }
+
+    /**
+     * Compiles a template using US number formatting.
+     *
+     * @param source The template source text
+     * @return The compiled template
+     */
+    public static NotificationTemplate compile(String source) {
+        return compile(source, Locale.US);
+    }
+
+    /**
+     * Compiles a template for the given locale.
+     * The locale decides the decimal separator used for {total}.
+     *
+     * @param source The template source text
+     * @param locale Locale used for number formatting
+     * @return The compiled template
+     * @throws IllegalArgumentException if the source has an unknown or unterminated placeholder
+     */
+    public static NotificationTemplate compile(String source, Locale locale) {
+        List<String> literals = new ArrayList<>();
+        List<TemplateField> fields = new ArrayList<>();
+        int literalStart = 0;
+        int open = source.indexOf('{');
+
+        while (open >= 0) {
+            int close = source.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder in template: " + source);
+            }
+            literals.add(source.substring(literalStart, open));
+            fields.add(TemplateField.fromPlaceholder(source.substring(open + 1, close)));
+            literalStart = close + 1;
+            open = source.indexOf('{', literalStart);
+        }
+
+        char decimalSeparator = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+        return new NotificationTemplate(source,
+                literals.toArray(new String[0]),
+                fields.toArray(new TemplateField[0]),
+                source.substring(literalStart),
+                decimalSeparator);
+    }
+
+    /**
+     * Renders this template into the given buffer.
+     *
+     * @param out Buffer to append to
+     * @param recipient Value for {recipient}
+     * @param order Order supplying {orderId} and {total}
+     * @param trackingNumber Value for {trackingNumber}, may be null if unused
+     * @return The same buffer, for chaining
+     */
+    public StringBuilder renderTo(StringBuilder out, String recipient, Order order, String trackingNumber) {
+        for (int i = 0; i < fields.length; i++) {
+            out.append(literals[i]);
+            switch (fields[i]) {
+                case ORDER_ID:
+                    out.append(order.getOrderId());
+                    break;
+                case RECIPIENT:
+                    out.append(recipient);
+                    break;
+                case TOTAL:
+                    MoneyFormat.appendAmount(out, order.getTotal(), decimalSeparator);
+                    break;
+                case TRACKING_NUMBER:
+                    out.append(trackingNumber);
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled template field: " + fields[i]);
+            }
+        }
+        return out.append(trailingLiteral);
+    }
+
+    /**
+     * Renders this template to a String using the calling thread's reusable buffer.
+     * The only allocation is the resulting String itself.
+     */
+    public String render(String recipient, Order order, String trackingNumber) {
+        StringBuilder buffer = RENDER_BUFFER.get();
+        buffer.setLength(0);
+        return renderTo(buffer, recipient, order, trackingNumber).toString();
+    }
+
+    /**
+     * Gets the calling thread's reusable render buffer, cleared and ready to append to.
+     * Callers must not keep a reference to it beyond the current message.
+     */
+    public static StringBuilder threadBuffer() {
+        StringBuilder buffer = RENDER_BUFFER.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
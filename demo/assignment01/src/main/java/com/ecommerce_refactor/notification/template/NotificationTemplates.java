@@ -0,0 +1,87 @@
+package com.ecommerce_refactor.notification.template;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A complete set of compiled notification templates for one locale.
+ *
+ * Template sets are compiled once and cached per locale, so looking up the
+ * templates for a message is a map lookup rather than a parse.
+ * English is used for any locale without its own variant.
+ */
+public final class NotificationTemplates {
+
+    private static final Locale VIETNAMESE = Locale.forLanguageTag("vi-VN");
+
+    private static final Map<Locale, NotificationTemplates> CACHE = new ConcurrentHashMap<>();
+
+    private final Locale locale;
+    private final EnumMap<TemplateKey, NotificationTemplate> templates;
+
+    /**
+     * Compiles a template set from raw sources.
+     *
+     * @param locale Locale used for number formatting
+     * @param sources Template source text for every {@link TemplateKey}
+     * @throws IllegalArgumentException if a key is missing or a source is invalid
+     */
+    public NotificationTemplates(Locale locale, Map<TemplateKey, String> sources) {
+        this.locale = locale;
+        this.templates = new EnumMap<>(TemplateKey.class);
+        for (TemplateKey key : TemplateKey.values()) {
+            String source = sources.get(key);
+            if (source == null) {
+                throw new IllegalArgumentException("Missing template for " + key + " (" + locale + ")");
+            }
+            templates.put(key, NotificationTemplate.compile(source, locale));
+        }
+    }
+
+    /**
+     * Gets the compiled template set for a locale, compiling it on first use.
+     *
+     * @param locale The customer's locale
+     * @return The cached template set
+     */
+    public static NotificationTemplates forLocale(Locale locale) {
+        return CACHE.computeIfAbsent(locale, NotificationTemplates::compileDefaults);
+    }
+
+    /**
+     * Gets the default (English) template set.
+     */
+    public static NotificationTemplates defaults() {
+        return forLocale(Locale.US);
+    }
+
+    public NotificationTemplate get(TemplateKey key) {
+        return templates.get(key);
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    private static NotificationTemplates compileDefaults(Locale locale) {
+        Map<TemplateKey, String> sources = new EnumMap<>(TemplateKey.class);
+        if (VIETNAMESE.getLanguage().equals(locale.getLanguage())) {
+            sources.put(TemplateKey.CONFIRMATION_SUBJECT, "Xác nhận đơn hàng - {orderId}");
+            sources.put(TemplateKey.CONFIRMATION_BODY, "Cảm ơn bạn đã đặt hàng! Tổng cộng: ${total}");
+            sources.put(TemplateKey.SHIPPED_SUBJECT, "Đơn hàng đã được giao cho vận chuyển - {orderId}");
+            sources.put(TemplateKey.SHIPPED_BODY, "Đơn hàng của bạn đang được vận chuyển. Mã vận đơn: {trackingNumber}");
+            sources.put(TemplateKey.CANCELLED_SUBJECT, "Đơn hàng đã bị hủy - {orderId}");
+            sources.put(TemplateKey.CANCELLED_BODY, "Đơn hàng của bạn đã bị hủy.");
+        } else {
+            sources.put(TemplateKey.CONFIRMATION_SUBJECT, "Order Confirmation - {orderId}");
+            sources.put(TemplateKey.CONFIRMATION_BODY, "Thank you for your order! Total: ${total}");
+            sources.put(TemplateKey.SHIPPED_SUBJECT, "Order Shipped - {orderId}");
+            sources.put(TemplateKey.SHIPPED_BODY, "Your order has been shipped. Tracking number: {trackingNumber}");
+            sources.put(TemplateKey.CANCELLED_SUBJECT, "Order cancelled - {orderId}");
+            sources.put(TemplateKey.CANCELLED_BODY, "Your order has been cancelled.");
+        }
+        return new NotificationTemplates(locale, sources);
+    }
+}
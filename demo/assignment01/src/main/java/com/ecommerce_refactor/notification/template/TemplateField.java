@@ -0,0 +1,38 @@
+package com.ecommerce_refactor.notification.template;
+
+/**
+ * Placeholders that can appear in a notification template.
+ * Each field is written in the template source as {name}, e.g. "Order {orderId}".
+ */
+public enum TemplateField {
+    ORDER_ID("orderId"),
+    RECIPIENT("recipient"),
+    TOTAL("total"),
+    TRACKING_NUMBER("trackingNumber");
+
+    private final String placeholder;
+
+    TemplateField(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
+    public String getPlaceholder() {
+        return placeholder;
+    }
+
+    /**
+     * Resolves a placeholder name to its field.
+     *
+     * @param placeholder The name between the braces
+     * @return The matching field
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static TemplateField fromPlaceholder(String placeholder) {
+        for (TemplateField field : values()) {
+            if (field.placeholder.equals(placeholder)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown template placeholder: {" + placeholder + "}");
+    }
+}
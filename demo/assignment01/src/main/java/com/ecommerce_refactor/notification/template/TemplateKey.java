@@ -0,0 +1,13 @@
+package com.ecommerce_refactor.notification.template;
+
+/**
+ * Identifies each message part that a notification template set provides.
+ */
+public enum TemplateKey {
+    CONFIRMATION_SUBJECT,
+    CONFIRMATION_BODY,
+    SHIPPED_SUBJECT,
+    SHIPPED_BODY,
+    CANCELLED_SUBJECT,
+    CANCELLED_BODY
+}
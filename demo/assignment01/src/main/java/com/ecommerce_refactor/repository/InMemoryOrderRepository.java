@@ -1,29 +1,241 @@
 package com.ecommerce_refactor.repository;
 
 import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.OrderQuery;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
 
 import java.util.ArrayList;
-import java.util.Hashtable;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
+/**
+ * In-memory order store with secondary indexes on customer email and status.
+ *
+ * Indexes hold order IDs (sorted, so index scans come back in creation order) and are
+ * updated incrementally on every save. Orders are mutated in place by the service, so the
+ * status each order was last indexed under is tracked separately: a save moves the ID from
+ * that status set to the current one. Saves of the same order are serialized on the order,
+ * so the last save always leaves the index matching the order's latest status. Readers
+ * re-check each order against the query, so a transition not yet followed by its save
+ * never leaks into a result.
+ */
 public class InMemoryOrderRepository implements OrderRepository {
-    private final List<Order> orders = new ArrayList<>();
+
+    /**
+     * Estimated heap cost of one entry in a ConcurrentSkipListSet on a 64-bit JVM with
+     * compressed oops: a 24-byte node plus, amortized, a quarter of a 24-byte index level
+     * node. The order ID string itself is shared with the primary map, not copied.
+     */
+    public static final int SKIP_LIST_ENTRY_BYTES = 30;
+
+    /**
+     * Estimated heap cost of one entry in the last-indexed-status map: a 32-byte
+     * ConcurrentHashMap node plus its 4-byte table slot at default load factor (x1.33).
+     */
+    public static final int STATUS_TRACKING_ENTRY_BYTES = 37;
+
+    /**
+     * Estimated fixed cost of each distinct customer key: the hash map node and slot
+     * plus an empty ConcurrentSkipListSet with its head index.
+     */
+    public static final int CUSTOMER_KEY_BYTES = 37 + 96;
+
+    // Keyed by order ID: thread-safe, O(log n) lookup, iterates in creation order
+    private final ConcurrentNavigableMap<String, Order> orders = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentMap<String, NavigableSet<String>> ordersByCustomer = new ConcurrentHashMap<>();
+    private final Map<OrderStatus, NavigableSet<String>> ordersByStatus = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, AtomicLong> statusCounts = new EnumMap<>(OrderStatus.class);
+    private final ConcurrentMap<String, OrderStatus> indexedStatus = new ConcurrentHashMap<>();
+
+    public InMemoryOrderRepository() {
+        // Fully populated up front so the enum maps are never written after construction
+        for (OrderStatus status : OrderStatus.values()) {
+            ordersByStatus.put(status, new ConcurrentSkipListSet<>());
+            statusCounts.put(status, new AtomicLong());
+        }
+    }
 
     @Override
     public void save(Order order) {
-        orders.add(order);
+        String orderId = order.getOrderId();
+        synchronized (order) {
+            Order previous = orders.put(orderId, order);
+            if (previous == null) {
+                indexCustomer(order);
+            }
+            reindexStatus(orderId, order.getStatus());
+        }
+    }
+
+    private void indexCustomer(Order order) {
+        if (order.getCustomerEmail() == null) {
+            return;
+        }
+        ordersByCustomer.computeIfAbsent(order.getCustomerEmail(), email -> new ConcurrentSkipListSet<>())
+                        .add(order.getOrderId());
+    }
+
+    private void reindexStatus(String orderId, OrderStatus current) {
+        OrderStatus previous = current == null
+                ? indexedStatus.remove(orderId)
+                : indexedStatus.put(orderId, current);
+        if (previous == current) {
+            return;
+        }
+        if (previous != null) {
+            ordersByStatus.get(previous).remove(orderId);
+            statusCounts.get(previous).decrementAndGet();
+        }
+        if (current != null) {
+            ordersByStatus.get(current).add(orderId);
+            statusCounts.get(current).incrementAndGet();
+        }
     }
 
     @Override
     public List<Order> findAll() {
-        return new ArrayList<>(orders);
+        return new ArrayList<>(orders.values());
     }
 
     @Override
     public Order findById(String orderId) {
-        return orders.stream().filter(order -> order.getOrderId().equals(orderId)).findFirst().orElse(null);
+        return orders.get(orderId);
+    }
+
+    @Override
+    public List<Order> findByCustomerEmail(String customerEmail) {
+        NavigableSet<String> ids = ordersByCustomer.get(customerEmail);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Order> result = new ArrayList<>();
+        for (String id : ids) {
+            Order order = orders.get(id);
+            if (order != null) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Order> findByStatus(OrderStatus status) {
+        List<Order> result = new ArrayList<>();
+        for (String id : ordersByStatus.get(status)) {
+            Order order = orders.get(id);
+            // The order may have moved on since it was indexed; skip it until its save lands
+            if (order != null && order.getStatus() == status) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long countByStatus(OrderStatus status) {
+        return statusCounts.get(status).get();
+    }
+
+    /**
+     * @return The status the order had when it was last saved, or null if it was never saved
+     */
+    public OrderStatus getSavedStatus(String orderId) {
+        return indexedStatus.get(orderId);
+    }
+
+    @Override
+    public Stream<Order> streamAfter(String afterOrderId) {
+        ConcurrentNavigableMap<String, Order> view =
+                afterOrderId == null ? orders : orders.tailMap(afterOrderId, false);
+        return view.values().stream();
+    }
+
+    @Override
+    public Stream<Order> streamMatching(OrderQuery query) {
+        NavigableSet<String> index;
+        if (query.getCustomerEmail() != null) {
+            // A customer usually has far fewer orders than any status bucket
+            index = ordersByCustomer.get(query.getCustomerEmail());
+            if (index == null) {
+                return Stream.empty();
+            }
+        } else if (query.getStatus() != null) {
+            index = ordersByStatus.get(query.getStatus());
+        } else {
+            return streamAfter(query.getCursor()).filter(query::matches);
+        }
+
+        NavigableSet<String> ids = query.getCursor() == null ? index : index.tailSet(query.getCursor(), false);
+        return ids.stream()
+                  .map(orders::get)
+                  .filter(Objects::nonNull)
+                  .filter(query::matches);
     }
 
-    Map<Integer, String> hs = new Hashtable<>();
+    /**
+     * Reports the current size and estimated heap overhead of the secondary indexes.
+     */
+    public IndexStats getIndexStats() {
+        long orderCount = indexedStatus.size();
+        long customerEntries = 0;
+        for (NavigableSet<String> ids : ordersByCustomer.values()) {
+            customerEntries += ids.size();
+        }
+        long customerKeys = ordersByCustomer.size();
+        long bytes = customerEntries * SKIP_LIST_ENTRY_BYTES
+                   + customerKeys * CUSTOMER_KEY_BYTES
+                   + orderCount * (SKIP_LIST_ENTRY_BYTES + STATUS_TRACKING_ENTRY_BYTES);
+        return new IndexStats(orderCount, customerKeys, bytes);
+    }
+
+    /**
+     * Size and estimated memory footprint of the order indexes.
+     */
+    public static final class IndexStats {
+        private final long indexedOrders;
+        private final long customerKeys;
+        private final long estimatedBytes;
+
+        IndexStats(long indexedOrders, long customerKeys, long estimatedBytes) {
+            this.indexedOrders = indexedOrders;
+            this.customerKeys = customerKeys;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        public long getIndexedOrders() {
+            return indexedOrders;
+        }
+
+        public long getCustomerKeys() {
+            return customerKeys;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        /**
+         * @return Estimated index bytes per stored order, or 0 if the store is empty
+         */
+        public double getBytesPerOrder() {
+            return indexedOrders == 0 ? 0 : (double) estimatedBytes / indexedOrders;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d orders, %d customers, ~%d bytes (~%.0f bytes/order)",
+                                 indexedOrders, customerKeys, estimatedBytes, getBytesPerOrder());
+        }
+    }
 }
@@ -4,26 +4,53 @@ import com.ecommerce_refactor.model.Product;
 import com.ecommerce_refactor.model.enumeration.ProductCategory;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class InMemoryProductRepository implements ProductRepository {
-    List<Product> products = new ArrayList<>();
+    // Keyed by product ID for O(1) lookups, insertion-ordered for listing
+    private final Map<String, Product> products = new LinkedHashMap<>();
 
     public InMemoryProductRepository(){
-        products.add(new Product("P001", "Laptop", 999.99, ProductCategory.ELECTRONICS, 50));
-        products.add(new Product("P002", "T-Shirt", 29.99,  ProductCategory.CLOTHING, 50));
-        products.add(new Product("P003", "Coffee Beans", 15.99,  ProductCategory.FOOD, 50));
-        products.add(new Product("P004", "Headphones", 149.99, ProductCategory.ELECTRONICS, 50));
+        add(new Product("P001", "Laptop", 999.99, ProductCategory.ELECTRONICS, 50));
+        add(new Product("P002", "T-Shirt", 29.99,  ProductCategory.CLOTHING, 50));
+        add(new Product("P003", "Coffee Beans", 15.99,  ProductCategory.FOOD, 50));
+        add(new Product("P004", "Headphones", 149.99, ProductCategory.ELECTRONICS, 50));
+    }
+
+    public InMemoryProductRepository(Collection<Product> initialProducts) {
+        for (Product product : initialProducts) {
+            add(product);
+        }
     }
 
     @Override
     public Optional<Product> getProductById(String productId) {
-        return products.stream().filter(p -> p.getProductId().equals(productId)).findFirst();
+        return Optional.ofNullable(products.get(productId));
     }
 
     @Override
     public List<Product> getAllProducts() {
-        return new ArrayList<>(products);
+        return new ArrayList<>(products.values());
+    }
+
+    @Override
+    public Map<String, Product> getProductsByIds(Collection<String> productIds) {
+        Map<String, Product> found = new HashMap<>();
+        for (String productId : productIds) {
+            Product product = products.get(productId);
+            if (product != null) {
+                found.put(productId, product);
+            }
+        }
+        return found;
+    }
+
+    private void add(Product product) {
+        products.put(product.getProductId(), product);
     }
 }
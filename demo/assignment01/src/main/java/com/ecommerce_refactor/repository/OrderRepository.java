@@ -1,12 +1,50 @@
 package com.ecommerce_refactor.repository;
 
 import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.OrderQuery;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository {
     void save(Order order) ;
     List<Order> findAll();
     Order findById(String orderId) ;
+
+    /**
+     * @param customerEmail The customer to look up
+     * @return The customer's orders in creation order, empty if none
+     */
+    List<Order> findByCustomerEmail(String customerEmail);
+
+    /**
+     * @param status The status to look up
+     * @return Orders currently in that status, in creation order
+     */
+    List<Order> findByStatus(OrderStatus status);
+
+    /**
+     * @param status The status to count
+     * @return Number of saved orders currently indexed under that status
+     */
+    long countByStatus(OrderStatus status);
+
+    /**
+     * Lazily streams orders in creation order without copying the store.
+     * The stream is weakly consistent: orders saved while it is being read may or may not appear.
+     *
+     * @param afterOrderId Only orders created after this one; null for all orders
+     * @return Stream over the stored orders
+     */
+    Stream<Order> streamAfter(String afterOrderId);
+
+    /**
+     * Lazily streams orders matching the query's filters, after its cursor, in creation order.
+     * The page size is not applied here.
+     *
+     * @param query Filters and optional cursor
+     * @return Stream of matching orders
+     */
+    Stream<Order> streamMatching(OrderQuery query);
 }
@@ -2,11 +2,20 @@ package com.ecommerce_refactor.repository;
 
 import com.ecommerce_refactor.model.Product;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ProductRepository {
     Optional<Product> getProductById(String productId);
     List<Product> getAllProducts();
+
+    /**
+     * Looks up many products in one pass.
+     *
+     * @param productIds IDs to resolve; duplicates are allowed
+     * @return Found products keyed by ID; unknown IDs are absent
+     */
+    Map<String, Product> getProductsByIds(Collection<String> productIds);
 }
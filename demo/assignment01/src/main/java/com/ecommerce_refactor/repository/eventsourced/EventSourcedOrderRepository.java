@@ -0,0 +1,198 @@
+package com.ecommerce_refactor.repository.eventsourced;
+
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.OrderQuery;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+import com.ecommerce_refactor.repository.InMemoryOrderRepository;
+import com.ecommerce_refactor.repository.OrderRepository;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Order repository that records every change as an event in an append-only log.
+ *
+ * A save of a new order appends OrderCreated. A save that finds the order in a different
+ * status than last time appends the matching Confirmed/Cancelled/Shipped event. The
+ * current state is projected into an indexed {@link InMemoryOrderRepository}, which
+ * serves all reads. Only status changes are recorded, since that is all the service
+ * ever changes on an existing order.
+ *
+ * Every {@code snapshotInterval} events, a background thread folds the new events into
+ * the previous snapshot. It reads only the log, so it never blocks saves. Use
+ * {@link #recover} to rebuild a repository from the latest snapshot plus the log's tail.
+ */
+public class EventSourcedOrderRepository implements OrderRepository, AutoCloseable {
+
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 10_000;
+
+    private final OrderEventLog log;
+    private final InMemoryOrderRepository projection;
+    private final int snapshotInterval;
+    private final ExecutorService snapshotExecutor;
+    private final AtomicBoolean snapshotInFlight = new AtomicBoolean();
+    private volatile OrderSnapshot latestSnapshot;
+
+    public EventSourcedOrderRepository(OrderEventLog log) {
+        this(log, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public EventSourcedOrderRepository(OrderEventLog log, int snapshotInterval) {
+        this(log, new InMemoryOrderRepository(), OrderSnapshot.empty(), snapshotInterval);
+        if (log.size() > 0) {
+            throw new IllegalArgumentException("Log already has events; use recover() to load it");
+        }
+    }
+
+    private EventSourcedOrderRepository(OrderEventLog log, InMemoryOrderRepository projection,
+                                        OrderSnapshot snapshot, int snapshotInterval) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("snapshotInterval must be positive: " + snapshotInterval);
+        }
+        this.log = log;
+        this.projection = projection;
+        this.latestSnapshot = snapshot;
+        this.snapshotInterval = snapshotInterval;
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Rebuilds a repository from a snapshot and the events the log holds after it.
+     *
+     * @param log The event log to recover from and keep appending to
+     * @param snapshot Latest snapshot of that log, or {@link OrderSnapshot#empty()} to replay everything
+     * @param snapshotInterval Events between background snapshots
+     * @param parallelism Number of orderId partitions projected concurrently
+     */
+    public static EventSourcedOrderRepository recover(OrderEventLog log, OrderSnapshot snapshot,
+                                                      int snapshotInterval, int parallelism) {
+        if (snapshot.getOffset() > log.size()) {
+            throw new IllegalArgumentException("Snapshot offset " + snapshot.getOffset()
+                    + " is beyond the end of the log (" + log.size() + ")");
+        }
+        InMemoryOrderRepository projection = new InMemoryOrderRepository();
+        long end = log.size();
+        OrderProjector.projectParallel(snapshot, log, end, parallelism, projection);
+        return new EventSourcedOrderRepository(log, projection, snapshot, snapshotInterval);
+    }
+
+    @Override
+    public void save(Order order) {
+        OrderEvent last = null;
+        synchronized (order) {
+            OrderStatus current = order.getStatus();
+            OrderStatus saved = projection.getSavedStatus(order.getOrderId());
+            if (projection.findById(order.getOrderId()) == null) {
+                last = log.appendCreated(order);
+                saved = OrderEventType.CREATED.getResultingStatus();
+            }
+            if (current != null && current != saved) {
+                last = log.appendTransition(order.getOrderId(), OrderEventType.forStatus(current));
+            }
+            projection.save(order);
+        }
+        if (last != null && last.getSequence() + 1 - latestSnapshot.getOffset() >= snapshotInterval) {
+            scheduleSnapshot();
+        }
+    }
+
+    private void scheduleSnapshot() {
+        if (!snapshotInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        snapshotExecutor.execute(() -> {
+            try {
+                install(OrderProjector.advance(latestSnapshot, log, log.size()));
+            } finally {
+                snapshotInFlight.set(false);
+            }
+        });
+    }
+
+    /**
+     * Folds every event logged so far into a new snapshot, on the caller's thread.
+     *
+     * @return The new snapshot
+     */
+    public OrderSnapshot snapshotNow() {
+        return install(OrderProjector.advance(latestSnapshot, log, log.size()));
+    }
+
+    // A slow background snapshot must not replace a newer one taken by snapshotNow
+    private synchronized OrderSnapshot install(OrderSnapshot snapshot) {
+        if (snapshot.getOffset() > latestSnapshot.getOffset()) {
+            latestSnapshot = snapshot;
+        }
+        return latestSnapshot;
+    }
+
+    /**
+     * @return The most recent snapshot; events from its offset on are only in the log
+     */
+    public OrderSnapshot getLatestSnapshot() {
+        return latestSnapshot;
+    }
+
+    public OrderEventLog getLog() {
+        return log;
+    }
+
+    /**
+     * Visits the history of one order in log order.
+     */
+    public void replayOrder(String orderId, Consumer<OrderEvent> visitor) {
+        log.read(0, log.size(), event -> {
+            if (event.getOrderId().equals(orderId)) {
+                visitor.accept(event);
+            }
+        });
+    }
+
+    @Override
+    public List<Order> findAll() {
+        return projection.findAll();
+    }
+
+    @Override
+    public Order findById(String orderId) {
+        return projection.findById(orderId);
+    }
+
+    @Override
+    public List<Order> findByCustomerEmail(String customerEmail) {
+        return projection.findByCustomerEmail(customerEmail);
+    }
+
+    @Override
+    public List<Order> findByStatus(OrderStatus status) {
+        return projection.findByStatus(status);
+    }
+
+    @Override
+    public long countByStatus(OrderStatus status) {
+        return projection.countByStatus(status);
+    }
+
+    @Override
+    public Stream<Order> streamAfter(String afterOrderId) {
+        return projection.streamAfter(afterOrderId);
+    }
+
+    @Override
+    public Stream<Order> streamMatching(OrderQuery query) {
+        return projection.streamMatching(query);
+    }
+
+    @Override
+    public void close() {
+        snapshotExecutor.shutdown();
+    }
+}
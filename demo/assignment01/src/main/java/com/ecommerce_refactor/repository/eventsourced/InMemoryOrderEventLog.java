@@ -0,0 +1,62 @@
+package com.ecommerce_refactor.repository.eventsourced;
+
+import com.ecommerce_refactor.model.Order;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Event log held in fixed-size chunks.
+ *
+ * Appends are serialized; reads are lock-free. A chunk is never resized or moved once
+ * allocated, and the volatile size is published only after the event is stored, so any
+ * reader that sees a size also sees every event below it.
+ */
+public class InMemoryOrderEventLog implements OrderEventLog {
+
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // New chunks are rare (every 4096 events), so copy-on-write keeps reads lock-free
+    private final List<OrderEvent[]> chunks = new CopyOnWriteArrayList<>();
+    private volatile long size;
+
+    @Override
+    public synchronized OrderEvent appendCreated(Order order) {
+        return store(OrderEvent.created(size, order, System.currentTimeMillis()));
+    }
+
+    @Override
+    public synchronized OrderEvent appendTransition(String orderId, OrderEventType type) {
+        if (type == OrderEventType.CREATED) {
+            throw new IllegalArgumentException("Use appendCreated for CREATED events");
+        }
+        return store(OrderEvent.transitioned(size, type, orderId, System.currentTimeMillis()));
+    }
+
+    private OrderEvent store(OrderEvent event) {
+        long sequence = event.getSequence();
+        int chunkIndex = (int) (sequence >>> CHUNK_SHIFT);
+        if (chunkIndex == chunks.size()) {
+            chunks.add(new OrderEvent[CHUNK_SIZE]);
+        }
+        chunks.get(chunkIndex)[(int) (sequence & CHUNK_MASK)] = event;
+        size = sequence + 1;
+        return event;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void read(long fromSequence, long toSequence, Consumer<OrderEvent> visitor) {
+        long end = Math.min(toSequence, size);
+        for (long sequence = Math.max(0, fromSequence); sequence < end; sequence++) {
+            visitor.accept(chunks.get((int) (sequence >>> CHUNK_SHIFT))[(int) (sequence & CHUNK_MASK)]);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce_refactor.repository.eventsourced;
+
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.OrderItem;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable entry of the order event log.
+ * Only CREATED events carry the order's details; the others just name the order.
+ */
+public final class OrderEvent {
+    private final long sequence;
+    private final OrderEventType type;
+    private final String orderId;
+    private final long timestamp;
+    private final String customerEmail;
+    private final List<OrderItem> orderItems;
+    private final double total;
+    private final String shippingAddress;
+
+    private OrderEvent(long sequence, OrderEventType type, String orderId, long timestamp,
+                       String customerEmail, List<OrderItem> orderItems, double total, String shippingAddress) {
+        this.sequence = sequence;
+        this.type = type;
+        this.orderId = orderId;
+        this.timestamp = timestamp;
+        this.customerEmail = customerEmail;
+        this.orderItems = orderItems;
+        this.total = total;
+        this.shippingAddress = shippingAddress;
+    }
+
+    static OrderEvent created(long sequence, Order order, long timestamp) {
+        List<OrderItem> items = order.getOrderItems() == null
+                ? Collections.emptyList()
+                : List.copyOf(order.getOrderItems());
+        return new OrderEvent(sequence, OrderEventType.CREATED, order.getOrderId(), timestamp,
+                order.getCustomerEmail(), items, order.getTotal(), order.getShippingAddress());
+    }
+
+    static OrderEvent transitioned(long sequence, OrderEventType type, String orderId, long timestamp) {
+        return new OrderEvent(sequence, type, orderId, timestamp, null, null, 0, null);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public OrderEventType getType() {
+        return type;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /** Only set on CREATED events. */
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    /** Only set on CREATED events. */
+    public List<OrderItem> getOrderItems() {
+        return orderItems;
+    }
+
+    /** Only set on CREATED events. */
+    public double getTotal() {
+        return total;
+    }
+
+    /** Only set on CREATED events. */
+    public String getShippingAddress() {
+        return shippingAddress;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " " + orderId;
+    }
+}
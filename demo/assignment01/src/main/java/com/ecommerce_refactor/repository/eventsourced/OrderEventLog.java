@@ -0,0 +1,36 @@
+package com.ecommerce_refactor.repository.eventsourced;
+
+import com.ecommerce_refactor.model.Order;
+
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of order events. Sequence numbers start at 0 and have no gaps.
+ */
+public interface OrderEventLog {
+
+    /**
+     * Appends a CREATED event for a new order.
+     *
+     * @return The appended event
+     */
+    OrderEvent appendCreated(Order order);
+
+    /**
+     * Appends a status change event.
+     *
+     * @return The appended event
+     */
+    OrderEvent appendTransition(String orderId, OrderEventType type);
+
+    /**
+     * @return Number of events appended so far, which is also the next sequence number
+     */
+    long size();
+
+    /**
+     * Visits events with sequence in [fromSequence, toSequence) in order.
+     * Events appended concurrently beyond toSequence are not visited.
+     */
+    void read(long fromSequence, long toSequence, Consumer<OrderEvent> visitor);
+}
@@ -0,0 +1,38 @@
+package com.ecommerce_refactor.repository.eventsourced;
+
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+
+/**
+ * Kinds of order events; each one leaves the order in exactly one status.
+ */
+public enum OrderEventType {
+    CREATED(OrderStatus.PENDING),
+    CONFIRMED(OrderStatus.CONFIRMED),
+    CANCELLED(OrderStatus.CANCELLED),
+    SHIPPED(OrderStatus.SHIPPED);
+
+    private static final OrderEventType[] BY_STATUS = new OrderEventType[OrderStatus.values().length];
+
+    static {
+        for (OrderEventType type : values()) {
+            BY_STATUS[type.resultingStatus.ordinal()] = type;
+        }
+    }
+
+    private final OrderStatus resultingStatus;
+
+    OrderEventType(OrderStatus resultingStatus) {
+        this.resultingStatus = resultingStatus;
+    }
+
+    public OrderStatus getResultingStatus() {
+        return resultingStatus;
+    }
+
+    /**
+     * @return The event type that moves an order into the given status
+     */
+    public static OrderEventType forStatus(OrderStatus status) {
+        return BY_STATUS[status.ordinal()];
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce_refactor.repository.eventsourced;
+
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+import com.ecommerce_refactor.repository.InMemoryOrderRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Folds order events into state, either sequentially (for snapshots) or
+ * in parallel partitions (for recovery).
+ */
+final class OrderProjector {
+
+    private OrderProjector() {
+    }
+
+    static void apply(Map<String, OrderState> states, OrderEvent event) {
+        if (event.getType() == OrderEventType.CREATED) {
+            states.put(event.getOrderId(), OrderState.created(event));
+        } else {
+            OrderStatus target = event.getType().getResultingStatus();
+            states.computeIfPresent(event.getOrderId(), (id, state) -> state.withStatus(target));
+        }
+    }
+
+    /**
+     * Builds the snapshot that follows base once the events in [base offset, toSequence) are applied.
+     */
+    static OrderSnapshot advance(OrderSnapshot base, OrderEventLog log, long toSequence) {
+        Map<String, OrderState> states = new HashMap<>(base.getOrders());
+        log.read(base.getOffset(), toSequence, event -> apply(states, event));
+        return new OrderSnapshot(Math.max(base.getOffset(), toSequence), states);
+    }
+
+    /**
+     * Projects base plus the events in [base offset, toSequence) into the target repository.
+     *
+     * Each worker owns the orders whose ID hashes to its partition. It reads the whole tail
+     * in sequence order and skips the other partitions' events, so one order's events are
+     * always applied in order by one thread, with no hand-off queues between them.
+     */
+    static void projectParallel(OrderSnapshot base, OrderEventLog log, long toSequence,
+                                int partitions, InMemoryOrderRepository target) {
+        if (partitions <= 1) {
+            saveAll(advance(base, log, toSequence).getOrders(), target);
+            return;
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(partitions);
+        try {
+            List<Future<?>> futures = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++) {
+                int partition = p;
+                futures.add(workers.submit(() -> projectPartition(base, log, toSequence, partition, partitions, target)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Order recovery interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Order recovery failed", e.getCause());
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    private static void projectPartition(OrderSnapshot base, OrderEventLog log, long toSequence,
+                                         int partition, int partitions, InMemoryOrderRepository target) {
+        Map<String, OrderState> states = new HashMap<>();
+        for (OrderState state : base.getOrders().values()) {
+            if (partitionOf(state.getOrderId(), partitions) == partition) {
+                states.put(state.getOrderId(), state);
+            }
+        }
+        log.read(base.getOffset(), toSequence, event -> {
+            if (partitionOf(event.getOrderId(), partitions) == partition) {
+                apply(states, event);
+            }
+        });
+        saveAll(states, target);
+    }
+
+    private static void saveAll(Map<String, OrderState> states, InMemoryOrderRepository target) {
+        for (OrderState state : states.values()) {
+            target.save(state.toOrder());
+        }
+    }
+
+    static int partitionOf(String orderId, int partitions) {
+        return Math.floorMod(orderId.hashCode(), partitions);
+    }
+}
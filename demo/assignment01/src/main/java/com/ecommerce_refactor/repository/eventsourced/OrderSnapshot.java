@@ -0,0 +1,41 @@
+package com.ecommerce_refactor.repository.eventsourced;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Compact state of every order after the first {@link #getOffset()} events of the log:
+ * one entry per order, however many events it had. Recovery loads a snapshot and
+ * replays only the events from its offset on.
+ */
+public final class OrderSnapshot {
+
+    private static final OrderSnapshot EMPTY = new OrderSnapshot(0, Collections.emptyMap());
+
+    private final long offset;
+    private final Map<String, OrderState> orders;
+
+    OrderSnapshot(long offset, Map<String, OrderState> orders) {
+        this.offset = offset;
+        this.orders = Collections.unmodifiableMap(orders);
+    }
+
+    public static OrderSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return Number of log events folded into this snapshot
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public Map<String, OrderState> getOrders() {
+        return orders;
+    }
+
+    public int size() {
+        return orders.size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce_refactor.repository.eventsourced;
+
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.OrderItem;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable projected state of one order, as folded from its events.
+ * Snapshots hold these instead of live {@link Order} objects so they can be shared safely.
+ */
+public final class OrderState {
+    private final String orderId;
+    private final String customerEmail;
+    private final List<OrderItem> orderItems;
+    private final double total;
+    private final OrderStatus status;
+    private final String shippingAddress;
+
+    private OrderState(String orderId, String customerEmail, List<OrderItem> orderItems,
+                       double total, OrderStatus status, String shippingAddress) {
+        this.orderId = orderId;
+        this.customerEmail = customerEmail;
+        this.orderItems = orderItems;
+        this.total = total;
+        this.status = status;
+        this.shippingAddress = shippingAddress;
+    }
+
+    static OrderState created(OrderEvent event) {
+        return new OrderState(event.getOrderId(), event.getCustomerEmail(), event.getOrderItems(),
+                event.getTotal(), OrderEventType.CREATED.getResultingStatus(), event.getShippingAddress());
+    }
+
+    OrderState withStatus(OrderStatus newStatus) {
+        return newStatus == status
+                ? this
+                : new OrderState(orderId, customerEmail, orderItems, total, newStatus, shippingAddress);
+    }
+
+    /**
+     * @return A new mutable order carrying this state
+     */
+    public Order toOrder() {
+        return new Order(orderId, customerEmail, new ArrayList<>(orderItems), total, status, shippingAddress);
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public List<OrderItem> getOrderItems() {
+        return orderItems;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public String getShippingAddress() {
+        return shippingAddress;
+    }
+}
@@ -1,6 +1,15 @@
 package com.ecommerce_refactor.service;
 
+import com.ecommerce_refactor.model.OrderLine;
+import com.ecommerce_refactor.model.OrderPage;
+import com.ecommerce_refactor.model.OrderQuery;
+import com.ecommerce_refactor.model.OrderRequest;
+import com.ecommerce_refactor.model.OrderResult;
+import com.ecommerce_refactor.model.OrderSummary;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Service interface for order management operations.
@@ -14,9 +23,10 @@ public interface OrderService {
     
     /**
      * Creates a new order with the specified details.
+     * A product listed several times is ordered that many times.
      * 
      * @param customerEmail Customer's email address
-     * @param productIds List of product IDs to order
+     * @param productIds List of product IDs to order, one entry per unit
      * @param paymentMethod Payment method to use
      * @param shippingAddress Shipping address for the order
      * @return Order ID if successful, null if failed
@@ -24,6 +34,30 @@ public interface OrderService {
     String createOrder(String customerEmail, List<String> productIds, 
                       String paymentMethod, String shippingAddress);
     
+    /**
+     * Creates a new order from (productId, quantity) lines.
+     * Lines for the same product are merged first, so lookup, pricing and
+     * stock reservation run once per distinct product.
+     * 
+     * @param customerEmail Customer's email address
+     * @param lines Products and quantities to order
+     * @param paymentMethod Payment method to use
+     * @param shippingAddress Shipping address for the order
+     * @return Order ID if successful, null if failed
+     */
+    String createOrderFromLines(String customerEmail, List<OrderLine> lines,
+                                String paymentMethod, String shippingAddress);
+    
+    /**
+     * Creates a batch of orders in one pass.
+     * Products are resolved and priced once for the whole batch, stock is reserved
+     * per product, and payments run concurrently. Each order succeeds or fails on its own.
+     * 
+     * @param requests The orders to create
+     * @return One result per request, in the same order
+     */
+    List<OrderResult> createOrders(List<OrderRequest> requests);
+    
     /**
      * Confirms an order (alternative flow if orders start in pending state).
      * 
@@ -40,6 +74,17 @@ public interface OrderService {
      */
     boolean cancelOrder(String orderId);
     
+    /**
+     * Cancels many orders in one pass.
+     * Each order changes status atomically on its own; stock given back by all of
+     * them is summed per product and released or restocked once per product, and
+     * customers are notified in one batch.
+     * 
+     * @param orderIds The orders to cancel; an already cancelled order counts as success
+     * @return One result per order ID, in iteration order
+     */
+    List<OrderResult> cancelOrders(Collection<String> orderIds);
+    
     /**
      * Ships an order with tracking information.
      * 
@@ -53,6 +98,26 @@ public interface OrderService {
      * Retrieves all orders in the system.
      * 
      * @return List of all orders
+     * @deprecated Copies and formats every order; use {@link #listOrders(OrderQuery)}
+     *             or {@link #streamOrders(OrderQuery)} instead
      */
+    @Deprecated
     List<String> getAllOrders();
+    
+    /**
+     * Returns one page of orders matching the query, in creation order.
+     * 
+     * @param query Filters, cursor and page size
+     * @return The page and the cursor for the next one
+     */
+    OrderPage listOrders(OrderQuery query);
+    
+    /**
+     * Lazily streams all orders matching the query's filters, starting after its cursor.
+     * The page size is ignored; orders are read from the store as the stream is consumed.
+     * 
+     * @param query Filters and optional starting cursor
+     * @return Stream of matching order summaries
+     */
+    Stream<OrderSummary> streamOrders(OrderQuery query);
 }
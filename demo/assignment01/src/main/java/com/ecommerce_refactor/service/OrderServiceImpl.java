@@ -1,8 +1,16 @@
 package com.ecommerce_refactor.service;
 
+import com.ecommerce_refactor.analytics.AnalyticsService;
+import com.ecommerce_refactor.analytics.ConsoleAnalyticsService;
 import com.ecommerce_refactor.discount.DiscountService;
 import com.ecommerce_refactor.model.Order;
 import com.ecommerce_refactor.model.OrderItem;
+import com.ecommerce_refactor.model.OrderLine;
+import com.ecommerce_refactor.model.OrderPage;
+import com.ecommerce_refactor.model.OrderQuery;
+import com.ecommerce_refactor.model.OrderRequest;
+import com.ecommerce_refactor.model.OrderResult;
+import com.ecommerce_refactor.model.OrderSummary;
 import com.ecommerce_refactor.model.Product;
 import com.ecommerce_refactor.model.enumeration.OrderStatus;
 import com.ecommerce_refactor.notification.NotificationService;
@@ -11,8 +19,20 @@ import com.ecommerce_refactor.repository.OrderRepository;
 import com.ecommerce_refactor.repository.ProductRepository;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of OrderService interface.
@@ -23,18 +43,30 @@ import java.util.Optional;
  * - Liskov Substitution: Can be substituted wherever OrderService is used
  * - Interface Segregation: Depends only on focused interfaces
  * - Dependency Inversion: Depends on abstractions (interfaces), not concrete classes
+ * 
+ * Thread safety: lifecycle transitions go through {@link OrderStateMachine}, which
+ * uses compare-and-set on the order status, and stock changes lock only the affected
+ * product. The service can be shared by many threads without a global lock.
  */
 public class OrderServiceImpl implements OrderService {
     
+    // Shared by all service instances so generated IDs never collide. The lock pairs each
+    // sequence number with its timestamp; it is held for two field updates only.
+    private static final Object ORDER_ID_LOCK = new Object();
+    private static long orderSequence;
+    private static long lastOrderMillis;
+    
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
     private final PaymentProcessor paymentProcessor;
     private final NotificationService notificationService;
     private final DiscountService discountService;
+    private final AnalyticsService analyticsService;
     
     /**
      * Constructor with dependency injection.
      * All dependencies are injected as interfaces, following Dependency Inversion Principle.
+     * Analytics are written to the console.
      * 
      * @param productRepository Repository for product data access
      * @param orderRepository Repository for order data access
@@ -47,65 +79,96 @@ public class OrderServiceImpl implements OrderService {
                            PaymentProcessor paymentProcessor,
                            NotificationService notificationService,
                            DiscountService discountService) {
+        this(productRepository, orderRepository, paymentProcessor, notificationService,
+             discountService, new ConsoleAnalyticsService());
+    }
+    
+    /**
+     * Constructor with dependency injection, including the analytics sink.
+     * 
+     * @param productRepository Repository for product data access
+     * @param orderRepository Repository for order data access
+     * @param paymentProcessor Payment processing service
+     * @param notificationService Notification delivery service
+     * @param discountService Discount calculation service
+     * @param analyticsService Receiver of order events for analytics
+     */
+    public OrderServiceImpl(ProductRepository productRepository,
+                           OrderRepository orderRepository,
+                           PaymentProcessor paymentProcessor,
+                           NotificationService notificationService,
+                           DiscountService discountService,
+                           AnalyticsService analyticsService) {
         this.productRepository = productRepository;
         this.orderRepository = orderRepository;
         this.paymentProcessor = paymentProcessor;
         this.notificationService = notificationService;
         this.discountService = discountService;
+        this.analyticsService = analyticsService;
     }
     
     @Override
     public String createOrder(String customerEmail, List<String> productIds, 
                              String paymentMethod, String shippingAddress) {
+        return createOrderFromLines(customerEmail, OrderLine.fromProductIds(productIds),
+                                    paymentMethod, shippingAddress);
+    }
+    
+    @Override
+    public String createOrderFromLines(String customerEmail, List<OrderLine> lines,
+                                       String paymentMethod, String shippingAddress) {
         
-        // Step 1: Validate products and reserve stock
+        // Step 1: Validate products and reserve stock, once per distinct product
         List<OrderItem> orderItems = new ArrayList<>();
-        List<Product> productsToReserve = new ArrayList<>();
+        Map<Product, Integer> reservedSoFar = new LinkedHashMap<>();
         double subtotal = 0;
         int itemId = 1;
         
-        for (String productId : productIds) {
+        for (OrderLine line : OrderLine.merge(lines)) {
+            String productId = line.getProductId();
+            int quantity = line.getQuantity();
             Optional<Product> productOpt = productRepository.getProductById(productId);
             
             if (productOpt.isEmpty()) {
                 System.out.println("ERROR: Product not found: " + productId);
+                releaseReservedStock(reservedSoFar);
                 return null;
             }
             
             Product product = productOpt.get();
             
             // Check available stock (on-hand - reserved)
-            if (product.getAvailableStock() <= 0) {
+            if (product.getAvailableStock() < quantity) {
                 System.out.println("ERROR: Out of stock: " + product.getName());
                 System.out.println("  On-hand: " + product.getOnHandStock() 
                                  + ", Reserved: " + product.getReservedStock() 
-                                 + ", Available: " + product.getAvailableStock());
+                                 + ", Available: " + product.getAvailableStock()
+                                 + ", Requested: " + quantity);
                 // Release any already reserved stock
-                releaseReservedStock(productsToReserve);
+                releaseReservedStock(reservedSoFar);
                 return null;
             }
             
             // Apply discount using DiscountService
-            double originalPrice = product.getPrice();
             double discountedPrice = discountService.calculateDiscountedPrice(product);
             
             // Create order item
-            OrderItem orderItem = new OrderItem(itemId++, productId, 1, 
-                                               discountedPrice, discountedPrice);
+            OrderItem orderItem = new OrderItem(itemId++, productId, quantity, 
+                                               discountedPrice, discountedPrice * quantity);
             orderItems.add(orderItem);
-            subtotal += discountedPrice;
+            subtotal += discountedPrice * quantity;
             
             // Reserve stock (increase Reserved, decrease Available, On-hand UNCHANGED)
-            if (product.reserveStock(1)) {
-                productsToReserve.add(product);
-                System.out.println("[STOCK] Reserved 1x " + product.getName() 
+            if (product.reserveStock(quantity)) {
+                reservedSoFar.put(product, quantity);
+                System.out.println("[STOCK] Reserved " + quantity + "x " + product.getName() 
                                  + " (On-hand: " + product.getOnHandStock()
                                  + ", Reserved: " + product.getReservedStock()
                                  + ", Available: " + product.getAvailableStock() + ")");
             } else {
                 System.out.println("ERROR: Failed to reserve stock for: " + product.getName());
                 // Release any already reserved stock
-                releaseReservedStock(productsToReserve);
+                releaseReservedStock(reservedSoFar);
                 return null;
             }
         }
@@ -114,18 +177,25 @@ public class OrderServiceImpl implements OrderService {
         double paymentFee = paymentProcessor.calculateFee(subtotal);
         double total = subtotal + paymentFee;
         
-        // Step 3: Process payment
-        boolean paymentSuccess = paymentProcessor.processPayment(total);
+        // Step 3: Process payment; a gateway error must not keep the stock reserved
+        boolean paymentSuccess;
+        try {
+            paymentSuccess = paymentProcessor.processPayment(total);
+        } catch (RuntimeException e) {
+            System.out.println("ERROR: Payment failed: " + e.getMessage());
+            releaseReservedStock(reservedSoFar);
+            throw e;
+        }
         
         if (!paymentSuccess) {
             System.out.println("ERROR: Payment failed!");
             // Release reserved stock
-            releaseReservedStock(productsToReserve);
+            releaseReservedStock(reservedSoFar);
             return null;
         }
         
         // Step 4: Create and save order with PENDING status
-        String orderId = "ORD-" + System.currentTimeMillis();
+        String orderId = nextOrderId();
         Order order = new Order(orderId, customerEmail, orderItems, 
                                total, OrderStatus.PENDING, shippingAddress);
         orderRepository.save(order);
@@ -136,12 +206,82 @@ public class OrderServiceImpl implements OrderService {
         // Step 6: Log order creation
         System.out.println("[LOG] Order created: " + orderId + " for customer " + customerEmail);
         System.out.println("[LOG] Order status: PENDING (stock reserved, awaiting confirmation)");
-        System.out.println("[ANALYTICS] New order: $" + String.format("%.2f", total) 
-                         + " via " + paymentMethod);
+        analyticsService.trackOrderCreated(order, paymentMethod);
         
         return orderId;
     }
     
+    @Override
+    public List<OrderResult> createOrders(List<OrderRequest> requests) {
+        // Step 1: Resolve every product in the batch with one repository pass
+        Set<String> allProductIds = new HashSet<>();
+        for (OrderRequest request : requests) {
+            for (OrderLine line : request.getLines()) {
+                allProductIds.add(line.getProductId());
+            }
+        }
+        Map<String, Product> products = productRepository.getProductsByIds(allProductIds);
+        
+        // Step 2: Price each distinct product once
+        Map<String, Double> prices = discountService.calculateDiscountedPrices(products.values());
+        
+        // Step 3: Reserve stock per order, grouped by product
+        OrderResult[] results = new OrderResult[requests.size()];
+        List<PendingOrder> reserved = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            OrderRequest request = requests.get(i);
+            String error = reserveBatchOrder(request, products, prices, reserved, i);
+            if (error != null) {
+                results[i] = OrderResult.failure(null, error);
+            }
+        }
+        
+        // Step 4: Process payments concurrently
+        List<CompletableFuture<Boolean>> payments = new ArrayList<>(reserved.size());
+        for (PendingOrder pending : reserved) {
+            payments.add(CompletableFuture.supplyAsync(
+                    () -> paymentProcessor.processPayment(pending.total), PaymentExecutorHolder.EXECUTOR));
+        }
+        
+        // Step 5: Save paid orders, release stock for failed payments. Each order settles on
+        // its own, so one failure cannot leave the reservations of later orders behind.
+        for (int i = 0; i < reserved.size(); i++) {
+            PendingOrder pending = reserved.get(i);
+            String paymentError = payments.get(i).handle((paid, failure) -> failure != null
+                    ? "Payment failed: " + rootCause(failure).getMessage()
+                    : Boolean.TRUE.equals(paid) ? null : "Payment failed").join();
+            if (paymentError != null) {
+                releaseReservedQuantities(pending.quantities, products);
+                results[pending.index] = OrderResult.failure(null, paymentError);
+                continue;
+            }
+            OrderRequest request = requests.get(pending.index);
+            Order order = new Order(nextOrderId(), request.getCustomerEmail(), pending.items,
+                                    pending.total, OrderStatus.PENDING, request.getShippingAddress());
+            try {
+                orderRepository.save(order);
+            } catch (RuntimeException e) {
+                System.out.println("ERROR: Could not save paid order " + order.getOrderId() + ": " + e.getMessage());
+                releaseReservedQuantities(pending.quantities, products);
+                results[pending.index] = OrderResult.failure(order.getOrderId(), "Save failed: " + e.getMessage());
+                continue;
+            }
+            // The order is paid and saved, so it holds its stock even if the confirmation cannot be sent
+            try {
+                notificationService.sendOrderConfirmation(request.getCustomerEmail(), order);
+            } catch (RuntimeException e) {
+                System.out.println("ERROR: Confirmation for " + order.getOrderId() + " not sent: " + e.getMessage());
+            }
+            analyticsService.trackOrderCreated(order, request.getPaymentMethod());
+            results[pending.index] = OrderResult.success(order.getOrderId());
+        }
+        
+        long succeeded = Arrays.stream(results).filter(OrderResult::isSuccess).count();
+        System.out.println("[LOG] Batch processed: " + requests.size() + " orders, "
+                         + succeeded + " created, " + (requests.size() - succeeded) + " failed");
+        return Arrays.asList(results);
+    }
+    
     @Override
     public boolean confirmOrder(String orderId) {
         Order order = orderRepository.findById(orderId);
@@ -151,36 +291,24 @@ public class OrderServiceImpl implements OrderService {
             return false;
         }
         
-        if (order.getStatus() == OrderStatus.CONFIRMED) {
-            System.out.println("Order already confirmed: " + orderId);
-            return true;
-        }
-        
-        if (order.getStatus() != OrderStatus.PENDING) {
-            System.out.println("ERROR: Cannot confirm order in status: " + order.getStatus());
+        OrderStateMachine.Transition transition = OrderStateMachine.transition(order, OrderStatus.CONFIRMED);
+        if (!transition.isApplied()) {
+            if (transition.getFrom() == OrderStatus.CONFIRMED) {
+                System.out.println("Order already confirmed: " + orderId);
+                return true;
+            }
+            System.out.println("ERROR: Cannot confirm order in status: " + transition.getFrom());
             return false;
         }
         
         // Commit reserved stock (decrease On-hand, decrease Reserved)
-        for (OrderItem item : order.getOrderItems()) {
-            Optional<Product> productOpt = productRepository.getProductById(item.getProductId());
-            if (productOpt.isPresent()) {
-                Product product = productOpt.get();
-                product.commitReservedStock(item.getQuantity());
-                System.out.println("[STOCK] Committed " + item.getQuantity() + "x " + product.getName()
-                                 + " (On-hand: " + product.getOnHandStock()
-                                 + ", Reserved: " + product.getReservedStock()
-                                 + ", Available: " + product.getAvailableStock() + ")");
-            }
-        }
-        
-        // Update order status
-        order.setStatus(OrderStatus.CONFIRMED);
+        applyStockEffect(order, transition.getEffect());
         orderRepository.save(order);
         
         // Send confirmation notification
         notificationService.sendOrderConfirmation(order.getCustomerEmail(), order);
         System.out.println("[LOG] Order confirmed: " + orderId);
+        analyticsService.trackStatusChange(order);
         
         return true;
     }
@@ -194,68 +322,105 @@ public class OrderServiceImpl implements OrderService {
             return false;
         }
         
-        if (order.getStatus() == OrderStatus.CANCELLED) {
-            System.out.println("Order already cancelled: " + orderId);
-            return true;
-        }
-        
-        if (order.getStatus() == OrderStatus.SHIPPED) {
-            System.out.println("╔" + "═".repeat(78) + "╗");
-            System.out.println("║" + " ".repeat(78) + "║");
-            System.out.println("║" + centerText("ERROR: CANNOT CANCEL SHIPPED ORDER", 78) + "║");
-            System.out.println("║" + " ".repeat(78) + "║");
-            System.out.println("║" + centerText("Order ID: " + orderId, 78) + "║");
-            System.out.println("║" + centerText("Status: SHIPPED", 78) + "║");
-            System.out.println("║" + " ".repeat(78) + "║");
-            System.out.println("║" + centerText("Reason: Orders cannot be cancelled once shipped", 78) + "║");
-            System.out.println("║" + centerText("The package is already in transit to the customer", 78) + "║");
-            System.out.println("║" + " ".repeat(78) + "║");
-            System.out.println("╚" + "═".repeat(78) + "╝");
-            return false;
-        }
-        
-        // Handle stock based on order status
-        if (order.getStatus() == OrderStatus.PENDING) {
-            // Order NOT confirmed -> release reserve (decrease Reserved, increase Available, On-hand UNCHANGED)
-            System.out.println("[STOCK] Releasing reserved stock for PENDING order...");
-            for (OrderItem item : order.getOrderItems()) {
-                Optional<Product> productOpt = productRepository.getProductById(item.getProductId());
-                if (productOpt.isPresent()) {
-                    Product product = productOpt.get();
-                    product.releaseReservedStock(item.getQuantity());
-                    System.out.println("[STOCK] Released " + item.getQuantity() + "x " + product.getName()
-                                     + " (On-hand: " + product.getOnHandStock()
-                                     + ", Reserved: " + product.getReservedStock()
-                                     + ", Available: " + product.getAvailableStock() + ")");
-                }
+        OrderStateMachine.Transition transition = OrderStateMachine.transition(order, OrderStatus.CANCELLED);
+        if (!transition.isApplied()) {
+            if (transition.getFrom() == OrderStatus.CANCELLED) {
+                System.out.println("Order already cancelled: " + orderId);
+                return true;
             }
-        } else if (order.getStatus() == OrderStatus.CONFIRMED) {
-            // Order confirmed -> restock (increase On-hand, Reserved UNCHANGED)
-            System.out.println("[STOCK] Restocking for CONFIRMED order...");
-            for (OrderItem item : order.getOrderItems()) {
-                Optional<Product> productOpt = productRepository.getProductById(item.getProductId());
-                if (productOpt.isPresent()) {
-                    Product product = productOpt.get();
-                    product.restock(item.getQuantity());
-                    System.out.println("[STOCK] Restocked " + item.getQuantity() + "x " + product.getName()
-                                     + " (On-hand: " + product.getOnHandStock()
-                                     + ", Reserved: " + product.getReservedStock()
-                                     + ", Available: " + product.getAvailableStock() + ")");
-                }
+            if (transition.getFrom() == OrderStatus.SHIPPED) {
+                printCannotCancelShipped(orderId);
+            } else {
+                System.out.println("ERROR: Cannot cancel order in status: " + transition.getFrom());
             }
+            return false;
         }
         
-        // Update order status
-        order.setStatus(OrderStatus.CANCELLED);
+        // PENDING -> release reserve, CONFIRMED -> restock
+        applyStockEffect(order, transition.getEffect());
         orderRepository.save(order);
         
         // Send cancellation notification
         notificationService.sendOrderCancelled(order);
         System.out.println("[LOG] Order cancelled: " + orderId);
+        analyticsService.trackStatusChange(order);
         
         return true;
     }
     
+    @Override
+    public List<OrderResult> cancelOrders(Collection<String> orderIds) {
+        // Step 1: Move each order to CANCELLED and sum the stock it gives back per product
+        List<OrderResult> results = new ArrayList<>(orderIds.size());
+        List<Order> cancelled = new ArrayList<>();
+        Map<String, Integer> toRelease = new LinkedHashMap<>();
+        Map<String, Integer> toRestock = new LinkedHashMap<>();
+        for (String orderId : orderIds) {
+            Order order = orderRepository.findById(orderId);
+            if (order == null) {
+                results.add(OrderResult.failure(orderId, "Order not found"));
+                continue;
+            }
+            OrderStateMachine.Transition transition;
+            try {
+                transition = OrderStateMachine.transition(order, OrderStatus.CANCELLED);
+            } catch (IllegalStateException e) {
+                // Settle the rest of the batch; the orders already cancelled still need their stock
+                results.add(OrderResult.failure(orderId, e.getMessage()));
+                continue;
+            }
+            if (!transition.isApplied()) {
+                results.add(transition.getFrom() == OrderStatus.CANCELLED
+                        ? OrderResult.success(orderId)
+                        : OrderResult.failure(orderId, "Cannot cancel order in status: " + transition.getFrom()));
+                continue;
+            }
+            Map<String, Integer> deltas = transition.getEffect() == OrderStateMachine.StockEffect.RESTOCK
+                    ? toRestock
+                    : toRelease;
+            if (transition.getEffect() != OrderStateMachine.StockEffect.NONE) {
+                for (OrderItem item : order.getOrderItems()) {
+                    deltas.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                }
+            }
+            cancelled.add(order);
+            results.add(OrderResult.success(orderId));
+        }
+        
+        // Step 2: Apply each product's net release and restock once
+        Set<String> touched = new HashSet<>(toRelease.keySet());
+        touched.addAll(toRestock.keySet());
+        Map<String, Product> products = productRepository.getProductsByIds(touched);
+        for (Map.Entry<String, Integer> entry : toRelease.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product != null) {
+                product.releaseReservedStock(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, Integer> entry : toRestock.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product != null) {
+                product.restock(entry.getValue());
+            }
+        }
+        
+        // Step 3: Persist, then notify in one batch
+        for (Order order : cancelled) {
+            orderRepository.save(order);
+            analyticsService.trackStatusChange(order);
+        }
+        if (!cancelled.isEmpty()) {
+            notificationService.sendOrdersCancelled(cancelled);
+        }
+        
+        System.out.println("[STOCK] Bulk cancellation released stock for " + toRelease.size()
+                         + " products and restocked " + toRestock.size() + " products");
+        System.out.println("[LOG] Bulk cancellation: " + orderIds.size() + " requested, "
+                         + cancelled.size() + " cancelled, "
+                         + results.stream().filter(result -> !result.isSuccess()).count() + " failed");
+        return results;
+    }
+    
     @Override
     public boolean shipOrder(String orderId, String trackingNumber) {
         Order order = orderRepository.findById(orderId);
@@ -265,46 +430,203 @@ public class OrderServiceImpl implements OrderService {
             return false;
         }
         
-        if (order.getStatus() != OrderStatus.CONFIRMED) {
-            System.out.println("ERROR: Cannot ship order in status: " + order.getStatus());
+        OrderStateMachine.Transition transition = OrderStateMachine.transition(order, OrderStatus.SHIPPED);
+        if (!transition.isApplied()) {
+            System.out.println("ERROR: Cannot ship order in status: " + transition.getFrom());
             return false;
         }
         
-        // Update order status
-        order.setStatus(OrderStatus.SHIPPED);
         orderRepository.save(order);
         
         // Send shipping notification
         notificationService.sendOrderShipped(order, trackingNumber);
         System.out.println("[LOG] Order shipped: " + orderId + " with tracking: " + trackingNumber);
+        analyticsService.trackStatusChange(order);
         
         return true;
     }
     
     @Override
+    @Deprecated
     public List<String> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        List<String> orderSummaries = new ArrayList<>();
-        
-        for (Order order : orders) {
-            String summary = "Order: " + order.getOrderId() 
-                           + " - Status: " + order.getStatus() 
-                           + " - Total: $" + String.format("%.2f", order.getTotal());
-            orderSummaries.add(summary);
+        return streamOrders(OrderQuery.all())
+                .map(summary -> "Order: " + summary.getOrderId()
+                              + " - Status: " + summary.getStatus()
+                              + " - Total: $" + String.format("%.2f", summary.getTotal()))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public OrderPage listOrders(OrderQuery query) {
+        // Read one extra match to know whether another page exists
+        List<Order> matches = orderRepository.streamMatching(query)
+                .limit(query.getLimit() + 1L)
+                .collect(Collectors.toList());
+        
+        boolean hasMore = matches.size() > query.getLimit();
+        List<OrderSummary> summaries = new ArrayList<>(Math.min(matches.size(), query.getLimit()));
+        for (int i = 0; i < matches.size() && i < query.getLimit(); i++) {
+            summaries.add(OrderSummary.of(matches.get(i)));
+        }
+        String nextCursor = hasMore ? summaries.get(summaries.size() - 1).getOrderId() : null;
+        return new OrderPage(summaries, nextCursor);
+    }
+    
+    @Override
+    public Stream<OrderSummary> streamOrders(OrderQuery query) {
+        return orderRepository.streamMatching(query)
+                .map(OrderSummary::of);
+    }
+    
+    /**
+     * Validates one order of a batch and reserves its stock, one reservation per product.
+     * 
+     * @return null if the order was reserved, otherwise the failure reason
+     */
+    private String reserveBatchOrder(OrderRequest request, Map<String, Product> products,
+                                     Map<String, Double> prices, List<PendingOrder> reserved, int index) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderLine line : request.getLines()) {
+            if (!products.containsKey(line.getProductId())) {
+                return "Product not found: " + line.getProductId();
+            }
+            quantities.put(line.getProductId(), line.getQuantity());
         }
         
-        return orderSummaries;
+        Map<String, Integer> reservedSoFar = new LinkedHashMap<>();
+        List<OrderItem> items = new ArrayList<>(quantities.size());
+        double subtotal = 0;
+        int itemId = 1;
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            int quantity = entry.getValue();
+            if (!product.reserveStock(quantity)) {
+                releaseReservedQuantities(reservedSoFar, products);
+                return "Out of stock: " + product.getName();
+            }
+            reservedSoFar.put(entry.getKey(), quantity);
+            double unitPrice = prices.get(entry.getKey());
+            items.add(new OrderItem(itemId++, entry.getKey(), quantity, unitPrice, unitPrice * quantity));
+            subtotal += unitPrice * quantity;
+        }
+        
+        double total = subtotal + paymentProcessor.calculateFee(subtotal);
+        reserved.add(new PendingOrder(index, items, reservedSoFar, total));
+        return null;
+    }
+    
+    /**
+     * Releases reservations made for one order of a batch.
+     */
+    private void releaseReservedQuantities(Map<String, Integer> quantities, Map<String, Product> products) {
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            products.get(entry.getKey()).releaseReservedStock(entry.getValue());
+        }
+    }
+    
+    /**
+     * Generates a unique order ID. IDs sort in creation order.
+     * The timestamp and sequence are taken together, and the timestamp never goes back
+     * even if the clock does, so string order always agrees with sequence order. The
+     * sequence is never wrapped and is padded wider than it can grow, so IDs keep
+     * sorting as strings, which cursor paging relies on.
+     */
+    private static String nextOrderId() {
+        long millis;
+        long sequence;
+        synchronized (ORDER_ID_LOCK) {
+            sequence = ++orderSequence;
+            lastOrderMillis = Math.max(lastOrderMillis, System.currentTimeMillis());
+            millis = lastOrderMillis;
+        }
+        return "ORD-" + millis + "-" + String.format("%012d", sequence);
+    }
+    
+    private static Throwable rootCause(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+    
+    /**
+     * Applies the stock side effect of a won lifecycle transition.
+     * Called only by the thread whose compare-and-set succeeded, so it runs exactly once per transition.
+     * 
+     * @param order The order that changed status
+     * @param effect The stock effect from the state machine
+     */
+    private void applyStockEffect(Order order, OrderStateMachine.StockEffect effect) {
+        if (effect == OrderStateMachine.StockEffect.NONE) {
+            return;
+        }
+        if (effect == OrderStateMachine.StockEffect.RELEASE_RESERVED) {
+            System.out.println("[STOCK] Releasing reserved stock for PENDING order...");
+        } else if (effect == OrderStateMachine.StockEffect.RESTOCK) {
+            System.out.println("[STOCK] Restocking for CONFIRMED order...");
+        }
+        
+        // Orders stored before line merging may repeat a product; touch each product once
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            Optional<Product> productOpt = productRepository.getProductById(entry.getKey());
+            if (productOpt.isEmpty()) {
+                continue;
+            }
+            Product product = productOpt.get();
+            int quantity = entry.getValue();
+            String action;
+            switch (effect) {
+                case COMMIT_RESERVED:
+                    product.commitReservedStock(quantity);
+                    action = "Committed";
+                    break;
+                case RELEASE_RESERVED:
+                    product.releaseReservedStock(quantity);
+                    action = "Released";
+                    break;
+                case RESTOCK:
+                    product.restock(quantity);
+                    action = "Restocked";
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled stock effect: " + effect);
+            }
+            System.out.println("[STOCK] " + action + " " + quantity + "x " + product.getName()
+                             + " (On-hand: " + product.getOnHandStock()
+                             + ", Reserved: " + product.getReservedStock()
+                             + ", Available: " + product.getAvailableStock() + ")");
+        }
+    }
+    
+    /**
+     * Prints the error box shown when cancelling a shipped order.
+     */
+    private void printCannotCancelShipped(String orderId) {
+        System.out.println("╔" + "═".repeat(78) + "╗");
+        System.out.println("║" + " ".repeat(78) + "║");
+        System.out.println("║" + centerText("ERROR: CANNOT CANCEL SHIPPED ORDER", 78) + "║");
+        System.out.println("║" + " ".repeat(78) + "║");
+        System.out.println("║" + centerText("Order ID: " + orderId, 78) + "║");
+        System.out.println("║" + centerText("Status: SHIPPED", 78) + "║");
+        System.out.println("║" + " ".repeat(78) + "║");
+        System.out.println("║" + centerText("Reason: Orders cannot be cancelled once shipped", 78) + "║");
+        System.out.println("║" + centerText("The package is already in transit to the customer", 78) + "║");
+        System.out.println("║" + " ".repeat(78) + "║");
+        System.out.println("╚" + "═".repeat(78) + "╝");
     }
     
     /**
      * Helper method to release reserved stock when order creation fails.
      * 
-     * @param products List of products to release reserved stock for
+     * @param reserved Quantity reserved so far for each product
      */
-    private void releaseReservedStock(List<Product> products) {
-        for (Product product : products) {
-            product.releaseReservedStock(1);
-            System.out.println("[STOCK] Released reserved stock for: " + product.getName());
+    private void releaseReservedStock(Map<Product, Integer> reserved) {
+        for (Map.Entry<Product, Integer> entry : reserved.entrySet()) {
+            entry.getKey().releaseReservedStock(entry.getValue());
+            System.out.println("[STOCK] Released " + entry.getValue() + "x reserved stock for: "
+                             + entry.getKey().getName());
         }
     }
     
@@ -323,4 +645,33 @@ public class OrderServiceImpl implements OrderService {
         int rightPadding = width - text.length() - leftPadding;
         return " ".repeat(leftPadding) + text + " ".repeat(rightPadding);
     }
+    
+    /**
+     * A batch order whose stock is reserved and which is waiting for its payment.
+     */
+    private static final class PendingOrder {
+        private final int index;
+        private final List<OrderItem> items;
+        private final Map<String, Integer> quantities;
+        private final double total;
+        
+        PendingOrder(int index, List<OrderItem> items, Map<String, Integer> quantities, double total) {
+            this.index = index;
+            this.items = items;
+            this.quantities = quantities;
+            this.total = total;
+        }
+    }
+    
+    /**
+     * Lazily created pool for concurrent payment calls, shared by all instances.
+     */
+    private static final class PaymentExecutorHolder {
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors()), runnable -> {
+                    Thread thread = new Thread(runnable, "payment-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
 }
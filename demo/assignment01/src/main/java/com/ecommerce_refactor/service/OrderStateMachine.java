@@ -0,0 +1,120 @@
+package com.ecommerce_refactor.service;
+
+import com.ecommerce_refactor.model.Order;
+import com.ecommerce_refactor.model.enumeration.OrderStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Table-driven order lifecycle.
+ *
+ * The table lists every allowed status transition together with the stock
+ * side effect it requires. Transitions are applied with compare-and-set on
+ * the order's status, so when several threads race to move the same order
+ * exactly one wins, and only the winner applies the stock side effect.
+ * No lock is held, and unrelated orders never contend.
+ *
+ * Allowed transitions:
+ * - PENDING   -> CONFIRMED (commit reserved stock)
+ * - PENDING   -> CANCELLED (release reserved stock)
+ * - CONFIRMED -> CANCELLED (restock)
+ * - CONFIRMED -> SHIPPED   (no stock change)
+ */
+public final class OrderStateMachine {
+
+    /**
+     * Stock change that accompanies a transition.
+     */
+    public enum StockEffect {
+        NONE,
+        COMMIT_RESERVED,
+        RELEASE_RESERVED,
+        RESTOCK
+    }
+
+    private static final Map<OrderStatus, Map<OrderStatus, StockEffect>> TRANSITIONS =
+            new EnumMap<>(OrderStatus.class);
+
+    static {
+        for (OrderStatus status : OrderStatus.values()) {
+            TRANSITIONS.put(status, new EnumMap<>(OrderStatus.class));
+        }
+        TRANSITIONS.get(OrderStatus.PENDING).put(OrderStatus.CONFIRMED, StockEffect.COMMIT_RESERVED);
+        TRANSITIONS.get(OrderStatus.PENDING).put(OrderStatus.CANCELLED, StockEffect.RELEASE_RESERVED);
+        TRANSITIONS.get(OrderStatus.CONFIRMED).put(OrderStatus.CANCELLED, StockEffect.RESTOCK);
+        TRANSITIONS.get(OrderStatus.CONFIRMED).put(OrderStatus.SHIPPED, StockEffect.NONE);
+    }
+
+    private OrderStateMachine() {
+    }
+
+    /**
+     * Gets the stock effect of a transition.
+     *
+     * @return The effect, or null if the transition is not allowed
+     */
+    public static StockEffect effectOf(OrderStatus from, OrderStatus to) {
+        return TRANSITIONS.get(from).get(to);
+    }
+
+    /**
+     * Attempts to move an order to the target status.
+     * Retries only if another thread changed the status between the read and
+     * the compare-and-set, and the new status still allows the transition.
+     *
+     * @param order The order to transition
+     * @param target The desired status
+     * @return The outcome, including the status the order was in
+     * @throws IllegalStateException if the order has no status yet
+     */
+    public static Transition transition(Order order, OrderStatus target) {
+        while (true) {
+            OrderStatus from = order.getStatus();
+            if (from == null) {
+                throw new IllegalStateException("Order " + order.getOrderId() + " has no status to transition from");
+            }
+            StockEffect effect = effectOf(from, target);
+            if (effect == null) {
+                return new Transition(from, target, null);
+            }
+            if (order.compareAndSetStatus(from, target)) {
+                return new Transition(from, target, effect);
+            }
+        }
+    }
+
+    /**
+     * Outcome of a transition attempt.
+     */
+    public static final class Transition {
+        private final OrderStatus from;
+        private final OrderStatus to;
+        private final StockEffect effect;
+
+        Transition(OrderStatus from, OrderStatus to, StockEffect effect) {
+            this.from = from;
+            this.to = to;
+            this.effect = effect;
+        }
+
+        /** True if this caller won the transition and must apply the stock effect. */
+        public boolean isApplied() {
+            return effect != null;
+        }
+
+        /** The status the order was in when the attempt was decided. */
+        public OrderStatus getFrom() {
+            return from;
+        }
+
+        public OrderStatus getTo() {
+            return to;
+        }
+
+        /** The stock effect to apply, or null if the transition was rejected. */
+        public StockEffect getEffect() {
+            return effect;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecommerce;
+
+/**
+ * A connection to one messaging provider, shared by every message sent through it.
+ */
+interface MessagingClient {
+    void send(String recipient, String message);
+}
@@ -0,0 +1,20 @@
+package com.ecommerce;
+
+/**
+ * Delivery channels a notification can go out on.
+ * Each channel decides which piece of contact information it is addressed to.
+ */
+public enum NotificationChannel {
+    EMAIL,
+    SMS,
+    CHAT;
+
+    /**
+     * Picks the recipient address for this channel.
+     *
+     * @return The email for EMAIL, otherwise the phone number (may be null)
+     */
+    public String recipient(String email, String phone) {
+        return this == EMAIL ? email : phone;
+    }
+}
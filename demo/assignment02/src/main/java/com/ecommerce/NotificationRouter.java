@@ -0,0 +1,74 @@
+package com.ecommerce;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps each customer region to the provider clients that should be used.
+ *
+ * The routing table is resolved once when the router is built, so routing a
+ * message is a single EnumMap lookup returning already-created clients.
+ */
+public class NotificationRouter {
+
+    /**
+     * A provider client together with the channel it delivers on.
+     */
+    public static final class Route {
+        private final NotificationChannel channel;
+        private final MessagingClient client;
+
+        Route(NotificationChannel channel, MessagingClient client) {
+            this.channel = channel;
+            this.client = client;
+        }
+
+        public NotificationChannel getChannel() {
+            return channel;
+        }
+
+        MessagingClient getClient() {
+            return client;
+        }
+    }
+
+    private final Map<Region, List<Route>> routes = new EnumMap<>(Region.class);
+
+    /**
+     * Builds a router using the default provider table.
+     */
+    public NotificationRouter(ProviderClientPool pool) {
+        this(pool, defaultTable());
+    }
+
+    /**
+     * Builds a router from an explicit region -> providers table.
+     */
+    public NotificationRouter(ProviderClientPool pool, Map<Region, List<ProviderClientPool.Provider>> table) {
+        for (Map.Entry<Region, List<ProviderClientPool.Provider>> entry : table.entrySet()) {
+            Route[] resolved = new Route[entry.getValue().size()];
+            for (int i = 0; i < resolved.length; i++) {
+                ProviderClientPool.Provider provider = entry.getValue().get(i);
+                resolved[i] = new Route(provider.getChannel(), pool.get(provider));
+            }
+            routes.put(entry.getKey(), Collections.unmodifiableList(Arrays.asList(resolved)));
+        }
+    }
+
+    /**
+     * Gets the routes for a region; empty if the region is not configured.
+     */
+    public List<Route> routesFor(Region region) {
+        return routes.getOrDefault(region, Collections.emptyList());
+    }
+
+    private static Map<Region, List<ProviderClientPool.Provider>> defaultTable() {
+        Map<Region, List<ProviderClientPool.Provider>> table = new EnumMap<>(Region.class);
+        table.put(Region.US, Arrays.asList(ProviderClientPool.Provider.SENDGRID, ProviderClientPool.Provider.TWILIO));
+        table.put(Region.VN, Arrays.asList(ProviderClientPool.Provider.ZALO, ProviderClientPool.Provider.VIETTEL_SMS));
+        return table;
+    }
+}
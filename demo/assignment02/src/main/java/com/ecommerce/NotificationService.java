@@ -1,16 +1,91 @@
 package com.ecommerce;
 
-public class NotificationService {
-    
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class NotificationService implements AutoCloseable {
+
+    private static final int DISPATCH_THREADS = 4;
+
+    private final NotificationRouter router;
+    private final Executor dispatcher;
+    private final ExecutorService ownedDispatcher; // Null when the caller supplied the executor
+
+    /**
+     * Creates a service with its own dispatch threads; close it to stop them.
+     */
+    public NotificationService() {
+        this(new NotificationRouter(new ProviderClientPool()), newDispatcher());
+    }
+
+    /**
+     * @param dispatcher Runs the sends; owned and shut down by the caller
+     */
+    public NotificationService(NotificationRouter router, Executor dispatcher) {
+        this(router, dispatcher, null);
+    }
+
+    private NotificationService(NotificationRouter router, ExecutorService ownedDispatcher) {
+        this(router, ownedDispatcher, ownedDispatcher);
+    }
+
+    private NotificationService(NotificationRouter router, Executor dispatcher, ExecutorService ownedDispatcher) {
+        this.router = router;
+        this.dispatcher = dispatcher;
+        this.ownedDispatcher = ownedDispatcher;
+    }
+
+    /**
+     * Sends the confirmation on the US channels, as before regions were added. This
+     * overload has no phone number, so only the email goes out and the skipped SMS is logged.
+     *
+     * @deprecated Pass the customer's phone and region to
+     *             {@link #sendOrderConfirmation(String, String, String, Region)}
+     */
+    @Deprecated
     public void sendOrderConfirmation(String orderId, String email) {
-        // Problem: Different regions need different providers
-        // Vietnam: uses Zalo, SMS via Viettel
-        // US: uses Twilio, SendGrid
-        // This class creates everything inline
-        
-        System.out.println("Creating SendGrid client...");
-        System.out.println("Creating Twilio client...");
-        System.out.println("Sending email via SendGrid to " + email);
-        System.out.println("Sending SMS via Twilio");
+        sendOrderConfirmation(orderId, email, null, Region.US);
+    }
+
+    /**
+     * Sends the confirmation on every channel configured for the customer's region.
+     * Channels are dispatched concurrently; the call returns once all have been sent.
+     * A channel the customer has no contact details for is skipped, and the skip is logged.
+     */
+    public void sendOrderConfirmation(String orderId, String email, String phone, Region region) {
+        String message = "Your order " + orderId + " has been confirmed.";
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (NotificationRouter.Route route : router.routesFor(region)) {
+            String recipient = route.getChannel().recipient(email, phone);
+            if (recipient == null) {
+                System.out.println("Skipping " + route.getChannel() + " for order " + orderId + ": no contact details");
+                continue;
+            }
+            sends.add(CompletableFuture.runAsync(() -> route.getClient().send(recipient, message), dispatcher));
+        }
+
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Stops the dispatch threads this service created. A caller-supplied executor is left running.
+     */
+    @Override
+    public void close() {
+        if (ownedDispatcher != null) {
+            ownedDispatcher.shutdown();
+        }
+    }
+
+    private static ExecutorService newDispatcher() {
+        return Executors.newFixedThreadPool(DISPATCH_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
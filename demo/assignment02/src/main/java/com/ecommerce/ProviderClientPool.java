@@ -0,0 +1,57 @@
+package com.ecommerce;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one long-lived client per messaging provider.
+ *
+ * Provider clients are expensive to create (connections, auth handshakes), so
+ * each one is created on first use and then shared by every message.
+ */
+public class ProviderClientPool {
+
+    /**
+     * Messaging providers we integrate with, and the channel each one serves.
+     */
+    public enum Provider {
+        SENDGRID(NotificationChannel.EMAIL),
+        TWILIO(NotificationChannel.SMS),
+        ZALO(NotificationChannel.CHAT),
+        VIETTEL_SMS(NotificationChannel.SMS);
+
+        private final NotificationChannel channel;
+
+        Provider(NotificationChannel channel) {
+            this.channel = channel;
+        }
+
+        public NotificationChannel getChannel() {
+            return channel;
+        }
+    }
+
+    private final Map<Provider, MessagingClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the shared client for a provider, creating it the first time.
+     */
+    public MessagingClient get(Provider provider) {
+        return clients.computeIfAbsent(provider, ProviderClientPool::createClient);
+    }
+
+    private static MessagingClient createClient(Provider provider) {
+        switch (provider) {
+            case SENDGRID:
+                return new SendGridClient();
+            case TWILIO:
+                return new TwilioClient();
+            case ZALO:
+                return new ZaloClient();
+            case VIETTEL_SMS:
+                return new ViettelSmsClient();
+            default:
+                throw new IllegalArgumentException("Unknown provider: " + provider);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce;
+
+/**
+ * Customer regions that need different notification providers.
+ */
+public enum Region {
+    US,
+    VN
+}
@@ -0,0 +1,6 @@
+package com.ecommerce;
+
+class SendGridClient implements MessagingClient {
+    SendGridClient() { System.out.println("Creating SendGrid client..."); }
+    public void send(String recipient, String message) { System.out.println("Sending email via SendGrid to " + recipient); }
+}
@@ -0,0 +1,6 @@
+package com.ecommerce;
+
+class TwilioClient implements MessagingClient {
+    TwilioClient() { System.out.println("Creating Twilio client..."); }
+    public void send(String recipient, String message) { System.out.println("Sending SMS via Twilio to " + recipient); }
+}
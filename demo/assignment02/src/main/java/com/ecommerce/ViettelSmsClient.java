@@ -0,0 +1,6 @@
+package com.ecommerce;
+
+class ViettelSmsClient implements MessagingClient {
+    ViettelSmsClient() { System.out.println("Creating Viettel SMS client..."); }
+    public void send(String recipient, String message) { System.out.println("Sending SMS via Viettel to " + recipient); }
+}
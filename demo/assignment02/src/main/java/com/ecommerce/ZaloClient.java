@@ -0,0 +1,6 @@
+package com.ecommerce;
+
+class ZaloClient implements MessagingClient {
+    ZaloClient() { System.out.println("Creating Zalo client..."); }
+    public void send(String recipient, String message) { System.out.println("Sending Zalo message to " + recipient); }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of changing a line's quantity and reading the new total, from the cart's
+ * running aggregates versus summing every line, for carts of growing size built
+ * from a random mix of adds, removes, quantity changes and coupons.
+ *
+ * Every invocation mutates the cart before reading, so the total is never the
+ * same value twice and cannot be hoisted out of the measurement loop. Fails if
+ * the running total disagrees with the full recompute after an iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CartTotalBenchmark {
+
+    private static final int CATALOG_SIZE = 2_000;
+    private static final Coupon[] COUPONS = {
+            null, Coupon.percentOff("SAVE10", 10), Coupon.amountOff("SAVE25", 25.00) };
+
+    @Param({"10", "100", "1000"})
+    int lines;
+
+    private Cart cart;
+    private String[] productIds;
+    private int update;
+
+    @Setup
+    public void setUp() {
+        PriceList.Builder builder = PriceList.builder();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            builder.product("P" + i, 0.99 + (i % 500) * 0.37, i % 7 == 0 ? 1.25 : 0);
+        }
+        cart = randomCart(builder.build(), lines, new Random(lines));
+        productIds = cart.getItems().keySet().toArray(new String[0]);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkConsistent() {
+        if (!cart.isConsistent()) {
+            throw new IllegalStateException("Running total " + cart.getTotalCents()
+                    + " != recomputed " + cart.recomputeTotalCents());
+        }
+    }
+
+    @Benchmark
+    public long runningTotal() {
+        changeNextLine();
+        return cart.getTotalCents();
+    }
+
+    @Benchmark
+    public long recompute() {
+        changeNextLine();
+        return cart.recomputeTotalCents();
+    }
+
+    /**
+     * Sets a line's quantity, cycling through the lines. Each pass over the lines
+     * uses the next quantity from 1 to 4, so every call really changes the cart;
+     * quantities stay positive, so the cart keeps its size.
+     */
+    private void changeNextLine() {
+        int i = update++ & Integer.MAX_VALUE;
+        cart.setQuantity(productIds[i % productIds.length], 1 + (i / productIds.length & 3));
+    }
+
+    private static Cart randomCart(PriceList prices, int lines, Random random) {
+        Cart cart = new Cart(prices);
+        while (cart.getItems().size() < lines) {
+            String productId = "P" + random.nextInt(CATALOG_SIZE);
+            switch (random.nextInt(8)) {
+                case 0:
+                    cart.removeItem(productId);
+                    break;
+                case 1:
+                    cart.setQuantity(productId, random.nextInt(5));
+                    break;
+                case 2:
+                    cart.applyCoupon(COUPONS[random.nextInt(COUPONS.length)]);
+                    break;
+                default:
+                    cart.addItem(productId, 1 + random.nextInt(3));
+            }
+            if (!cart.isConsistent()) {
+                throw new IllegalStateException("Running total drifted at " + cart.getItems().size() + " lines");
+            }
+        }
+        return cart;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per cart click: string-dispatched processAction versus typed commands, applied
+ * one at a time or queued and applied in batches.
+ *
+ * Each session is 64 clicks on a fresh cart (adds, removes and a coupon) without
+ * checkout, so the numbers cover dispatch and journaling rather than payment. Run
+ * single-threaded, batching saves no lock handoffs and shows only what its queue costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(CheckoutCommandBenchmark.CLICKS_PER_SESSION)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutCommandBenchmark {
+
+    static final int CLICKS_PER_SESSION = 64;
+    private static final int BATCH_SIZE = 16;
+
+    private static final String[] PRODUCT_IDS = new String[32];
+    private static final String[] COUPON_CODES = new String[8];
+    private static final PriceList PRICES;
+    private static final CouponStore COUPONS = new CouponStore();
+
+    static {
+        PriceList.Builder prices = PriceList.builder();
+        for (int i = 0; i < PRODUCT_IDS.length; i++) {
+            PRODUCT_IDS[i] = "P" + i;
+            prices.product(PRODUCT_IDS[i], 1.99 + i);
+        }
+        for (int i = 0; i < COUPON_CODES.length; i++) {
+            COUPON_CODES[i] = "SAVE" + i;
+            COUPONS.add(Coupon.percentOff(COUPON_CODES[i], 5 + i));
+        }
+        PRICES = prices.build();
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public int processAction() {
+        Cart cart = new Cart(PRICES);
+        CheckoutController controller = new CheckoutController(cart, "bench", COUPONS);
+        for (int click = 0; click < CLICKS_PER_SESSION; click++) {
+            String productId = PRODUCT_IDS[click % PRODUCT_IDS.length];
+            switch (click % 4) {
+                case 3:
+                    controller.processAction("REMOVE_ITEM", productId);
+                    break;
+                case 2:
+                    controller.processAction("APPLY_COUPON", COUPON_CODES[click & 7]);
+                    break;
+                default:
+                    controller.processAction("ADD_ITEM", productId, 1 + (click & 3));
+            }
+        }
+        return cart.getItems().size();
+    }
+
+    @Benchmark
+    public int execute() {
+        Cart cart = new Cart(PRICES);
+        CheckoutController controller = new CheckoutController(cart, "bench", COUPONS);
+        for (int click = 0; click < CLICKS_PER_SESSION; click++) {
+            controller.execute(click(click));
+        }
+        return cart.getItems().size();
+    }
+
+    @Benchmark
+    public int batched() {
+        Cart cart = new Cart(PRICES);
+        CheckoutController controller = new CheckoutController(cart, "bench", COUPONS);
+        for (int click = 0; click < CLICKS_PER_SESSION; click++) {
+            controller.submit(click(click));
+            if ((click + 1) % BATCH_SIZE == 0) {
+                controller.applyPending();
+            }
+        }
+        return cart.getItems().size();
+    }
+
+    private static CartCommand click(int click) {
+        String productId = PRODUCT_IDS[click % PRODUCT_IDS.length];
+        switch (click % 4) {
+            case 3:
+                return CartCommand.removeItem(productId);
+            case 2:
+                return CartCommand.applyCoupon(COUPON_CODES[click & 7]);
+            default:
+                return CartCommand.addItem(productId, 1 + (click & 3));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecommerce;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that a checkout whose order save fails after the charge can be retried safely.
+ *
+ * 1. The first save fails. Checking out again must save the order without charging
+ *    the customer or redeeming the coupon a second time.
+ * 2. Between the failed save and the retry, changing the cart must be rejected, so
+ *    the order that is saved is the one that was charged.
+ * 3. After the retry the cart is empty and the session accepts new commands.
+ *
+ * Exits with status 1 if any check fails.
+ */
+public class CheckoutRetryCheck {
+
+    public static void main(String[] args) {
+        List<String> failures = new ArrayList<>();
+
+        CouponStore coupons = new CouponStore();
+        coupons.add(Coupon.percentOff("SAVE10", 10).withLimits(100, 1));
+        Cart cart = new Cart(PriceList.builder().product("P1", 20.00).product("P2", 5.00).build());
+        CountingPayments payments = new CountingPayments();
+        FailingOnceRepository orders = new FailingOnceRepository();
+        CheckoutController controller = new CheckoutController(cart, "C1", coupons, payments, orders);
+
+        controller.execute(CartCommand.addItem("P1", 2));
+        controller.execute(CartCommand.applyCoupon("SAVE10"));
+        try {
+            controller.execute(CartCommand.checkout());
+            failures.add("first checkout should have failed to save");
+        } catch (IllegalStateException expected) {
+            // The simulated save failure
+        }
+        if (!controller.isAwaitingSave()) {
+            failures.add("session should be waiting for the save after it failed");
+        }
+
+        try {
+            controller.execute(CartCommand.addItem("P2", 1));
+            failures.add("changing the cart before the save was retried should be rejected");
+        } catch (IllegalStateException expected) {
+            // Rejected as it should be
+        }
+
+        controller.execute(CartCommand.checkout());
+        System.out.printf("Retry after a failed save: %d charges ($%.2f), %d saves, %d redemptions%n",
+                payments.charges, payments.charged, orders.saves, coupons.getRedemptionCount("SAVE10"));
+        if (payments.charges != 1) {
+            failures.add("customer was charged " + payments.charges + " times, expected once");
+        }
+        if (coupons.getRedemptionCount("SAVE10") != 1) {
+            failures.add("coupon was redeemed " + coupons.getRedemptionCount("SAVE10") + " times, expected once");
+        }
+        if (orders.saves != 1) {
+            failures.add(orders.saves + " orders saved, expected 1");
+        }
+        if (!cart.getItems().isEmpty() || controller.isAwaitingSave()) {
+            failures.add("cart should be empty and the session ready after the retried save");
+        }
+
+        controller.execute(CartCommand.addItem("P2", 1));
+        if (cart.getQuantity("P2") != 1) {
+            failures.add("session did not accept commands after the retried save");
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("PASS");
+        } else {
+            failures.forEach(f -> System.out.println("FAIL: " + f));
+            System.exit(1);
+        }
+    }
+
+    /** Records charges instead of printing them. */
+    private static final class CountingPayments extends PaymentService {
+        int charges;
+        double charged;
+
+        @Override
+        void charge(double amount) {
+            charges++;
+            charged += amount;
+        }
+    }
+
+    /** Fails the first save, as a database timeout would, then saves normally. */
+    private static final class FailingOnceRepository extends OrderRepository {
+        int attempts;
+        int saves;
+
+        @Override
+        void save(Cart cart) {
+            if (attempts++ == 0) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            saves++;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per code of validating {@value #CODES} submitted codes when most of them are
+ * invalid, through the store's Bloom filter and through a plain map lookup.
+ * CouponRedemptionCheck covers the redemption limits under contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(CouponBenchmark.CODES)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponBenchmark {
+
+    static final int CODES = 100_000;
+
+    private static final int COUPONS = 10_000;
+    private static final int INVALID_PERCENT = 90;
+
+    private final CouponStore store = new CouponStore(COUPONS, CouponStore.DEFAULT_FALSE_POSITIVE_RATE);
+    private final Map<String, Coupon> plain = new HashMap<>();
+    private final String[] submitted = new String[CODES];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < COUPONS; i++) {
+            Coupon coupon = Coupon.percentOff("PROMO" + i, 1 + i % 50);
+            store.add(coupon);
+            plain.put(coupon.getCode(), coupon);
+        }
+
+        Random random = new Random(11);
+        for (int i = 0; i < CODES; i++) {
+            submitted[i] = random.nextInt(100) < INVALID_PERCENT
+                    ? "PROMO" + (COUPONS + random.nextInt(1_000_000))     // Guessed, never issued
+                    : "promo" + random.nextInt(COUPONS);
+        }
+    }
+
+    @Benchmark
+    public int mapLookup() {
+        int found = 0;
+        for (String code : submitted) {
+            if (plain.get(Coupon.normalize(code)) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int storeFind() {
+        int found = 0;
+        for (String code : submitted) {
+            if (store.find(code) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that CouponStore enforces redemption limits under contention.
+ *
+ * Many threads race to redeem one limited coupon for random customers, and now and
+ * then give a redemption back as a failed payment would. No more than the global
+ * limit may be accepted, the store's count must match what was accepted, and no
+ * customer may exceed the per-customer limit.
+ *
+ * Usage: java com.ecommerce.CouponRedemptionCheck [threads]
+ * Exits with status 1 if any limit was overrun.
+ */
+public class CouponRedemptionCheck {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        if (redemptionRace(threads)) {
+            System.out.println("PASS");
+        } else {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return true if no limit was overrun
+     */
+    private static boolean redemptionRace(int threads) throws InterruptedException {
+        int limit = 1_000;
+        int perCustomer = 2;
+        int customers = 2_000;
+        int attemptsPerThread = 5_000;
+
+        CouponStore store = new CouponStore();
+        store.add(Coupon.amountOff("FLASH", 10.00).withLimits(limit, perCustomer));
+
+        Map<String, AtomicInteger> acceptedByCustomer = new ConcurrentHashMap<>();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    String customerId = "C" + random.nextInt(customers);
+                    if (store.redeem("FLASH", customerId) != RedemptionResult.ACCEPTED) {
+                        continue;
+                    }
+                    // Now and then the payment fails and the redemption is given back
+                    if (random.nextInt(10) == 0 && store.release("FLASH", customerId)) {
+                        released.incrementAndGet();
+                        continue;
+                    }
+                    accepted.incrementAndGet();
+                    acceptedByCustomer.computeIfAbsent(customerId, id -> new AtomicInteger()).incrementAndGet();
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        int overCustomerLimit = 0;
+        for (AtomicInteger count : acceptedByCustomer.values()) {
+            if (count.get() > perCustomer) {
+                overCustomerLimit++;
+            }
+        }
+        int counted = store.getRedemptionCount("FLASH");
+        System.out.printf("Redemption race: %d threads, %,d accepted (limit %,d), %,d released, "
+                        + "store counts %,d, customers over their limit: %d%n",
+                threads, accepted.get(), limit, released.get(), counted, overCustomerLimit);
+
+        if (accepted.get() > limit || counted != accepted.get() || overCustomerLimit > 0) {
+            System.out.println("FAIL: redemption limits were not enforced");
+            return false;
+        }
+        return true;
+    }
+}
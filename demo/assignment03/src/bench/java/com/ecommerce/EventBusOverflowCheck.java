@@ -0,0 +1,120 @@
+package com.ecommerce;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Checks that a stuck listener cannot hold up OrderEventBus.
+ *
+ * 1. One listener blocks on its first event while another keeps up. Publishing
+ *    far more events than the stuck queue holds must return promptly, the healthy
+ *    listener must see every event, and every event the stuck one lost must be
+ *    counted as dropped.
+ * 2. A bounded-wait subscription gives up after its wait, and a publisher
+ *    interrupted while waiting drops the event and keeps its interrupt.
+ * 3. shutdown() must return within its timeout even though the stuck listener
+ *    never finishes, and publish() afterwards must be rejected.
+ *
+ * Exits with status 1 if any check fails.
+ */
+public class EventBusOverflowCheck {
+
+    private static final int EVENTS = 100_000;
+    private static final int STUCK_CAPACITY = 16;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 200;
+    private static final long SHUTDOWN_SLACK_MILLIS = 100;
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> failures = new ArrayList<>();
+        OrderEventBus bus = new OrderEventBus();
+        CountDownLatch never = new CountDownLatch(1);
+        OrderEventBus.Subscription stuck = bus.subscribe("stuck", event -> awaitUninterruptibly(never),
+                STUCK_CAPACITY, OrderStatus.SHIPPED);
+        OrderEventBus.Subscription healthy = bus.subscribe("healthy", event -> { },
+                EVENTS, OrderStatus.SHIPPED);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            bus.publish(new StatusChangeEvent("ORD-" + i, OrderStatus.SHIPPED));
+        }
+        double publishMillis = (System.nanoTime() - start) / 1_000_000.0;
+        System.out.printf("Published %,d events past a stuck listener in %.1f ms%n", EVENTS, publishMillis);
+
+        checkBoundedWait(failures);
+
+        start = System.nanoTime();
+        bus.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+        double shutdownMillis = (System.nanoTime() - start) / 1_000_000.0;
+        System.out.printf("Shutdown with a %d ms timeout took %.1f ms%n", SHUTDOWN_TIMEOUT_MILLIS, shutdownMillis);
+        System.out.println(stuck);
+        System.out.println(healthy);
+
+        if (healthy.getProcessedCount() != EVENTS) {
+            failures.add("healthy listener handled " + healthy.getProcessedCount() + " of " + EVENTS);
+        }
+        long accounted = stuck.getProcessedCount() + stuck.getDroppedCount() + stuck.getQueueDepth()
+                + (stuck.getProcessedCount() == 0 ? 1 : 0); // The event it is stuck on
+        if (accounted != EVENTS) {
+            failures.add("stuck listener accounts for " + accounted + " of " + EVENTS + " events");
+        }
+        // One deadline covers every listener, so only scheduling slack is allowed on top
+        if (shutdownMillis > SHUTDOWN_TIMEOUT_MILLIS + SHUTDOWN_SLACK_MILLIS) {
+            failures.add("shutdown took " + shutdownMillis + " ms");
+        }
+        try {
+            bus.publish(new StatusChangeEvent("ORD-late", OrderStatus.SHIPPED));
+            failures.add("publish after shutdown was accepted");
+        } catch (IllegalStateException expected) {
+            // Rejected, as it should be
+        }
+        never.countDown();
+
+        if (failures.isEmpty()) {
+            System.out.println("PASS");
+        } else {
+            failures.forEach(f -> System.out.println("FAIL: " + f));
+            System.exit(1);
+        }
+    }
+
+    private static void checkBoundedWait(List<String> failures) {
+        OrderEventBus bus = new OrderEventBus();
+        CountDownLatch release = new CountDownLatch(1);
+        OrderEventBus.Subscription waiting = bus.subscribe("waiting", event -> awaitUninterruptibly(release),
+                1, OrderEventBus.OverflowPolicy.waitUpTo(20), OrderStatus.CANCELLED);
+
+        // One event in the listener, one in the queue; the next two have to wait
+        for (int i = 0; i < 4; i++) {
+            bus.publish(new StatusChangeEvent("ORD-" + i, OrderStatus.CANCELLED));
+        }
+        Thread.currentThread().interrupt();
+        bus.publish(new StatusChangeEvent("ORD-interrupted", OrderStatus.CANCELLED));
+        boolean keptInterrupt = Thread.interrupted();
+
+        System.out.println("Bounded wait: " + waiting);
+        if (!keptInterrupt) {
+            failures.add("interrupted publisher lost its interrupt");
+        }
+        if (waiting.getDroppedCount() < 2) {
+            failures.add("bounded-wait subscription dropped " + waiting.getDroppedCount() + ", expected at least 2");
+        }
+        release.countDown();
+        bus.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+    }
+
+    /** Models a listener stuck on a dead provider that ignores interrupts. */
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (latch.getCount() > 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
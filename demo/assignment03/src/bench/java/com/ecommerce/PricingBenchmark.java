@@ -0,0 +1,110 @@
+package com.ecommerce;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per priced row: the old string if-chain, one calculatePrice call per row, and
+ * quoteAll over the whole batch of {@value #ROWS} rows. PricingConcurrencyCheck
+ * covers several threads sharing one engine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(PricingBenchmark.ROWS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PricingBenchmark {
+
+    static final int ROWS = 100_000;
+
+    private final PricingEngine engine = new PricingEngine();
+    private final CustomerTier[] tiers = new CustomerTier[ROWS];
+    private final String[] tierNames = new String[ROWS];
+    private final double[] basePrices = new double[ROWS];
+    private final int[] quantities = new int[ROWS];
+    private final double[] prices = new double[ROWS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        CustomerTier[] allTiers = CustomerTier.values();
+        for (int i = 0; i < ROWS; i++) {
+            tiers[i] = allTiers[random.nextInt(allTiers.length)];
+            tierNames[i] = tiers[i].name();
+            basePrices[i] = 1 + random.nextInt(50_000) / 100.0;
+            quantities[i] = 1 + random.nextInt(random.nextBoolean() ? 20 : 1_500);
+        }
+    }
+
+    @Benchmark
+    public double stringChain() {
+        double total = 0;
+        for (int i = 0; i < ROWS; i++) {
+            total += stringChainPrice(tierNames[i], basePrices[i], quantities[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double calculatePrice() {
+        double total = 0;
+        for (int i = 0; i < ROWS; i++) {
+            total += engine.calculatePrice(tiers[i], basePrices[i], quantities[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double[] quoteAll() {
+        engine.quoteAll(tiers, basePrices, quantities, prices);
+        return prices;
+    }
+
+    /**
+     * The pricing logic before the tier tables, kept as the baseline.
+     */
+    private static double stringChainPrice(String customerType, double basePrice, int quantity) {
+        double price = basePrice * quantity;
+        if (customerType.equals("REGULAR")) {
+            return price;
+        } else if (customerType.equals("MEMBER")) {
+            return price * 0.95;
+        } else if (customerType.equals("VIP")) {
+            return price * 0.85;
+        } else if (customerType.equals("WHOLESALE")) {
+            if (quantity >= 100) {
+                return price * 0.70;
+            } else if (quantity >= 50) {
+                return price * 0.80;
+            } else {
+                return price * 0.90;
+            }
+        } else if (customerType.equals("ENTERPRISE")) {
+            if (quantity >= 1_000) {
+                return price * 0.60;
+            } else if (quantity >= 500) {
+                return price * 0.65;
+            } else if (quantity >= 100) {
+                return price * 0.75;
+            } else {
+                return price * 0.85;
+            }
+        } else {
+            return price;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that PricingEngine can be shared between threads.
+ *
+ * Several threads price the same rows on one engine, row by row and through
+ * quoteAll, and every price must match the single-threaded answer.
+ *
+ * Usage: java com.ecommerce.PricingConcurrencyCheck [rows] [rounds] [threads]
+ * Exits with status 1 if any price differs.
+ */
+public class PricingConcurrencyCheck {
+
+    public static void main(String[] args) throws InterruptedException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        Random random = new Random(3);
+        CustomerTier[] tiers = new CustomerTier[rows];
+        double[] basePrices = new double[rows];
+        int[] quantities = new int[rows];
+        CustomerTier[] allTiers = CustomerTier.values();
+        for (int i = 0; i < rows; i++) {
+            tiers[i] = allTiers[random.nextInt(allTiers.length)];
+            basePrices[i] = 1 + random.nextInt(50_000) / 100.0;
+            quantities[i] = 1 + random.nextInt(random.nextBoolean() ? 20 : 1_500);
+        }
+
+        PricingEngine engine = new PricingEngine();
+        double[] expected = engine.quoteAll(tiers, basePrices, quantities);
+        AtomicInteger mismatches = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    for (int i = 0; i < rows; i++) {
+                        if (engine.calculatePrice(tiers[i], basePrices[i], quantities[i]) != expected[i]) {
+                            mismatches.incrementAndGet();
+                        }
+                    }
+                    if (!Arrays.equals(engine.quoteAll(tiers, basePrices, quantities), expected)) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        System.out.println(threads + " threads sharing one engine: " + mismatches.get() + " mismatched prices");
+
+        if (mismatches.get() == 0) {
+            System.out.println("PASS");
+        } else {
+            System.out.println("FAIL: prices differ between threads");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.ecommerce;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shopping cart: quantity per product plus at most one {@link Coupon}, priced from a {@link PriceList}.
+ *
+ * The cart keeps its subtotal, fees and discount as running totals in cents. Each
+ * add, remove, quantity change or coupon adjusts them by the difference it makes,
+ * so reading the total costs the same for a 3-line cart as for a 300-line one.
+ * {@link #recomputeTotalCents()} sums every line from scratch, for checking that
+ * the running totals have not drifted.
+ */
+public class Cart {
+    private final PriceList priceList;
+    private final Map<String, Integer> quantities = new LinkedHashMap<>();
+    private Coupon coupon;
+
+    // Running totals, in cents
+    private long subtotalCents;
+    private long feeCents;
+    private long discountCents;
+    private int itemCount;
+
+    public Cart(PriceList priceList) {
+        this.priceList = priceList;
+    }
+
+    /**
+     * @return An empty cart using the same price list
+     */
+    public Cart emptyCopy() {
+        return new Cart(priceList);
+    }
+
+    public void addItem(String productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        setQuantity(productId, getQuantity(productId) + quantity);
+    }
+
+    /**
+     * @return The quantity removed, 0 if the product was not in the cart
+     */
+    public int removeItem(String productId) {
+        int removed = getQuantity(productId);
+        if (removed > 0) {
+            setQuantity(productId, 0);
+        }
+        return removed;
+    }
+
+    /**
+     * Sets a product's quantity outright; 0 removes it.
+     *
+     * @throws IllegalArgumentException If the product has no price
+     */
+    public void setQuantity(String productId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity must not be negative: " + quantity);
+        }
+        int delta = quantity - getQuantity(productId);
+        if (delta == 0) {
+            return;
+        }
+        long unitPrice = priceList.unitPriceCents(productId);
+        if (quantity == 0) {
+            quantities.remove(productId);
+        } else {
+            quantities.put(productId, quantity);
+        }
+        subtotalCents += delta * unitPrice;
+        feeCents += delta * priceList.unitFeeCents(productId);
+        itemCount += delta;
+        discountCents = discountFor(subtotalCents, coupon);
+    }
+
+    public int getQuantity(String productId) {
+        return quantities.getOrDefault(productId, 0);
+    }
+
+    /**
+     * @return Quantity per product, in the order products were first added
+     */
+    public Map<String, Integer> getItems() {
+        return Collections.unmodifiableMap(quantities);
+    }
+
+    /**
+     * Prices the cart with a coupon. Whether the coupon may still be redeemed is
+     * checked at checkout.
+     *
+     * @param coupon The coupon, or null to remove it
+     */
+    public void applyCoupon(Coupon coupon) {
+        this.coupon = coupon;
+        this.discountCents = discountFor(subtotalCents, coupon);
+    }
+
+    public Coupon getCoupon() {
+        return coupon;
+    }
+
+    public String getCouponCode() {
+        return coupon == null ? null : coupon.getCode();
+    }
+
+    public boolean isEmpty() {
+        return quantities.isEmpty();
+    }
+
+    /** Total units across all lines. */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public long getSubtotalCents() {
+        return subtotalCents;
+    }
+
+    public long getFeeCents() {
+        return feeCents;
+    }
+
+    public long getDiscountCents() {
+        return discountCents;
+    }
+
+    public long getTotalCents() {
+        return subtotalCents + feeCents - discountCents;
+    }
+
+    public double getTotal() {
+        return getTotalCents() / 100.0;
+    }
+
+    /**
+     * Sums every line from scratch. Only meant as a consistency check; use
+     * {@link #getTotalCents()} to read the total.
+     */
+    public long recomputeTotalCents() {
+        long subtotal = 0;
+        long fees = 0;
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            subtotal += line.getValue() * priceList.unitPriceCents(line.getKey());
+            fees += line.getValue() * priceList.unitFeeCents(line.getKey());
+        }
+        return subtotal + fees - discountFor(subtotal, coupon);
+    }
+
+    /**
+     * @return true if the running total matches a full recompute
+     */
+    public boolean isConsistent() {
+        return recomputeTotalCents() == getTotalCents();
+    }
+
+    public void clear() {
+        quantities.clear();
+        coupon = null;
+        subtotalCents = 0;
+        feeCents = 0;
+        discountCents = 0;
+        itemCount = 0;
+    }
+
+    private static long discountFor(long subtotalCents, Coupon coupon) {
+        return coupon == null ? 0 : coupon.discountCents(subtotalCents);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cart{items=%s%s, total=$%.2f}", quantities,
+                coupon == null ? "" : ", coupon=" + coupon.getCode(), getTotal());
+    }
+}
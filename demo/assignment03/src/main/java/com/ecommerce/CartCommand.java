@@ -0,0 +1,120 @@
+package com.ecommerce;
+
+/**
+ * A typed action on a checkout session's cart.
+ *
+ * Each command carries its {@link Type}, which {@link CheckoutController} uses to
+ * look up the handler in a table built once, instead of comparing action strings.
+ */
+public abstract class CartCommand {
+
+    public enum Type { ADD_ITEM, REMOVE_ITEM, APPLY_COUPON, CHECKOUT }
+
+    private final Type type;
+
+    CartCommand(Type type) {
+        this.type = type;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public static AddItem addItem(String productId, int quantity) {
+        return new AddItem(productId, quantity);
+    }
+
+    public static RemoveItem removeItem(String productId) {
+        return new RemoveItem(productId);
+    }
+
+    public static ApplyCoupon applyCoupon(String code) {
+        return new ApplyCoupon(code);
+    }
+
+    public static Checkout checkout() {
+        return Checkout.INSTANCE;
+    }
+
+    /**
+     * A command on one product's line, whose quantity undo restores.
+     */
+    public abstract static class ItemCommand extends CartCommand {
+        private final String productId;
+
+        ItemCommand(Type type, String productId) {
+            super(type);
+            this.productId = productId;
+        }
+
+        public String getProductId() {
+            return productId;
+        }
+    }
+
+    public static final class AddItem extends ItemCommand {
+        private final int quantity;
+
+        AddItem(String productId, int quantity) {
+            super(Type.ADD_ITEM, productId);
+            if (quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+            }
+            this.quantity = quantity;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        @Override
+        public String toString() {
+            return "AddItem{" + getProductId() + " x" + quantity + "}";
+        }
+    }
+
+    public static final class RemoveItem extends ItemCommand {
+        RemoveItem(String productId) {
+            super(Type.REMOVE_ITEM, productId);
+        }
+
+        @Override
+        public String toString() {
+            return "RemoveItem{" + getProductId() + "}";
+        }
+    }
+
+    public static final class ApplyCoupon extends CartCommand {
+        private final String code;
+
+        ApplyCoupon(String code) {
+            super(Type.APPLY_COUPON);
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public String toString() {
+            return "ApplyCoupon{" + code + "}";
+        }
+    }
+
+    /**
+     * Charges the cart and saves the order. Cannot be undone.
+     */
+    public static final class Checkout extends CartCommand {
+        private static final Checkout INSTANCE = new Checkout();
+
+        private Checkout() {
+            super(Type.CHECKOUT);
+        }
+
+        @Override
+        public String toString() {
+            return "Checkout";
+        }
+    }
+}
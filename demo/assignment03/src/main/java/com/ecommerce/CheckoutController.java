@@ -1,40 +1,336 @@
 package com.ecommerce;
 
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Applies typed {@link CartCommand}s to one checkout session's cart.
+ *
+ * Commands are dispatched through a handler table keyed by command type, built once
+ * per session. Every command except checkout is journaled with the cart state it
+ * replaced, so it can be undone, redone, or replayed onto a fresh cart to rebuild
+ * this one. Checkout charges the customer, so it cannot be undone and starts a new
+ * history.
+ *
+ * Commands can also be queued from any thread with {@link #submit} and applied
+ * together by {@link #applyPending()}, taking the session's lock once per batch.
+ *
+ * Coupon codes are looked up in a {@link CouponStore}; an unknown code is rejected
+ * when applied. The coupon is only redeemed at checkout, so a cart that is abandoned
+ * never uses up one of the coupon's limited redemptions. If the charge fails the
+ * redemption is released again. Once the customer has been charged, the session
+ * remembers it: if saving the order then fails, checking out again only retries the
+ * save, so a retry neither charges the customer nor redeems the coupon a second time.
+ * Until that save succeeds, commands that would change the cart are rejected.
+ */
 public class CheckoutController {
-    private Cart cart;
-    private PaymentService paymentService;
-    private OrderRepository orderRepository;
+    private final Cart cart;
+    private final String customerId;
+    private final CouponStore coupons;
+    private final PaymentService paymentService;
+    private final OrderRepository orderRepository;
+    private final Map<CartCommand.Type, CartCommandHandler> handlers;
+    private final CommandJournal journal = new CommandJournal();
+    private final Queue<CartCommand> pending = new ConcurrentLinkedQueue<>();
+    private boolean charged; // Charged at checkout, order not saved yet
 
     public CheckoutController(Cart cart) {
+        this(cart, "guest", new CouponStore());
+    }
+
+    /**
+     * @param customerId Whose redemptions count against the coupon's per-customer limit
+     */
+    public CheckoutController(Cart cart, String customerId, CouponStore coupons) {
+        this(cart, customerId, coupons, new PaymentService(), new OrderRepository());
+    }
+
+    CheckoutController(Cart cart, String customerId, CouponStore coupons,
+                       PaymentService paymentService, OrderRepository orderRepository) {
         this.cart = cart;
-        this.paymentService = new PaymentService();
-        this.orderRepository = new OrderRepository();
+        this.customerId = customerId;
+        this.coupons = coupons;
+        this.paymentService = paymentService;
+        this.orderRepository = orderRepository;
+        this.handlers = createHandlers();
+    }
+
+    public synchronized void execute(CartCommand command) {
+        apply(command);
+    }
+
+    /**
+     * Applies several commands in order, taking the session's lock once.
+     */
+    public synchronized void executeAll(Collection<? extends CartCommand> commands) {
+        for (CartCommand command : commands) {
+            apply(command);
+        }
+    }
+
+    /**
+     * Queues a command for the next {@link #applyPending()}. Safe to call from any thread.
+     */
+    public void submit(CartCommand command) {
+        pending.add(command);
+    }
+
+    /**
+     * Applies every queued command in one batch.
+     *
+     * @return Number of commands applied
+     */
+    public synchronized int applyPending() {
+        int applied = 0;
+        CartCommand command;
+        while ((command = pending.poll()) != null) {
+            apply(command);
+            applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * Reverts the last applied command.
+     *
+     * @return false if there is nothing to undo
+     */
+    public synchronized boolean undo() {
+        requireNotCharged("undo");
+        if (!journal.canUndo()) {
+            return false;
+        }
+        int entry = journal.lastApplied();
+        CartCommand command = journal.commandAt(entry);
+        handlers.get(command.getType()).undo(cart, command,
+                journal.priorQuantityAt(entry), journal.priorCouponAt(entry));
+        journal.stepBack();
+        return true;
+    }
+
+    /**
+     * Applies the last undone command again.
+     *
+     * @return false if there is nothing to redo
+     */
+    public synchronized boolean redo() {
+        requireNotCharged("redo");
+        if (!journal.canRedo()) {
+            return false;
+        }
+        CartCommand command = journal.nextRedo();
+        // The cart is back in the state the command first ran against, so its journal entry still holds.
+        // The cursor only moves once the command has applied, so a redo that throws can be retried.
+        handlers.get(command.getType()).apply(cart, command);
+        journal.stepForward();
+        return true;
+    }
+
+    /**
+     * Rebuilds the cart by applying this session's history to an empty cart.
+     */
+    public synchronized Cart replay() {
+        Cart rebuilt = cart.emptyCopy();
+        for (CartCommand command : journal.appliedCommands()) {
+            handlers.get(command.getType()).apply(rebuilt, command);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * @return The applied commands since the last checkout, oldest first
+     */
+    public synchronized List<CartCommand> getHistory() {
+        return journal.appliedCommands();
+    }
+
+    public synchronized boolean canUndo() {
+        return journal.canUndo();
     }
 
-    // Problem: No way to undo operations. No transaction history.
+    public synchronized boolean canRedo() {
+        return journal.canRedo();
+    }
+
+    /**
+     * @deprecated Build a {@link CartCommand} and call {@link #execute(CartCommand)}
+     */
+    @Deprecated
     public void processAction(String action, Object... params) {
-        if (action.equals("ADD_ITEM")) {
-            cart.addItem((String) params[0], (Integer) params[1]);
-        } else if (action.equals("REMOVE_ITEM")) {
-            cart.removeItem((String) params[0]);
-        } else if (action.equals("APPLY_COUPON")) {
-            cart.applyCoupon((String) params[0]);
-        } else if (action.equals("CHECKOUT")) {
-            paymentService.charge(cart.getTotal());
-            orderRepository.save(cart);
-            cart.clear();
-        } else {
-            System.out.println("Unknown action: " + action);
+        CartCommand command;
+        switch (action) {
+            case "ADD_ITEM":
+                command = CartCommand.addItem((String) params[0], (Integer) params[1]);
+                break;
+            case "REMOVE_ITEM":
+                command = CartCommand.removeItem((String) params[0]);
+                break;
+            case "APPLY_COUPON":
+                command = CartCommand.applyCoupon((String) params[0]);
+                break;
+            case "CHECKOUT":
+                command = CartCommand.checkout();
+                break;
+            default:
+                System.out.println("Unknown action: " + action);
+                return;
+        }
+        execute(command);
+    }
+
+    /**
+     * @return true if the customer was charged at checkout but the order has not been
+     *         saved yet; checking out again retries the save
+     */
+    public synchronized boolean isAwaitingSave() {
+        return charged;
+    }
+
+    private void apply(CartCommand command) {
+        if (command.getType() != CartCommand.Type.CHECKOUT) {
+            requireNotCharged("apply " + command);
+        }
+        CartCommandHandler handler = handlers.get(command.getType());
+        if (!handler.isUndoable()) {
+            handler.apply(cart, command);
+            journal.clear();
+            return;
+        }
+
+        int priorQuantity = command instanceof CartCommand.ItemCommand
+                ? cart.getQuantity(((CartCommand.ItemCommand) command).getProductId())
+                : 0;
+        Coupon priorCoupon = cart.getCoupon();
+        handler.apply(cart, command);
+        journal.record(command, priorQuantity, priorCoupon);
+    }
+
+    private Map<CartCommand.Type, CartCommandHandler> createHandlers() {
+        Map<CartCommand.Type, CartCommandHandler> table = new EnumMap<>(CartCommand.Type.class);
+        table.put(CartCommand.Type.ADD_ITEM, new ItemCommandHandler() {
+            @Override
+            public void apply(Cart target, CartCommand command) {
+                CartCommand.AddItem addItem = (CartCommand.AddItem) command;
+                target.addItem(addItem.getProductId(), addItem.getQuantity());
+            }
+        });
+        table.put(CartCommand.Type.REMOVE_ITEM, new ItemCommandHandler() {
+            @Override
+            public void apply(Cart target, CartCommand command) {
+                target.removeItem(((CartCommand.RemoveItem) command).getProductId());
+            }
+        });
+        table.put(CartCommand.Type.APPLY_COUPON, new CartCommandHandler() {
+            @Override
+            public void apply(Cart target, CartCommand command) {
+                String code = ((CartCommand.ApplyCoupon) command).getCode();
+                if (code == null) {
+                    target.applyCoupon(null);
+                    return;
+                }
+                Coupon coupon = coupons.find(code);
+                if (coupon == null) {
+                    throw new IllegalArgumentException("Unknown coupon " + code);
+                }
+                target.applyCoupon(coupon);
+            }
+
+            @Override
+            public void undo(Cart target, CartCommand command, int priorQuantity, Coupon priorCoupon) {
+                target.applyCoupon(priorCoupon);
+            }
+        });
+        table.put(CartCommand.Type.CHECKOUT, new IrreversibleCommandHandler() {
+            @Override
+            public void apply(Cart target, CartCommand command) {
+                String code = target.getCouponCode();
+                if (!charged) {
+                    if (code != null) {
+                        RedemptionResult result = coupons.redeem(code, customerId);
+                        if (result != RedemptionResult.ACCEPTED) {
+                            throw new IllegalStateException("Coupon " + code + " cannot be redeemed: " + result);
+                        }
+                    }
+                    try {
+                        paymentService.charge(target.getTotal());
+                    } catch (RuntimeException e) {
+                        if (code != null) {
+                            coupons.release(code, customerId);
+                        }
+                        throw e;
+                    }
+                    charged = true;
+                }
+                // A retry after a failed save lands here directly, with the charge and redemption already made
+                try {
+                    orderRepository.save(target);
+                } catch (RuntimeException e) {
+                    System.out.println("ERROR: Customer " + customerId + " was charged but the order was not saved"
+                            + " (check out again to retry the save): " + e.getMessage());
+                    throw e;
+                }
+                charged = false;
+                target.clear();
+            }
+        });
+
+        for (CartCommand.Type type : CartCommand.Type.values()) {
+            if (!table.containsKey(type)) {
+                throw new IllegalStateException("No handler for command type " + type);
+            }
         }
+        return table;
+    }
+
+    private void requireNotCharged(String action) {
+        if (charged) {
+            throw new IllegalStateException("Cannot " + action + ": customer " + customerId
+                    + " was charged and the order is not saved yet; check out again to retry the save");
+        }
+    }
+}
+
+interface CartCommandHandler {
+    void apply(Cart cart, CartCommand command);
+
+    /**
+     * Puts the cart back as it was before the command ran.
+     */
+    void undo(Cart cart, CartCommand command, int priorQuantity, Coupon priorCoupon);
+
+    /**
+     * @return false only for handlers extending {@link IrreversibleCommandHandler}
+     */
+    default boolean isUndoable() {
+        return true;
     }
 }
 
-class Cart {
-    void addItem(String id, int qty) { System.out.println("Added " + qty + "x " + id); }
-    void removeItem(String id) { System.out.println("Removed " + id); }
-    void applyCoupon(String code) { System.out.println("Applied coupon: " + code); }
-    double getTotal() { return 99.99; }
-    void clear() { System.out.println("Cart cleared"); }
+/**
+ * Base for commands that cannot be taken back, such as checkout. The controller
+ * does not journal them and starts a new history after each one.
+ */
+abstract class IrreversibleCommandHandler implements CartCommandHandler {
+    @Override
+    public final void undo(Cart cart, CartCommand command, int priorQuantity, Coupon priorCoupon) {
+        throw new UnsupportedOperationException(command + " cannot be undone");
+    }
+
+    @Override
+    public final boolean isUndoable() {
+        return false;
+    }
+}
+
+abstract class ItemCommandHandler implements CartCommandHandler {
+    @Override
+    public void undo(Cart cart, CartCommand command, int priorQuantity, Coupon priorCoupon) {
+        cart.setQuantity(((CartCommand.ItemCommand) command).getProductId(), priorQuantity);
+    }
 }
 
 class PaymentService { 
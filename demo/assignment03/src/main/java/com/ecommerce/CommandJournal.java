@@ -0,0 +1,109 @@
+package com.ecommerce;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Undo/redo history of one checkout session.
+ *
+ * Entries live in parallel arrays: the command, plus the product quantity and coupon
+ * the cart had just before it ran, which is all undo needs to put the cart back. The
+ * entries before the cursor are applied; those after it were undone and can be
+ * redone until a new command is recorded.
+ */
+final class CommandJournal {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private CartCommand[] commands = new CartCommand[INITIAL_CAPACITY];
+    private int[] priorQuantities = new int[INITIAL_CAPACITY];
+    private Coupon[] priorCoupons = new Coupon[INITIAL_CAPACITY];
+    private int cursor;     // Number of applied entries
+    private int recorded;   // Applied plus redoable entries
+
+    /**
+     * Appends an applied command, discarding anything that could have been redone.
+     */
+    void record(CartCommand command, int priorQuantity, Coupon priorCoupon) {
+        if (cursor == commands.length) {
+            int capacity = commands.length * 2;
+            commands = Arrays.copyOf(commands, capacity);
+            priorQuantities = Arrays.copyOf(priorQuantities, capacity);
+            priorCoupons = Arrays.copyOf(priorCoupons, capacity);
+        }
+        commands[cursor] = command;
+        priorQuantities[cursor] = priorQuantity;
+        priorCoupons[cursor] = priorCoupon;
+        cursor++;
+        if (recorded > cursor) {
+            Arrays.fill(commands, cursor, recorded, null);
+            Arrays.fill(priorCoupons, cursor, recorded, null);
+        }
+        recorded = cursor;
+    }
+
+    boolean canUndo() {
+        return cursor > 0;
+    }
+
+    boolean canRedo() {
+        return cursor < recorded;
+    }
+
+    /**
+     * @return The index of the last applied entry, the one undo reverts
+     */
+    int lastApplied() {
+        return cursor - 1;
+    }
+
+    /**
+     * @return The next undone command, the one redo applies again
+     */
+    CartCommand nextRedo() {
+        return commands[cursor];
+    }
+
+    /**
+     * Moves the cursor back over the last applied entry, once it has been undone.
+     */
+    void stepBack() {
+        cursor--;
+    }
+
+    /**
+     * Moves the cursor forward over the next undone entry, once it has been applied again.
+     */
+    void stepForward() {
+        cursor++;
+    }
+
+    CartCommand commandAt(int index) {
+        return commands[index];
+    }
+
+    int priorQuantityAt(int index) {
+        return priorQuantities[index];
+    }
+
+    Coupon priorCouponAt(int index) {
+        return priorCoupons[index];
+    }
+
+    /**
+     * @return The applied commands, oldest first
+     */
+    List<CartCommand> appliedCommands() {
+        return List.of(Arrays.copyOf(commands, cursor));
+    }
+
+    int size() {
+        return cursor;
+    }
+
+    void clear() {
+        Arrays.fill(commands, 0, recorded, null);
+        Arrays.fill(priorCoupons, 0, recorded, null);
+        cursor = 0;
+        recorded = 0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce;
+
+import java.util.Locale;
+
+/**
+ * An immutable coupon: a discount and how many times it may be redeemed.
+ *
+ * Usage:
+ * Coupon summer = Coupon.percentOff("SUMMER20", 20).withLimits(1_000, 1);
+ */
+public final class Coupon {
+
+    public enum Kind { PERCENT_OFF, AMOUNT_OFF }
+
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final String code;
+    private final Kind kind;
+    private final long value;        // Percent, or cents off
+    private final int maxRedemptions;
+    private final int maxPerCustomer;
+
+    private Coupon(String code, Kind kind, long value, int maxRedemptions, int maxPerCustomer) {
+        this.code = normalize(code);
+        this.kind = kind;
+        this.value = value;
+        this.maxRedemptions = maxRedemptions;
+        this.maxPerCustomer = maxPerCustomer;
+    }
+
+    public static Coupon percentOff(String code, int percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Percent off must be 0-100: " + percent);
+        }
+        return new Coupon(code, Kind.PERCENT_OFF, percent, UNLIMITED, UNLIMITED);
+    }
+
+    public static Coupon amountOff(String code, double amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount off must not be negative: " + amount);
+        }
+        return new Coupon(code, Kind.AMOUNT_OFF, PriceList.toCents(amount), UNLIMITED, UNLIMITED);
+    }
+
+    /**
+     * @param maxRedemptions Redemptions allowed across all customers
+     * @param maxPerCustomer Redemptions allowed per customer
+     * @return A copy of this coupon with the given limits
+     */
+    public Coupon withLimits(int maxRedemptions, int maxPerCustomer) {
+        if (maxRedemptions < 0 || maxPerCustomer < 0) {
+            throw new IllegalArgumentException("Limits must not be negative");
+        }
+        return new Coupon(code, kind, value, maxRedemptions, maxPerCustomer);
+    }
+
+    /**
+     * Codes are matched ignoring case and surrounding spaces.
+     */
+    static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @return The discount on a subtotal, never more than the subtotal itself
+     */
+    public long discountCents(long subtotalCents) {
+        if (kind == Kind.PERCENT_OFF) {
+            return subtotalCents * value / 100;
+        }
+        return Math.min(value, subtotalCents);
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getMaxRedemptions() {
+        return maxRedemptions;
+    }
+
+    public int getMaxPerCustomer() {
+        return maxPerCustomer;
+    }
+
+    @Override
+    public String toString() {
+        String discount = kind == Kind.PERCENT_OFF ? value + "% off" : String.format("$%.2f off", value / 100.0);
+        return "Coupon{" + code + ", " + discount + "}";
+    }
+}
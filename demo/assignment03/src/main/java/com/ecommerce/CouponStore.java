@@ -0,0 +1,257 @@
+package com.ecommerce;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coupons by code, with redemption limits that hold under concurrent checkouts.
+ *
+ * During a campaign most submitted codes are typos or guesses. Every code is first
+ * checked against a Bloom filter of the known codes, which answers "definitely not a
+ * coupon" for almost all of them from a few bit reads, so the index is only consulted
+ * for real codes and the odd false positive.
+ *
+ * Redemption counts are kept per coupon and per customer in atomic counters that only
+ * go up while below their limit, so two checkouts racing for the last redemption can
+ * never both get it.
+ */
+public class CouponStore {
+
+    public static final int DEFAULT_EXPECTED_COUPONS = 10_000;
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private final BloomFilter knownCodes;
+    private final ConcurrentHashMap<String, CouponState> coupons = new ConcurrentHashMap<>();
+
+    private final LongAdder filterRejections = new LongAdder();
+    private final LongAdder indexLookups = new LongAdder();
+
+    public CouponStore() {
+        this(DEFAULT_EXPECTED_COUPONS, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * @param expectedCoupons   How many coupons the store is sized for; more still work,
+     *                          but let more unknown codes through to the index
+     * @param falsePositiveRate Share of unknown codes the filter lets through
+     */
+    public CouponStore(int expectedCoupons, double falsePositiveRate) {
+        this.knownCodes = new BloomFilter(expectedCoupons, falsePositiveRate);
+    }
+
+    /**
+     * Adds or replaces a coupon. Replacing keeps the redemptions counted so far.
+     */
+    public void add(Coupon coupon) {
+        // Filter first, so the code is never in the index but rejected by the filter
+        knownCodes.add(coupon.getCode());
+        coupons.compute(coupon.getCode(), (code, existing) ->
+                existing == null ? new CouponState(coupon) : existing.withCoupon(coupon));
+    }
+
+    /**
+     * @return The coupon for the code, or null if there is none
+     */
+    public Coupon find(String code) {
+        CouponState state = lookUp(code);
+        return state == null ? null : state.coupon;
+    }
+
+    /**
+     * Checks whether the customer could redeem the code now, without redeeming it.
+     */
+    public RedemptionResult check(String code, String customerId) {
+        CouponState state = lookUp(code);
+        if (state == null) {
+            return RedemptionResult.UNKNOWN_CODE;
+        }
+        if (state.redeemed.get() >= state.coupon.getMaxRedemptions()) {
+            return RedemptionResult.EXHAUSTED;
+        }
+        AtomicInteger mine = state.perCustomer.get(customerId);
+        if (mine != null && mine.get() >= state.coupon.getMaxPerCustomer()) {
+            return RedemptionResult.CUSTOMER_LIMIT_REACHED;
+        }
+        return RedemptionResult.ACCEPTED;
+    }
+
+    /**
+     * Redeems the code for the customer if both the coupon's and the customer's
+     * limits allow one more.
+     */
+    public RedemptionResult redeem(String code, String customerId) {
+        CouponState state = lookUp(code);
+        if (state == null) {
+            return RedemptionResult.UNKNOWN_CODE;
+        }
+        AtomicInteger mine = state.perCustomer.computeIfAbsent(customerId, id -> new AtomicInteger());
+        if (!incrementBelow(mine, state.coupon.getMaxPerCustomer())) {
+            return RedemptionResult.CUSTOMER_LIMIT_REACHED;
+        }
+        if (!incrementBelow(state.redeemed, state.coupon.getMaxRedemptions())) {
+            mine.decrementAndGet();
+            return RedemptionResult.EXHAUSTED;
+        }
+        return RedemptionResult.ACCEPTED;
+    }
+
+    /**
+     * Gives back a redemption, e.g. when the payment after it failed.
+     *
+     * @return false if the customer had no redemption of the code to give back
+     */
+    public boolean release(String code, String customerId) {
+        CouponState state = lookUp(code);
+        if (state == null) {
+            return false;
+        }
+        AtomicInteger mine = state.perCustomer.get(customerId);
+        if (mine == null || !decrementAbove(mine)) {
+            return false;
+        }
+        state.redeemed.decrementAndGet();
+        return true;
+    }
+
+    public int getRedemptionCount(String code) {
+        CouponState state = lookUp(code);
+        return state == null ? 0 : state.redeemed.get();
+    }
+
+    public int size() {
+        return coupons.size();
+    }
+
+    /** Codes the Bloom filter turned away without an index lookup. */
+    public long getFilterRejections() {
+        return filterRejections.sum();
+    }
+
+    /** Codes that got past the filter and were looked up in the index. */
+    public long getIndexLookups() {
+        return indexLookups.sum();
+    }
+
+    private CouponState lookUp(String code) {
+        if (code == null) {
+            return null;
+        }
+        String normalized = Coupon.normalize(code);
+        if (!knownCodes.mightContain(normalized)) {
+            filterRejections.increment();
+            return null;
+        }
+        indexLookups.increment();
+        return coupons.get(normalized);
+    }
+
+    private static boolean incrementBelow(AtomicInteger counter, int limit) {
+        while (true) {
+            int current = counter.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean decrementAbove(AtomicInteger counter) {
+        while (true) {
+            int current = counter.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static final class CouponState {
+        final Coupon coupon;
+        final AtomicInteger redeemed;
+        final ConcurrentHashMap<String, AtomicInteger> perCustomer;
+
+        CouponState(Coupon coupon) {
+            this(coupon, new AtomicInteger(), new ConcurrentHashMap<>());
+        }
+
+        private CouponState(Coupon coupon, AtomicInteger redeemed, ConcurrentHashMap<String, AtomicInteger> perCustomer) {
+            this.coupon = coupon;
+            this.redeemed = redeemed;
+            this.perCustomer = perCustomer;
+        }
+
+        CouponState withCoupon(Coupon replacement) {
+            return new CouponState(replacement, redeemed, perCustomer);
+        }
+    }
+}
+
+/**
+ * Bloom filter over strings with atomically set bits, so codes can be added while
+ * other threads query. Uses double hashing over a 64-bit hash of the string.
+ */
+class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+    }
+
+    void add(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(h1 + i * h2);
+            long mask = 1L << bit;
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long bitIndex(int combined) {
+        return (combined & 0xffffffffL) % bitCount;
+    }
+
+    /**
+     * FNV-1a over the characters, then a final avalanche so both halves are well mixed.
+     */
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce;
+
+/**
+ * Pricing tier of a customer. The discounts for each tier are data, held in the
+ * {@link PricingEngine}'s tables, so adding a tier means adding a constant and a table row.
+ */
+public enum CustomerTier {
+    REGULAR,
+    MEMBER,
+    VIP,
+    WHOLESALE,
+    ENTERPRISE
+}
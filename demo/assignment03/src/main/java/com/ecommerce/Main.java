@@ -1,26 +1,65 @@
 package com.ecommerce;
 
+import java.util.Arrays;
+
 public class Main {
     public static void main(String[] args) {
         // Order status with hard-coded listeners
         OrderStatusManager statusManager = new OrderStatusManager();
         statusManager.updateStatus("ORD-001", "SHIPPED");
+        statusManager.shutdown(); // Let the async listeners finish before moving on
         System.out.println();
         
-        // Checkout without undo
-        Cart cart = new Cart();
-        CheckoutController checkout = new CheckoutController(cart);
-        checkout.processAction("ADD_ITEM", "P001", 2);
-        checkout.processAction("APPLY_COUPON", "SUMMER20");
-        // Can't undo!
+        // Checkout with typed commands and undo/redo
+        PriceList prices = PriceList.builder()
+                .product("P001", 19.99)
+                .product("P002", 249.00, 2.50)
+                .product("P003", 4.50)
+                .build();
+        CouponStore coupons = new CouponStore();
+        coupons.add(Coupon.percentOff("SUMMER20", 20).withLimits(1_000, 1));
+        coupons.add(Coupon.amountOff("WELCOME5", 5.00));
+        Cart cart = new Cart(prices);
+        CheckoutController checkout = new CheckoutController(cart, "customer-42", coupons);
+        checkout.execute(CartCommand.addItem("P001", 2));
+        checkout.execute(CartCommand.addItem("P002", 1));
+        checkout.execute(CartCommand.applyCoupon("SUMMER20"));
+        System.out.println("Cart: " + cart);
+        checkout.undo();
+        checkout.undo();
+        System.out.println("After 2 undos: " + cart);
+        checkout.redo();
+        System.out.println("After redo: " + cart);
+
+        // Clicks queued from the UI are applied in one batch
+        checkout.submit(CartCommand.addItem("P003", 4));
+        checkout.submit(CartCommand.removeItem("P001"));
+        System.out.println("Applied " + checkout.applyPending() + " queued commands: " + cart);
+        System.out.println("Replayed from history: " + checkout.replay());
+        System.out.println("Running total matches full recompute? " + cart.isConsistent());
+        checkout.execute(CartCommand.applyCoupon(" summer20 "));    // Codes ignore case and spaces
+        checkout.execute(CartCommand.checkout());
+        System.out.println("SUMMER20 redeemed " + coupons.getRedemptionCount("SUMMER20") + " time(s)");
+
+        // Guessed codes are turned away by the Bloom filter without an index lookup
+        try {
+            checkout.execute(CartCommand.applyCoupon("SUMMER50"));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Rejected: " + e.getMessage());
+        }
+        System.out.println("Second SUMMER20 for the same customer: " + coupons.check("summer20", "customer-42"));
         System.out.println();
         
-        // Pricing with if-else chain
+        // Pricing from tier tables; one engine is shared, the tier is passed per call
         PricingEngine pricing = new PricingEngine();
-        pricing.setCustomerType("VIP");
-        System.out.println("VIP Price: $" + pricing.calculatePrice(100.0, 5));
-        
-        pricing.setCustomerType("WHOLESALE");
-        System.out.println("Wholesale Price (100 qty): $" + pricing.calculatePrice(100.0, 100));
+        System.out.println("VIP Price: $" + pricing.calculatePrice(CustomerTier.VIP, 100.0, 5));
+        System.out.println("Wholesale Price (100 qty): $" + pricing.calculatePrice(CustomerTier.WHOLESALE, 100.0, 100));
+        System.out.println("Enterprise Price (500 qty): $" + pricing.calculatePrice(CustomerTier.ENTERPRISE, 100.0, 500));
+
+        double[] quotes = pricing.quoteAll(
+                new CustomerTier[] { CustomerTier.REGULAR, CustomerTier.MEMBER, CustomerTier.WHOLESALE },
+                new double[] { 100.0, 100.0, 100.0 },
+                new int[] { 1, 2, 60 });
+        System.out.println("Batch quotes: " + Arrays.toString(quotes));
     }
 }
@@ -0,0 +1,308 @@
+package com.ecommerce;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous, typed bus for order status changes.
+ *
+ * Every subscription owns a bounded queue and a dedicated worker thread, so a
+ * slow listener only backs up its own queue and never delays the others.
+ * Each worker handles its events one at a time in publish order, which keeps
+ * the events of any single order in order for that listener.
+ *
+ * When a subscription's queue is full, its {@link OverflowPolicy} decides what
+ * happens: the event is dropped and counted at once, or after waiting a bounded
+ * time for room. publish() never waits longer than that.
+ */
+public class OrderEventBus {
+
+    private final Map<OrderStatus, List<Subscription>> subscriptionsByStatus = new EnumMap<>(OrderStatus.class);
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    public OrderEventBus() {
+        for (OrderStatus status : OrderStatus.values()) {
+            subscriptionsByStatus.put(status, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    /**
+     * Registers a listener that drops events its full queue has no room for.
+     *
+     * @see #subscribe(String, StatusChangeListener, int, OverflowPolicy, OrderStatus, OrderStatus...)
+     */
+    public Subscription subscribe(String name, StatusChangeListener listener, int queueCapacity,
+                                  OrderStatus first, OrderStatus... rest) {
+        return subscribe(name, listener, queueCapacity, OverflowPolicy.DROP, first, rest);
+    }
+
+    /**
+     * Registers a listener for one or more statuses.
+     *
+     * @param name Name used for the worker thread and in metrics
+     * @param listener The listener to call
+     * @param queueCapacity Maximum events waiting for this listener
+     * @param overflowPolicy What publish() does when the queue is full
+     * @param statuses Statuses the listener is interested in
+     * @return The subscription, which exposes queue depth, drop and lag metrics
+     * @throws IllegalStateException If the bus has been shut down
+     */
+    public Subscription subscribe(String name, StatusChangeListener listener, int queueCapacity,
+                                  OverflowPolicy overflowPolicy, OrderStatus first, OrderStatus... rest) {
+        if (closed) {
+            throw new IllegalStateException("Event bus is shut down; cannot subscribe " + name);
+        }
+        Subscription subscription = new Subscription(name, listener, queueCapacity, overflowPolicy);
+        for (OrderStatus status : EnumSet.of(first, rest)) {
+            subscriptionsByStatus.get(status).add(subscription);
+        }
+        subscriptions.add(subscription);
+        subscription.start();
+        return subscription;
+    }
+
+    /**
+     * Queues the event for every listener subscribed to its status and returns
+     * without waiting for the listeners to run. A listener whose queue stays full
+     * loses the event, which shows up in its dropped count.
+     *
+     * @throws IllegalStateException If the bus has been shut down
+     */
+    public void publish(StatusChangeEvent event) {
+        if (closed) {
+            throw new IllegalStateException("Event bus is shut down; cannot publish " + event);
+        }
+        for (Subscription subscription : subscriptionsByStatus.get(event.getStatus())) {
+            subscription.enqueue(event);
+        }
+    }
+
+    /**
+     * Gets all subscriptions, e.g. to report their metrics.
+     */
+    public List<Subscription> getSubscriptions() {
+        return Collections.unmodifiableList(new ArrayList<>(subscriptions));
+    }
+
+    public boolean isShutdown() {
+        return closed;
+    }
+
+    /**
+     * Rejects further events, lets every listener finish its queued events, then
+     * stops the workers. A worker still busy when the timeout runs out is
+     * interrupted and not waited for, and the events it had not reached are
+     * counted as dropped.
+     *
+     * @param timeoutMillis Maximum time to wait for all listeners together
+     */
+    public void shutdown(long timeoutMillis) {
+        closed = true;
+        for (Subscription subscription : subscriptions) {
+            subscription.stop();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (Subscription subscription : subscriptions) {
+            subscription.awaitUntil(deadline);
+        }
+    }
+
+    /**
+     * What publish() does with an event for a subscription whose queue is full.
+     */
+    public static final class OverflowPolicy {
+        /** Drop the event at once, so a slow listener never holds up the publisher. */
+        public static final OverflowPolicy DROP = new OverflowPolicy(0);
+
+        private final long waitMillis;
+
+        private OverflowPolicy(long waitMillis) {
+            this.waitMillis = waitMillis;
+        }
+
+        /**
+         * Wait up to the given time for room, then drop the event. For listeners that
+         * should ride out short bursts; the publisher is held for at most this long.
+         */
+        public static OverflowPolicy waitUpTo(long waitMillis) {
+            if (waitMillis <= 0) {
+                throw new IllegalArgumentException("Wait must be positive: " + waitMillis);
+            }
+            return new OverflowPolicy(waitMillis);
+        }
+
+        public long getWaitMillis() {
+            return waitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return waitMillis == 0 ? "drop" : "wait " + waitMillis + "ms, then drop";
+        }
+    }
+
+    /**
+     * One listener with its own queue and worker thread.
+     */
+    public static final class Subscription {
+        private static final StatusChangeEvent POISON = new StatusChangeEvent(null, OrderStatus.PENDING);
+
+        private final String name;
+        private final StatusChangeListener listener;
+        private final BlockingQueue<StatusChangeEvent> queue;
+        private final OverflowPolicy overflowPolicy;
+        private final Thread worker;
+        private volatile boolean stopping;
+
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+        private volatile long lastLagNanos;
+
+        Subscription(String name, StatusChangeListener listener, int queueCapacity, OverflowPolicy overflowPolicy) {
+            this.name = name;
+            this.listener = listener;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.overflowPolicy = overflowPolicy;
+            this.worker = new Thread(this::drain, "event-bus-" + name);
+            this.worker.setDaemon(true);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        /** Events waiting to be handled. */
+        public int getQueueDepth() {
+            return queue.size();
+        }
+
+        public long getProcessedCount() {
+            return processed.get();
+        }
+
+        public long getFailedCount() {
+            return failed.get();
+        }
+
+        /** Events this listener never saw: its queue was full, or it was stopped before reaching them. */
+        public long getDroppedCount() {
+            return dropped.get();
+        }
+
+        /** Publish-to-handled delay of the most recent event, in milliseconds. */
+        public double getLastLagMillis() {
+            return lastLagNanos / 1_000_000.0;
+        }
+
+        /** Worst publish-to-handled delay seen so far, in milliseconds. */
+        public double getMaxLagMillis() {
+            return maxLagNanos.get() / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: depth=%d processed=%d failed=%d dropped=%d lag=%.2fms maxLag=%.2fms",
+                    name, getQueueDepth(), getProcessedCount(), getFailedCount(), getDroppedCount(),
+                    getLastLagMillis(), getMaxLagMillis());
+        }
+
+        void start() {
+            worker.start();
+        }
+
+        void enqueue(StatusChangeEvent event) {
+            if (stopping || !offer(event)) {
+                dropped.incrementAndGet();
+            }
+        }
+
+        private boolean offer(StatusChangeEvent event) {
+            if (overflowPolicy.waitMillis == 0) {
+                return queue.offer(event);
+            }
+            try {
+                return queue.offer(event, overflowPolicy.waitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // The publisher is being cancelled; give up on this event but keep the interrupt
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * Asks the worker to exit once its queue is empty, without waiting for room.
+         */
+        void stop() {
+            stopping = true;
+            // Wakes a worker idle in take(); if the queue is full the worker is busy and
+            // sees the flag as soon as it has drained it
+            queue.offer(POISON);
+        }
+
+        /**
+         * Waits for the worker until the shared shutdown deadline, then interrupts it
+         * if it is still running.
+         */
+        void awaitUntil(long deadlineNanos) {
+            try {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos > 0) {
+                    TimeUnit.NANOSECONDS.timedJoin(worker, remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                worker.interrupt();
+                System.out.println("WARN: Listener " + name + " did not stop before the shutdown deadline; interrupted");
+            }
+            List<StatusChangeEvent> abandoned = new ArrayList<>();
+            queue.drainTo(abandoned);
+            abandoned.remove(POISON);
+            dropped.addAndGet(abandoned.size());
+        }
+
+        private void drain() {
+            while (!(stopping && queue.isEmpty())) {
+                StatusChangeEvent event;
+                try {
+                    event = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (event == POISON) {
+                    continue;
+                }
+                try {
+                    listener.onStatusChange(event);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    System.out.println("ERROR: Listener " + name + " failed on " + event + ": " + e.getMessage());
+                }
+                long lag = System.nanoTime() - event.getPublishedAtNanos();
+                lastLagNanos = lag;
+                maxLagNanos.accumulateAndGet(lag, Math::max);
+                processed.incrementAndGet();
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        }
+    }
+}
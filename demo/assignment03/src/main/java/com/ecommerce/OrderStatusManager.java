@@ -1,34 +1,80 @@
 package com.ecommerce;
 
 public class OrderStatusManager {
-    private EmailService emailService;
-    private SMSService smsService;
-    private InventoryService inventoryService;
-    private AnalyticsService analyticsService;
+    private static final int LISTENER_QUEUE_CAPACITY = 1024;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000;
+    // Restocking must not be lost to a short burst, so inventory waits briefly for room
+    private static final long INVENTORY_OVERFLOW_WAIT_MILLIS = 50;
+
+    private final OrderEventBus eventBus;
 
     public OrderStatusManager() {
-        this.emailService = new EmailService();
-        this.smsService = new SMSService();
-        this.inventoryService = new InventoryService();
-        this.analyticsService = new AnalyticsService();
+        this(new OrderEventBus());
+        EmailService emailService = new EmailService();
+        SMSService smsService = new SMSService();
+        InventoryService inventoryService = new InventoryService();
+        AnalyticsService analyticsService = new AnalyticsService();
+
+        // Adding a new listener (e.g., PushNotificationService) is just another subscription
+        eventBus.subscribe("email", event -> emailService.send(emailMessage(event.getStatus())),
+                LISTENER_QUEUE_CAPACITY, OrderStatus.SHIPPED, OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+        eventBus.subscribe("sms", event -> smsService.send("Order shipped: " + event.getOrderId()),
+                LISTENER_QUEUE_CAPACITY, OrderStatus.SHIPPED);
+        eventBus.subscribe("inventory", event -> {
+            if (event.getStatus() == OrderStatus.DELIVERED) {
+                inventoryService.markDelivered(event.getOrderId());
+            } else {
+                inventoryService.restoreStock(event.getOrderId());
+            }
+        }, LISTENER_QUEUE_CAPACITY, OrderEventBus.OverflowPolicy.waitUpTo(INVENTORY_OVERFLOW_WAIT_MILLIS),
+                OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+        eventBus.subscribe("analytics", event -> analyticsService.track(
+                        "order_" + event.getStatus().name().toLowerCase(), event.getOrderId()),
+                LISTENER_QUEUE_CAPACITY, OrderStatus.SHIPPED, OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+    }
+
+    public OrderStatusManager(OrderEventBus eventBus) {
+        this.eventBus = eventBus;
     }
 
     public void updateStatus(String orderId, String newStatus) {
+        OrderStatus status;
+        try {
+            status = OrderStatus.valueOf(newStatus);
+        } catch (IllegalArgumentException e) {
+            System.out.println("ERROR: Unknown order status: " + newStatus);
+            return;
+        }
+        updateStatus(orderId, status);
+    }
+
+    public void updateStatus(String orderId, OrderStatus newStatus) {
         System.out.println("Order " + orderId + " status changed to: " + newStatus);
-        
-        // Problem: Adding a new listener (e.g., PushNotificationService) requires modifying this method
-        if (newStatus.equals("SHIPPED")) {
-            emailService.send("Your order has been shipped!");
-            smsService.send("Order shipped: " + orderId);
-            analyticsService.track("order_shipped", orderId);
-        } else if (newStatus.equals("DELIVERED")) {
-            emailService.send("Your order has been delivered!");
-            inventoryService.markDelivered(orderId);
-            analyticsService.track("order_delivered", orderId);
-        } else if (newStatus.equals("CANCELLED")) {
-            emailService.send("Your order has been cancelled.");
-            inventoryService.restoreStock(orderId);
-            analyticsService.track("order_cancelled", orderId);
+        eventBus.publish(new StatusChangeEvent(orderId, newStatus));
+    }
+
+    public OrderEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Waits for all listeners to handle queued events, then stops them.
+     * Status updates after this are rejected.
+     */
+    public void shutdown() {
+        eventBus.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+    }
+
+    private static String emailMessage(OrderStatus status) {
+        switch (status) {
+            case SHIPPED:
+                return "Your order has been shipped!";
+            case DELIVERED:
+                return "Your order has been delivered!";
+            case CANCELLED:
+                return "Your order has been cancelled.";
+            default:
+                return "Your order status is now " + status;
         }
     }
 }
@@ -0,0 +1,70 @@
+package com.ecommerce;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable unit prices and per-unit fees, in cents.
+ *
+ * Usage:
+ * PriceList prices = PriceList.builder()
+ *         .product("P001", 19.99)
+ *         .product("P002", 249.00, 2.50)   // with a per-unit handling fee
+ *         .build();
+ */
+public final class PriceList {
+    private final Map<String, Long> unitPriceCents;
+    private final Map<String, Long> unitFeeCents;
+
+    private PriceList(Builder builder) {
+        this.unitPriceCents = Map.copyOf(builder.unitPriceCents);
+        this.unitFeeCents = Map.copyOf(builder.unitFeeCents);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @throws IllegalArgumentException If the product has no price
+     */
+    public long unitPriceCents(String productId) {
+        Long price = unitPriceCents.get(productId);
+        if (price == null) {
+            throw new IllegalArgumentException("No price for product " + productId);
+        }
+        return price;
+    }
+
+    public long unitFeeCents(String productId) {
+        return unitFeeCents.getOrDefault(productId, 0L);
+    }
+
+    static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public static final class Builder {
+        private final Map<String, Long> unitPriceCents = new HashMap<>();
+        private final Map<String, Long> unitFeeCents = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder product(String productId, double unitPrice) {
+            return product(productId, unitPrice, 0);
+        }
+
+        public Builder product(String productId, double unitPrice, double unitFee) {
+            unitPriceCents.put(productId, toCents(unitPrice));
+            if (unitFee != 0) {
+                unitFeeCents.put(productId, toCents(unitFee));
+            }
+            return this;
+        }
+
+        public PriceList build() {
+            return new PriceList(this);
+        }
+    }
+}
@@ -1,32 +1,98 @@
 package com.ecommerce;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Prices order lines by customer tier and quantity.
+ *
+ * The engine holds no per-customer state: the tier is an argument of every call, and
+ * the tables are fixed at construction, so one instance can be shared by any number
+ * of threads. Each tier's breakpoints and multipliers are copied into arrays indexed
+ * by the tier's ordinal, which keeps the batch loop in {@link #quoteAll} free of map
+ * lookups.
+ */
 public class PricingEngine {
-    private String customerType;
 
-    public void setCustomerType(String type) {
-        this.customerType = type;
+    private final int[][] minQuantities;
+    private final double[][] multipliers;
+
+    /**
+     * Creates an engine with the {@link #defaultTables() default tables}.
+     */
+    public PricingEngine() {
+        this(defaultTables());
     }
 
-    // Problem: Adding new pricing tier (e.g., ENTERPRISE) requires modifying this method
-    public double calculatePrice(double basePrice, int quantity) {
-        double price = basePrice * quantity;
-        
-        if (customerType.equals("REGULAR")) {
-            return price;
-        } else if (customerType.equals("MEMBER")) {
-            return price * 0.95; // 5% discount
-        } else if (customerType.equals("VIP")) {
-            return price * 0.85; // 15% discount
-        } else if (customerType.equals("WHOLESALE")) {
-            if (quantity >= 100) {
-                return price * 0.70; // 30% off for bulk
-            } else if (quantity >= 50) {
-                return price * 0.80; // 20% off
-            } else {
-                return price * 0.90; // 10% off
+    /**
+     * @param tables Pricing for every tier
+     * @throws IllegalArgumentException If a tier has no table
+     */
+    public PricingEngine(Map<CustomerTier, TierPricing> tables) {
+        CustomerTier[] tiers = CustomerTier.values();
+        this.minQuantities = new int[tiers.length][];
+        this.multipliers = new double[tiers.length][];
+        for (CustomerTier tier : tiers) {
+            TierPricing pricing = tables.get(tier);
+            if (pricing == null) {
+                throw new IllegalArgumentException("No pricing table for tier " + tier);
             }
-        } else {
-            return price;
+            minQuantities[tier.ordinal()] = pricing.minQuantities();
+            multipliers[tier.ordinal()] = pricing.multipliers();
+        }
+    }
+
+    /**
+     * The standard tables: flat discounts for members (5%) and VIPs (15%), and volume
+     * breaks for wholesale and enterprise customers.
+     */
+    public static Map<CustomerTier, TierPricing> defaultTables() {
+        Map<CustomerTier, TierPricing> tables = new EnumMap<>(CustomerTier.class);
+        tables.put(CustomerTier.REGULAR, TierPricing.flat(1.00));
+        tables.put(CustomerTier.MEMBER, TierPricing.flat(0.95));
+        tables.put(CustomerTier.VIP, TierPricing.flat(0.85));
+        tables.put(CustomerTier.WHOLESALE, TierPricing.builder()
+                .from(0, 0.90)
+                .from(50, 0.80)
+                .from(100, 0.70)
+                .build());
+        tables.put(CustomerTier.ENTERPRISE, TierPricing.builder()
+                .from(0, 0.85)
+                .from(100, 0.75)
+                .from(500, 0.65)
+                .from(1_000, 0.60)
+                .build());
+        return tables;
+    }
+
+    public double calculatePrice(CustomerTier tier, double basePrice, int quantity) {
+        int row = tier.ordinal();
+        return basePrice * quantity * multipliers[row][TierPricing.indexFor(minQuantities[row], quantity)];
+    }
+
+    /**
+     * Prices many lines at once; row i is (tiers[i], basePrices[i], quantities[i]).
+     *
+     * @return The price of each row
+     */
+    public double[] quoteAll(CustomerTier[] tiers, double[] basePrices, int[] quantities) {
+        double[] prices = new double[tiers.length];
+        quoteAll(tiers, basePrices, quantities, prices);
+        return prices;
+    }
+
+    /**
+     * Prices many lines into a caller-supplied array, so repeated batches allocate nothing.
+     */
+    public void quoteAll(CustomerTier[] tiers, double[] basePrices, int[] quantities, double[] prices) {
+        int rows = tiers.length;
+        if (basePrices.length != rows || quantities.length != rows || prices.length < rows) {
+            throw new IllegalArgumentException("Row arrays must have the same length");
+        }
+        for (int i = 0; i < rows; i++) {
+            int row = tiers[i].ordinal();
+            int quantity = quantities[i];
+            prices[i] = basePrices[i] * quantity * multipliers[row][TierPricing.indexFor(minQuantities[row], quantity)];
         }
     }
 }
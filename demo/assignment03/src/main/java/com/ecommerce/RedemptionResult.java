@@ -0,0 +1,12 @@
+package com.ecommerce;
+
+/**
+ * Outcome of checking or redeeming a coupon code.
+ */
+public enum RedemptionResult {
+    /** Redeemed, or for a check, redeemable right now. */
+    ACCEPTED,
+    UNKNOWN_CODE,
+    EXHAUSTED,
+    CUSTOMER_LIMIT_REACHED
+}
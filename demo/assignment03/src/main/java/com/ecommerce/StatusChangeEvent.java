@@ -0,0 +1,33 @@
+package com.ecommerce;
+
+/**
+ * Published whenever an order moves to a new status.
+ */
+public final class StatusChangeEvent {
+    private final String orderId;
+    private final OrderStatus status;
+    private final long publishedAtNanos;
+
+    public StatusChangeEvent(String orderId, OrderStatus status) {
+        this.orderId = orderId;
+        this.status = status;
+        this.publishedAtNanos = System.nanoTime();
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getPublishedAtNanos() {
+        return publishedAtNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "StatusChangeEvent{orderId='" + orderId + "', status=" + status + "}";
+    }
+}
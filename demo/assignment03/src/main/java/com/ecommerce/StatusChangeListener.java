@@ -0,0 +1,6 @@
+package com.ecommerce;
+
+@FunctionalInterface
+public interface StatusChangeListener {
+    void onStatusChange(StatusChangeEvent event);
+}
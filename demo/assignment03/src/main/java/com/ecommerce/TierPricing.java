@@ -0,0 +1,106 @@
+package com.ecommerce;
+
+import java.util.Arrays;
+
+/**
+ * Price multipliers for one tier by quantity: each breakpoint is the minimum
+ * quantity from which its multiplier applies, up to the next breakpoint.
+ *
+ * Usage:
+ * TierPricing wholesale = TierPricing.builder()
+ *         .from(0, 0.90)
+ *         .from(50, 0.80)
+ *         .from(100, 0.70)
+ *         .build();
+ */
+public final class TierPricing {
+    private final int[] minQuantities;
+    private final double[] multipliers;
+
+    private TierPricing(int[] minQuantities, double[] multipliers) {
+        this.minQuantities = minQuantities;
+        this.multipliers = multipliers;
+    }
+
+    /**
+     * One multiplier for every quantity.
+     */
+    public static TierPricing flat(double multiplier) {
+        return builder().from(0, multiplier).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Finds the multiplier for a quantity by binary search over the breakpoints.
+     */
+    public double multiplierFor(int quantity) {
+        return multipliers[indexFor(minQuantities, quantity)];
+    }
+
+    int[] minQuantities() {
+        return minQuantities;
+    }
+
+    double[] multipliers() {
+        return multipliers;
+    }
+
+    /**
+     * @return Index of the last breakpoint at or below the quantity
+     */
+    static int indexFor(int[] minQuantities, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity must not be negative: " + quantity);
+        }
+        int index = Arrays.binarySearch(minQuantities, quantity);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TierPricing{");
+        for (int i = 0; i < minQuantities.length; i++) {
+            sb.append(i == 0 ? "" : ", ").append(minQuantities[i]).append("+: x").append(multipliers[i]);
+        }
+        return sb.append("}").toString();
+    }
+
+    public static final class Builder {
+        private int[] minQuantities = new int[4];
+        private double[] multipliers = new double[4];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a breakpoint. Breakpoints must be added in increasing order, starting at 0.
+         */
+        public Builder from(int minQuantity, double multiplier) {
+            if (size == 0 ? minQuantity != 0 : minQuantity <= minQuantities[size - 1]) {
+                throw new IllegalArgumentException("Breakpoints must start at 0 and increase: " + minQuantity);
+            }
+            if (multiplier < 0) {
+                throw new IllegalArgumentException("Multiplier must not be negative: " + multiplier);
+            }
+            if (size == minQuantities.length) {
+                minQuantities = Arrays.copyOf(minQuantities, size * 2);
+                multipliers = Arrays.copyOf(multipliers, size * 2);
+            }
+            minQuantities[size] = minQuantity;
+            multipliers[size] = multiplier;
+            size++;
+            return this;
+        }
+
+        public TierPricing build() {
+            if (size == 0) {
+                throw new IllegalStateException("A tier needs at least the breakpoint at 0");
+            }
+            return new TierPricing(Arrays.copyOf(minQuantities, size), Arrays.copyOf(multipliers, size));
+        }
+    }
+}